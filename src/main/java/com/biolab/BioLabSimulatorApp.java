@@ -264,6 +264,7 @@ public class BioLabSimulatorApp extends JFrame implements SimulationCanvas.Selec
         if (prev != null) prev.setSelected(false);
         selectedMicrobe = microbe;
         if (microbe != null) microbe.setSelected(true);
+        canvas.setSelectedMicrobe(microbe);
         overlayManager.getInspectorPanel().setSelectedMicrobe(microbe);
         overlayManager.getInspectorPanel().showPanel();
         canvas.startFollowing(microbe);
@@ -275,6 +276,7 @@ public class BioLabSimulatorApp extends JFrame implements SimulationCanvas.Selec
         Microbe prev = selectedMicrobe;
         if (prev != null) prev.setSelected(false);
         selectedMicrobe = null;
+        canvas.setSelectedMicrobe(null);
         canvas.stopFollowing();
         overlayManager.getInspectorPanel().hidePanel();
         getLayeredPane().repaint();
@@ -303,6 +305,7 @@ public class BioLabSimulatorApp extends JFrame implements SimulationCanvas.Selec
                 onMicrobeSelected(next);
             } else {
                 overlayManager.getInspectorPanel().hidePanel();
+                canvas.setSelectedMicrobe(null);
                 canvas.stopFollowing();
                 getLayeredPane().repaint();
             }
@@ -9,6 +9,7 @@ import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,6 +28,12 @@ import java.util.logging.Logger;
  *   <li>If the microbe list is empty the average columns are recorded as {@code 0}.</li>
  *   <li>This class is stateless; the caller is responsible for the 1-second interval.</li>
  * </ul>
+ *
+ * <p>Headless runs use {@link #logTickData(Path, long, List, Environment)} instead,
+ * which keys each row by simulation tick rather than wall-clock time:</p>
+ * <pre>
+ * Tick,Population,Temp,Tox,AvgHealth,AvgEnergy,AvgHeatRes,AvgToxRes,AvgSpeed,AvgDiet
+ * </pre>
  */
 public final class DataExporter {
 
@@ -38,8 +45,13 @@ public final class DataExporter {
     private static final Path OUTPUT_PATH =
             Paths.get(System.getProperty("user.dir"), "biolab_stats.csv");
 
-    private static final String CSV_HEADER =
-            "Timestamp,Population,Temp,Tox,AvgHealth,AvgEnergy,AvgHeatRes,AvgToxRes,AvgSpeed,AvgDiet";
+    /** Column names of the rows produced by {@link #formatStats}. */
+    static final String STATS_COLUMNS =
+            "Population,Temp,Tox,AvgHealth,AvgEnergy,AvgHeatRes,AvgToxRes,AvgSpeed,AvgDiet";
+
+    private static final String CSV_HEADER = "Timestamp," + STATS_COLUMNS;
+
+    private static final String TICK_CSV_HEADER = "Tick," + STATS_COLUMNS;
 
     private static final DateTimeFormatter TS_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -60,6 +72,31 @@ public final class DataExporter {
      * @param env      current environment (provides temperature and toxicity)
      */
     public static void logSimulationData(List<Microbe> microbes, Environment env) {
+        String timestamp = LocalDateTime.now().format(TS_FORMAT);
+        appendRow(OUTPUT_PATH, CSV_HEADER, timestamp + "," + formatStats(microbes, env));
+    }
+
+    /**
+     * Calculates population averages and appends one tick-keyed CSV row to {@code output}.
+     * Creates the file with a header row if it does not yet exist.
+     *
+     * <p>This method performs blocking I/O and must <em>not</em> be called on the EDT.</p>
+     *
+     * @param output   CSV file to append to
+     * @param tick     simulation tick the snapshot belongs to
+     * @param microbes snapshot of the current living microbe population
+     * @param env      current environment (provides temperature and toxicity)
+     */
+    public static void logTickData(Path output, long tick, List<Microbe> microbes, Environment env) {
+        appendRow(output, TICK_CSV_HEADER, tick + "," + formatStats(microbes, env));
+    }
+
+    /**
+     * Formats the population and environment columns shared by both row formats,
+     * including the trailing line separator. Numbers use {@link Locale#ROOT}, so the
+     * decimal separator never clashes with the column separator.
+     */
+    static String formatStats(List<Microbe> microbes, Environment env) {
         int population = microbes.size();
 
         double avgHealth = 0;
@@ -86,29 +123,30 @@ public final class DataExporter {
             avgDiet /= population;
         }
 
-        String timestamp = LocalDateTime.now().format(TS_FORMAT);
         double temp = env.getTemperature();
         double tox = env.getToxicity();
 
-        String row = String.format("%s,%d,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f%n",
-                timestamp, population, temp, tox,
+        return String.format(Locale.ROOT, "%d,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f%n",
+                population, temp, tox,
                 avgHealth, avgEnergy, avgHeatRes, avgToxRes, avgSpeed, avgDiet);
+    }
 
+    private static void appendRow(Path output, String header, String row) {
         try {
-            boolean fileExists = Files.exists(OUTPUT_PATH);
+            boolean fileExists = Files.exists(output);
 
             if (!fileExists) {
                 // Write header + first data row atomically (CREATE)
-                String content = CSV_HEADER + System.lineSeparator() + row;
-                Files.writeString(OUTPUT_PATH, content, StandardCharsets.UTF_8,
+                String content = header + System.lineSeparator() + row;
+                Files.writeString(output, content, StandardCharsets.UTF_8,
                         StandardOpenOption.CREATE, StandardOpenOption.WRITE);
             } else {
                 // Append subsequent rows
-                Files.writeString(OUTPUT_PATH, row, StandardCharsets.UTF_8,
+                Files.writeString(output, row, StandardCharsets.UTF_8,
                         StandardOpenOption.APPEND);
             }
         } catch (IOException e) {
-            LOGGER.log(Level.WARNING, "DataExporter: failed to write to " + OUTPUT_PATH, e);
+            LOGGER.log(Level.WARNING, "DataExporter: failed to write to " + output, e);
         }
     }
 }
@@ -149,6 +149,7 @@ public class DebugSandboxApp {
                         if (selected != null) selected.setSelected(false);
                         selected = microbe;
                         microbe.setSelected(true);
+                        ref[0].setSelectedMicrobe(microbe);
                         ref[0].startFollowing(microbe);
                     }
 
@@ -156,6 +157,7 @@ public class DebugSandboxApp {
                     public void onSelectionCleared() {
                         if (selected != null) selected.setSelected(false);
                         selected = null;
+                        ref[0].setSelectedMicrobe(null);
                         ref[0].stopFollowing();
                     }
                 });
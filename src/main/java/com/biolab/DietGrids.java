@@ -0,0 +1,107 @@
+package com.biolab;
+
+/**
+ * The microbe spatial index of the engine, split by diet: one {@link MicrobeIndex} –
+ * a {@link MicrobeGrid} or a {@link MicrobeQuadtree} – of the Carnivores and one of
+ * the Herbivores.
+ *
+ * <p>A hunting Carnivore only looks for Herbivores and a Herbivore only for threatening
+ * Carnivores, so each neighbour query goes to the other diet's index and visits no
+ * microbe it would skip. A query answers with the same slots as a query of an
+ * undivided index filtered by diet. The diet of a microbe never changes, so a slot
+ * stays in its index until it is removed.</p>
+ *
+ * <p>The pair is maintained like a single index – rebuilt every frame, or, if
+ * {@link #supportsIncrementalUpdates supported}, incrementally through
+ * {@link #insert}, {@link #relocate} and the {@link MicrobeStore.SlotListener}
+ * callbacks – under the same threading rules as {@link MicrobeGrid}.</p>
+ */
+final class DietGrids implements MicrobeStore.SlotListener {
+    private final MicrobeIndex carnivores;
+    private final MicrobeIndex herbivores;
+
+    /**
+     * Creates a pair of {@link MicrobeGrid}s.
+     *
+     * @param worldWidth  width of the world in world units
+     * @param worldHeight height of the world in world units
+     * @param cellSize    size of each grid cell
+     * @throws IllegalArgumentException if {@code cellSize} is not positive
+     */
+    DietGrids(int worldWidth, int worldHeight, int cellSize) {
+        this(new MicrobeGrid(worldWidth, worldHeight, cellSize, MicrobeGrid.Diet.CARNIVORES),
+                new MicrobeGrid(worldWidth, worldHeight, cellSize, MicrobeGrid.Diet.HERBIVORES));
+    }
+
+    /**
+     * @param carnivores index of the {@link MicrobeGrid.Diet#CARNIVORES}
+     * @param herbivores index of the {@link MicrobeGrid.Diet#HERBIVORES}
+     */
+    DietGrids(MicrobeIndex carnivores, MicrobeIndex herbivores) {
+        this.carnivores = carnivores;
+        this.herbivores = herbivores;
+    }
+
+    /** Returns the index of the living Carnivores. */
+    MicrobeIndex carnivores() {
+        return carnivores;
+    }
+
+    /** Returns the index of the living Herbivores. */
+    MicrobeIndex herbivores() {
+        return herbivores;
+    }
+
+    /** Returns {@code true} if both indexes can be maintained incrementally. */
+    boolean supportsIncrementalUpdates() {
+        return carnivores.supportsIncrementalUpdates() && herbivores.supportsIncrementalUpdates();
+    }
+
+    /** Returns the number of slots indexed by both indexes. */
+    int getIndexedCount() {
+        return carnivores.getIndexedCount() + herbivores.getIndexedCount();
+    }
+
+    /** Rebuilds both indexes (see {@link MicrobeIndex#rebuild}). */
+    void rebuild(MicrobeStore store) {
+        carnivores.rebuild(store);
+        herbivores.rebuild(store);
+    }
+
+    /**
+     * Rebuilds both indexes on the workers of {@code executor} for read-only use (see
+     * {@link MicrobeIndex#rebuildCompact}); {@code alongside} runs during the first of them.
+     */
+    void rebuildCompact(MicrobeStore store, TickExecutor executor, Runnable alongside) {
+        carnivores.rebuildCompact(store, executor, alongside);
+        herbivores.rebuildCompact(store, executor, null);
+    }
+
+    /** Adds the living {@code slot} at its position to the index of its diet. */
+    void insert(MicrobeStore store, int slot) {
+        (store.isCarnivore(slot) ? carnivores : herbivores).insert(slot, store.getX(slot), store.getY(slot));
+    }
+
+    /** Moves the indexed {@code slot} to its position in the index of its diet. */
+    void relocate(MicrobeStore store, int slot) {
+        (store.isCarnivore(slot) ? carnivores : herbivores).relocate(slot, store.getX(slot), store.getY(slot));
+    }
+
+    @Override
+    public void remove(int slot) {
+        carnivores.remove(slot);
+        herbivores.remove(slot);
+    }
+
+    @Override
+    public void renumber(int from, int to) {
+        carnivores.renumber(from, to);
+        herbivores.renumber(from, to);
+    }
+
+    @Override
+    public void renumber(int[] newSlots, int count, TickExecutor executor) {
+        carnivores.renumber(newSlots, count, executor);
+        herbivores.renumber(newSlots, count, executor);
+    }
+}
@@ -3,16 +3,20 @@ package com.biolab;
 import java.awt.*;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a food pellet in the simulation.
  * Microbes can consume food to gain energy.
+ *
+ * <p>The engine keeps its pellets in a {@link FoodStore}, which shares this class's
+ * size, energy value and colour.</p>
  */
 public class FoodPellet {
-    private static final Color FOOD_COLOR = new Color(50, 255, 100);
+    static final Color FOOD_COLOR = new Color(50, 255, 100);
     private final double x;
-    private static final int SIZE = 6;
-    private static final double ENERGY_VALUE = 30.0;
+    static final int SIZE = 6;
+    static final double ENERGY_VALUE = 30.0;
     private final double y;
     private final AtomicBoolean consumed = new AtomicBoolean(false);
 
@@ -28,7 +32,13 @@ public class FoodPellet {
      * Creates a food pellet at a random position within the world bounds.
      */
     public static FoodPellet createRandom(int worldWidth, int worldHeight) {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return createRandom(worldWidth, worldHeight, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Creates a food pellet at a position drawn from {@code random} within the world bounds.
+     */
+    public static FoodPellet createRandom(int worldWidth, int worldHeight, RandomGenerator random) {
         double x = random.nextDouble() * worldWidth;
         double y = random.nextDouble() * worldHeight;
         return new FoodPellet(x, y);
@@ -39,11 +49,20 @@ public class FoodPellet {
      * Uses squared distance to avoid expensive Math.sqrt().
      */
     public boolean checkCollision(Microbe microbe) {
+        return checkCollision(microbe.getX(), microbe.getY(), microbe.getSize());
+    }
+
+    /**
+     * Checks whether a microbe of radius {@code microbeSize} at {@code (mx, my)} is close
+     * enough to consume this food. Used by the engine, which reads positions from
+     * {@link MicrobeStore} rather than from {@link Microbe} objects.
+     */
+    public boolean checkCollision(double mx, double my, int microbeSize) {
         if (consumed.get()) return false;
 
-        double dx = microbe.getX() - x;
-        double dy = microbe.getY() - y;
-        double collisionDist = SIZE + microbe.getSize();
+        double dx = mx - x;
+        double dy = my - y;
+        double collisionDist = SIZE + microbeSize;
 
         return (dx * dx + dy * dy) < (collisionDist * collisionDist);
     }
@@ -0,0 +1,237 @@
+package com.biolab;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Structure-of-arrays store of the food pellets of one {@link SimulationEngine}.
+ *
+ * <p>Every pellet occupies one <em>slot</em>: its position lives in two primitive
+ * arrays, and whether it has been eaten is one bit of an {@link AtomicLongArray}.
+ * Free slots are kept marked as consumed, so every query only has to test that bit.
+ * Eaten pellets are not removed from the arrays; {@link #recycleConsumed()} puts their
+ * slots on a free list, and {@link #add} fills free slots before taking new ones. The
+ * store therefore never compacts or copies pellets, and a tick costs nothing per
+ * pellet beyond the grid rebuild – regardless of how many pellets are allowed.</p>
+ *
+ * <h3>Thread-safety</h3>
+ * <ul>
+ *   <li>{@link #add} and {@link #recycleConsumed()} run only on the SimulationLoop
+ *       thread, while it holds the engine's {@code dataLock} and no worker runs.</li>
+ *   <li>Workers only read pellets during the parallel phases; food claims are
+ *       recorded and applied by {@link IntentResolver} via {@link #consume}.</li>
+ *   <li>The renderer reads a {@link View} without any lock. A pellet's position is
+ *       written before its consumed bit is cleared, so a reader that sees the bit
+ *       clear sees the position too; if the slot is recycled while it is drawing, one
+ *       frame may show the old pellet at the new position, which is harmless.</li>
+ * </ul>
+ */
+public final class FoodStore {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final int maxCapacity;
+    private double[] x;
+    private double[] y;
+    /** Bit {@code slot} set: the slot holds no edible pellet (eaten or free). */
+    private AtomicLongArray consumed;
+    /** Bit {@code slot} set: the slot is on the free list (loop thread only). */
+    private long[] free;
+    private int[] freeSlots;
+    private int freeCount;
+    /** Slots {@code [0, used)} have held a pellet; all others are untouched. */
+    private int used;
+    /** Cached render view, replaced when the arrays grow or {@link #used} changes. */
+    private volatile View view;
+
+    /**
+     * Read-only view of the pellets for the renderer: the store's arrays as of
+     * publication, covering slots {@code [0, slotCount)}. Creating one copies nothing.
+     *
+     * @param x         pellet x coordinates by slot
+     * @param y         pellet y coordinates by slot
+     * @param consumed  consumed bits by slot
+     * @param slotCount number of slots that may hold a pellet
+     */
+    public record View(double[] x, double[] y, AtomicLongArray consumed, int slotCount) {
+
+        /** Returns {@code true} if {@code slot} holds no edible pellet. */
+        public boolean isConsumed(int slot) {
+            return (consumed.get(slot >>> 6) & (1L << slot)) != 0;
+        }
+
+        /** Returns the number of edible pellets (scans the bitset). */
+        public int count() {
+            int eaten = 0;
+            for (int w = 0, words = (slotCount + 63) >>> 6; w < words; w++) {
+                long bits = consumed.get(w);
+                if (w == words - 1 && (slotCount & 63) != 0) bits &= (1L << slotCount) - 1;
+                eaten += Long.bitCount(bits);
+            }
+            return slotCount - eaten;
+        }
+    }
+
+    /**
+     * Creates an empty store that holds at most {@code maxCapacity} pellets; memory is
+     * allocated as pellets are added.
+     *
+     * @throws IllegalArgumentException if {@code maxCapacity} is not positive
+     */
+    public FoodStore(int maxCapacity) {
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("maxCapacity must be > 0, was: " + maxCapacity);
+        }
+        this.maxCapacity = maxCapacity;
+        int capacity = Math.min(DEFAULT_CAPACITY, maxCapacity);
+        x = new double[capacity];
+        y = new double[capacity];
+        consumed = new AtomicLongArray(words(capacity));
+        free = new long[words(capacity)];
+        freeSlots = new int[capacity];
+        view = new View(x, y, consumed, 0);
+    }
+
+    /**
+     * Adds a pellet at {@code (x, y)}, reusing a recycled slot if there is one.
+     *
+     * @return the pellet's slot
+     * @throws IllegalStateException if the store already holds {@code maxCapacity} pellets
+     */
+    public int add(double x, double y) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+            free[slot >>> 6] &= ~(1L << slot);
+        } else {
+            if (used == maxCapacity) {
+                throw new IllegalStateException("Food store is full (" + maxCapacity + " pellets)");
+            }
+            if (used == this.x.length) grow();
+            slot = used++;
+        }
+        this.x[slot] = x;
+        this.y[slot] = y;
+        clearConsumed(slot); // Publishes the position to lock-free readers
+        if (view.slotCount() != used) {
+            view = new View(this.x, this.y, consumed, used);
+        }
+        return slot;
+    }
+
+    /**
+     * Marks the pellet in {@code slot} as eaten.
+     *
+     * @return {@link FoodPellet#ENERGY_VALUE} if this call ate it, {@code 0.0} if it was
+     *         already consumed
+     */
+    public double consume(int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        long bits;
+        do {
+            bits = consumed.get(word);
+            if ((bits & bit) != 0) return 0.0;
+        } while (!consumed.compareAndSet(word, bits, bits | bit));
+        return FoodPellet.ENERGY_VALUE;
+    }
+
+    /**
+     * Puts the slots of all pellets eaten since the last call on the free list.
+     * Runs in {@code O(slots / 64)}.
+     */
+    public void recycleConsumed() {
+        for (int w = 0, words = words(used); w < words; w++) {
+            long fresh = consumed.get(w) & ~free[w];
+            if (w == words - 1 && (used & 63) != 0) fresh &= (1L << used) - 1;
+            if (fresh == 0) continue;
+            free[w] |= fresh;
+            while (fresh != 0) {
+                freeSlots[freeCount++] = (w << 6) + Long.numberOfTrailingZeros(fresh);
+                fresh &= fresh - 1;
+            }
+        }
+    }
+
+    /** Returns {@code true} if {@code slot} holds no edible pellet. */
+    public boolean isConsumed(int slot) {
+        return (consumed.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    /** Returns the x coordinate of the pellet in {@code slot}. */
+    public double getX(int slot) {
+        return x[slot];
+    }
+
+    /** Returns the y coordinate of the pellet in {@code slot}. */
+    public double getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * Checks whether a microbe of radius {@code microbeSize} at {@code (mx, my)} touches
+     * the pellet in {@code slot}; eaten pellets are never touched.
+     */
+    public boolean checkCollision(int slot, double mx, double my, int microbeSize) {
+        if (isConsumed(slot)) return false;
+        double dx = mx - x[slot];
+        double dy = my - y[slot];
+        double collisionDist = FoodPellet.SIZE + microbeSize;
+        return (dx * dx + dy * dy) < (collisionDist * collisionDist);
+    }
+
+    /**
+     * Returns the number of pellets not yet recycled (eaten pellets count until the
+     * next {@link #recycleConsumed()}).
+     */
+    public int size() {
+        return used - freeCount;
+    }
+
+    /** Returns the number of slots that have held a pellet; slot indices are below it. */
+    public int slotCount() {
+        return used;
+    }
+
+    /** Returns the maximum number of pellets. */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Returns the current render view. Lock-free and allocation-free.
+     */
+    public View view() {
+        return view;
+    }
+
+    private void clearConsumed(int slot) {
+        int word = slot >>> 6;
+        long mask = ~(1L << slot);
+        long bits;
+        do {
+            bits = consumed.get(word);
+        } while (!consumed.compareAndSet(word, bits, bits & mask));
+    }
+
+    /**
+     * Doubles the arrays (up to {@code maxCapacity}). Lock-free readers keep the old
+     * arrays through their {@link View}; slots from {@link #used} on are never read.
+     */
+    private void grow() {
+        int capacity = (int) Math.min(maxCapacity, Math.max(1L, (long) x.length * 2));
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        AtomicLongArray grown = new AtomicLongArray(words(capacity));
+        for (int w = 0; w < consumed.length(); w++) {
+            grown.set(w, consumed.get(w));
+        }
+        consumed = grown;
+        free = Arrays.copyOf(free, words(capacity));
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    private static int words(int slots) {
+        return (slots + 63) >>> 6;
+    }
+}
@@ -0,0 +1,101 @@
+package com.biolab;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Command-line entry point that runs a {@link Scenario} without any Swing UI.
+ *
+ * <pre>
+ * java -cp target/classes com.biolab.HeadlessRunner scenario.properties
+ * </pre>
+ *
+ * <p>Ticks run back to back with no frame pacing. Every {@code stats.interval}
+ * ticks a row is appended to {@code stats.output} via
+ * {@link DataExporter#logTickData}, and a throughput summary is printed at the end.
+ * Needs no display, so it runs on render-less compute nodes.</p>
+ */
+public final class HeadlessRunner {
+    private static final Logger LOGGER = Logger.getLogger(HeadlessRunner.class.getName());
+
+    /**
+     * Result of a headless run.
+     *
+     * @param ticks           ticks executed
+     * @param microbeUpdates  sum of the population over all executed ticks
+     * @param elapsedNanos    wall-clock time spent in {@link SimulationEngine#update()}
+     *                        and stats output
+     * @param finalPopulation population after the last tick
+     */
+    public record RunSummary(long ticks, long microbeUpdates, long elapsedNanos, int finalPopulation) {
+
+        /** Returns executed ticks per wall-clock second. */
+        public double ticksPerSecond() {
+            return elapsedNanos == 0 ? 0 : ticks / (elapsedNanos / 1e9);
+        }
+
+        /** Returns microbe updates per wall-clock second. */
+        public double microbeUpdatesPerSecond() {
+            return elapsedNanos == 0 ? 0 : microbeUpdates / (elapsedNanos / 1e9);
+        }
+    }
+
+    private HeadlessRunner() {
+    }
+
+    /**
+     * Runs the scenario file given as the only argument.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java -cp <classpath> com.biolab.HeadlessRunner <scenario.properties>");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        Scenario scenario;
+        try {
+            scenario = Scenario.load(Path.of(args[0]));
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Failed to load scenario " + args[0], e);
+            System.exit(1);
+            return;
+        }
+
+        RunSummary summary = run(scenario);
+        System.out.printf(Locale.ROOT,
+                "seed=%d ticks=%d final-population=%d  %.1f s  %.1f ticks/s  %.2fM microbe-updates/s%n",
+                scenario.seed(), summary.ticks(), summary.finalPopulation(), summary.elapsedNanos() / 1e9,
+                summary.ticksPerSecond(), summary.microbeUpdatesPerSecond() / 1e6);
+    }
+
+    /**
+     * Runs {@code scenario} to completion on the calling thread and shuts the engine down.
+     */
+    public static RunSummary run(Scenario scenario) {
+        SimulationEngine engine = scenario.createEngine();
+        try {
+            int interval = scenario.statsInterval();
+            if (interval > 0) {
+                DataExporter.logTickData(scenario.statsOutput(), 0, engine.getMicrobes(), engine.getEnvironment());
+            }
+
+            long microbeUpdates = 0;
+            long start = System.nanoTime();
+            for (long tick = 1; tick <= scenario.ticks(); tick++) {
+                microbeUpdates += engine.getPopulationCount();
+                engine.update();
+                if (interval > 0 && tick % interval == 0) {
+                    DataExporter.logTickData(scenario.statsOutput(), tick, engine.getMicrobes(), engine.getEnvironment());
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            return new RunSummary(scenario.ticks(), microbeUpdates, elapsed, engine.getPopulationCount());
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.biolab;
+
+import java.util.Arrays;
+
+/**
+ * Collects the interaction <em>intents</em> recorded during the parallel intent
+ * phase of a tick and applies them in a fixed order during the resolve phase.
+ *
+ * <p>While the intent phase runs, workers only read the shared frame state and write
+ * their own slots; every effect on another microbe or on a food pellet is appended
+ * to the {@link Buffer} of the calling thread's worker index instead:</p>
+ * <ul>
+ *   <li><b>attack</b> – a carnivore bites a herbivore (damage, knockback, energy reward);</li>
+ *   <li><b>food claim</b> – a herbivore touches a pellet and wants to eat it;</li>
+ *   <li><b>cell crossing</b> – a microbe moved into another {@link MicrobeGrid} cell.</li>
+ * </ul>
+ *
+ * <p>{@link #resolve} then merges all buffers and applies the intents sorted by the
+ * acting microbe's slot. Each slot records at most one attack and one food claim per
+ * tick, so the order is total: the outcome (who kills whom, who gets the pellet) does
+ * not depend on thread interleaving, the scheduler, or the number of workers, and no
+ * locks or CAS on shared objects are needed. Cell crossings need no ordering, since
+ * the grid keeps every cell sorted by slot.</p>
+ *
+ * <p>Buffers are indexed by worker rather than held per thread, so replaced or shared
+ * pool threads leave nothing behind: a {@link TickExecutor} phase uses the worker
+ * index, a fork/join phase the pool index of the thread. The coordinating thread
+ * {@link #prepare sizes} the buffers before each phase.</p>
+ */
+final class IntentResolver {
+
+    /** Buffer of each worker index; entries are created once and never replaced. */
+    private volatile Buffer[] buffers = new Buffer[0];
+
+    // Merge scratch space, reused across ticks (resolve phase only)
+    private long[] keys = new long[64];
+    private final Buffer merged = new Buffer();
+
+    /**
+     * Makes sure buffers {@code 0} to {@code count - 1} exist, so that a phase run by
+     * {@code count} workers finds them without allocating. Must be called by the
+     * coordinating thread before the phase.
+     */
+    void prepare(int count) {
+        if (buffers.length < count) grow(count);
+    }
+
+    /**
+     * Returns the intent buffer of worker {@code index}. Only that worker may record
+     * into it during the phase. An index beyond the {@link #prepare prepared} count
+     * (e.g. a compensating fork/join thread) is served as well, under a lock.
+     */
+    Buffer buffer(int index) {
+        Buffer[] current = buffers;
+        return index < current.length ? current[index] : grow(index + 1)[index];
+    }
+
+    private synchronized Buffer[] grow(int count) {
+        Buffer[] current = buffers;
+        if (current.length >= count) return current;
+        Buffer[] grown = Arrays.copyOf(current, count);
+        for (int i = current.length; i < count; i++) {
+            grown[i] = new Buffer();
+        }
+        buffers = grown;
+        return grown;
+    }
+
+    /**
+     * Applies all recorded intents in slot order and clears the buffers.
+     * Must run on a single thread after the intent phase has completed and the
+     * store's frame buffers have been swapped. Attacks on victims that are already
+     * dead when their turn comes are dropped.
+     *
+     * @param store  population store the intents refer to
+     * @param grids  microbe index receiving the cell crossings
+     * @param food   food store the claimed pellet slots refer to
+     * @param damage damage dealt by one attack
+     * @param now    current {@link SimulationClock} tick, stamped on every hit victim
+     */
+    void resolve(MicrobeStore store, DietGrids grids, FoodStore food, double damage, long now) {
+        merged.clear();
+        for (Buffer buffer : buffers) {
+            merged.appendAll(buffer);
+            // ── Cell crossings (any order: cells are kept sorted by slot) ──
+            for (int m = 0; m < buffer.crossingCount; m++) {
+                grids.relocate(store, buffer.crossing[m]);
+            }
+            buffer.clear();
+        }
+
+        // ── Attacks, in attacker-slot order ───────────────────────────────
+        int attacks = merged.attackCount;
+        long[] order = sortedBySlot(merged.attacker, attacks);
+        for (int k = 0; k < attacks; k++) {
+            int m = (int) order[k];
+            int attacker = merged.attacker[m];
+            int victim = merged.victim[m];
+            if (store.isDead(victim)) continue;   // already killed earlier in this tick
+            double energyGain = store.takeDamageAndTransferEnergy(victim, damage, now);
+            store.applyKnockback(victim, merged.knockbackX[m], merged.knockbackY[m]);
+            store.eat(attacker, energyGain);
+
+            if (SimulationEngine.DEBUG_MODE) {
+                System.out.printf("[COMBAT] Carnivore ID:%d attacked Herbivore ID:%d%n",
+                        store.getView(attacker).getId(), store.getView(victim).getId());
+            }
+        }
+
+        // ── Food claims, in claimant-slot order (lowest slot wins a contested pellet) ──
+        int claims = merged.claimCount;
+        order = sortedBySlot(merged.claimant, claims);
+        for (int k = 0; k < claims; k++) {
+            int m = (int) order[k];
+            double energyGain = food.consume(merged.pellet[m]);
+            if (energyGain > 0) store.eat(merged.claimant[m], energyGain);
+        }
+        merged.clear();
+    }
+
+    /**
+     * Drops all recorded intents without applying them. Used when the intent phase
+     * failed: the recorded slots must not be applied once the store has been
+     * renumbered. Must run on a single thread after the phase.
+     */
+    void discard() {
+        for (Buffer buffer : buffers) {
+            buffer.clear();
+        }
+        merged.clear();
+    }
+
+    /**
+     * Returns merged-buffer indices sorted by the slot they refer to, packed as
+     * {@code (slot << 32) | index} so the low 32 bits yield the index.
+     */
+    private long[] sortedBySlot(int[] slots, int count) {
+        if (keys.length < count) keys = new long[Math.max(count, keys.length * 2)];
+        for (int m = 0; m < count; m++) {
+            keys[m] = ((long) slots[m] << 32) | m;
+        }
+        Arrays.sort(keys, 0, count);
+        return keys;
+    }
+
+    /**
+     * Per-worker append-only record of intents. Only its owning worker writes it
+     * during the intent phase; the resolve phase reads it after the phase barrier.
+     */
+    static final class Buffer {
+        private int attackCount;
+        private int[] attacker = new int[16];
+        private int[] victim = new int[16];
+        private double[] knockbackX = new double[16];
+        private double[] knockbackY = new double[16];
+
+        private int claimCount;
+        private int[] claimant = new int[16];
+        private int[] pellet = new int[16];
+
+        private int crossingCount;
+        private int[] crossing = new int[16];
+
+        /**
+         * Records that {@code attacker} bites {@code victim}, pushing it by the given
+         * (undamped) knockback force.
+         */
+        void attack(int attacker, int victim, double knockbackX, double knockbackY) {
+            if (attackCount == this.attacker.length) {
+                int n = attackCount * 2;
+                this.attacker = Arrays.copyOf(this.attacker, n);
+                this.victim = Arrays.copyOf(this.victim, n);
+                this.knockbackX = Arrays.copyOf(this.knockbackX, n);
+                this.knockbackY = Arrays.copyOf(this.knockbackY, n);
+            }
+            this.attacker[attackCount] = attacker;
+            this.victim[attackCount] = victim;
+            this.knockbackX[attackCount] = knockbackX;
+            this.knockbackY[attackCount] = knockbackY;
+            attackCount++;
+        }
+
+        /**
+         * Records that {@code claimant} wants to eat the pellet in {@link FoodStore} slot {@code food}.
+         */
+        void claimFood(int claimant, int food) {
+            if (claimCount == this.claimant.length) {
+                int n = claimCount * 2;
+                this.claimant = Arrays.copyOf(this.claimant, n);
+                this.pellet = Arrays.copyOf(this.pellet, n);
+            }
+            this.claimant[claimCount] = claimant;
+            this.pellet[claimCount] = food;
+            claimCount++;
+        }
+
+        /**
+         * Records that {@code slot} moved out of its {@link MicrobeGrid} cell.
+         */
+        void crossCell(int slot) {
+            if (crossingCount == crossing.length) {
+                crossing = Arrays.copyOf(crossing, crossingCount * 2);
+            }
+            crossing[crossingCount++] = slot;
+        }
+
+        private void appendAll(Buffer other) {
+            for (int m = 0; m < other.attackCount; m++) {
+                attack(other.attacker[m], other.victim[m], other.knockbackX[m], other.knockbackY[m]);
+            }
+            for (int m = 0; m < other.claimCount; m++) {
+                claimFood(other.claimant[m], other.pellet[m]);
+            }
+        }
+
+        private void clear() {
+            attackCount = 0;
+            claimCount = 0;
+            crossingCount = 0;
+        }
+    }
+}
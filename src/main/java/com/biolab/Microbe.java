@@ -6,20 +6,38 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a single microbe entity in the simulation.
  * Each microbe has genes that determine its survival capabilities,
  * consumes energy through movement, and tracks its ancestry.
  *
- * <p><b>Thread-Safety Model:</b> Each microbe is modified by exactly one worker thread
- * per frame (chunk-based partitioning in {@code SimulationEngine.processMicrobeChunk()}).
- * This guarantees write-safety without locks. Mutable fields ({@code x}, {@code y},
- * {@code health}, {@code energy}, {@code age}, {@code velocityX/Y}) are read by the EDT
- * only via {@code getMicrobes()} which acquires {@code dataLock} — establishing a
- * happens-before between worker writes and EDT reads.
- * Only {@code isSelected} is {@code volatile} because it is written directly from the
- * EDT outside the lock.</p>
+ * <p><b>Engine vs. standalone use:</b> Inside a running {@link SimulationEngine} the
+ * authoritative per-tick state ({@code x}, {@code y}, {@code health}, {@code energy},
+ * {@code age}, {@code velocityX/Y}, timers and AI intent) lives in the engine's
+ * {@link MicrobeStore}. The {@code Microbe} object is then a thin view that carries
+ * identity, genes, ancestry and cached colours, and whose mutable fields are refreshed
+ * from the store via {@link #syncFrom(MicrobeStore, int)} at the end of every tick,
+ * during compaction. Outside an engine (tests, sandbox seeding) the methods below
+ * operate on the object's own fields as before.</p>
+ *
+ * <p><b>Thread-Safety Model:</b> Mutable fields are written either by the thread that
+ * owns the microbe (standalone use) or, inside an engine, by {@code syncFrom()}: on the
+ * engine's worker threads during a parallel compaction, otherwise on the SimulationLoop
+ * thread, in both cases while the SimulationLoop thread holds {@code dataLock}. The
+ * values of a tick are visible to a thread that has read the render snapshot published
+ * after it, but only until the next tick rewrites them.</p>
+ *
+ * <p>UI readers (the inspector, the camera follow) read without the lock and may catch
+ * a view mid-update, so the getters need not agree on the tick: {@code x} may already
+ * be new while {@code y} is old. Position, velocity, {@code health}, {@code energy} and
+ * {@code age} are plain fields, so a reader that has not read a newer snapshot may also
+ * see older values (and, in principle, a torn {@code double}). The {@code volatile}
+ * fields (AI target and state, attack and adrenaline timers) are each read whole, but
+ * not as a consistent set. Anything drawn alongside the other microbes of a frame must
+ * come from the snapshot's {@link RenderBuffer} instead. {@code isSelected} is
+ * {@code volatile} because it is written directly from the EDT.</p>
  */
 public class Microbe {
 
@@ -27,7 +45,8 @@ public class Microbe {
     private static final AtomicLong ID_COUNTER = new AtomicLong(0);
 
     /**
-     * Unique, monotonically increasing ID assigned at construction.
+     * Unique ID assigned at construction, from the global counter or from an
+     * {@link IdBlock}; increasing in construction order on any one thread.
      */
     private final long id;
 
@@ -68,21 +87,21 @@ public class Microbe {
     private final double toxinResistance;
     private final double speed;
 
-    private static final double MAX_HEALTH = 100.0;
-    private static final double MAX_ENERGY = 100.0;
-    private static final double INITIAL_ENERGY = 80.0;
-    private static final int REPRODUCTION_AGE = 120;
-    private static final double MOVEMENT_ENERGY_COST = 0.02;
-    private static final double REPRODUCTION_ENERGY_COST = 40.0;
-    private static final double MIN_REPRODUCTION_ENERGY = 60.0;
+    static final double MAX_HEALTH = 100.0;
+    static final double MAX_ENERGY = 100.0;
+    static final double INITIAL_ENERGY = 80.0;
+    static final int REPRODUCTION_AGE = 120;
+    static final double MOVEMENT_ENERGY_COST = 0.02;
+    static final double REPRODUCTION_ENERGY_COST = 40.0;
+    static final double MIN_REPRODUCTION_ENERGY = 60.0;
     /**
      * Absolute generation counter: 1 for seed microbes, parent.absoluteGeneration + 1
      * for every child born through reproduction.  Never changes after construction.
      */
     private final int absoluteGeneration;
-    private static final int SIZE = 5;
-    // Mutable simulation state – written by one worker thread per frame,
-    // read by the EDT only via getMicrobes() which acquires dataLock (happens-before guaranteed).
+    static final int SIZE = 5;
+    // Mutable simulation state – mirrored from MicrobeStore by syncFrom() every tick while the
+    // engine runs; UI reads may see a mix of two ticks (see the class comment).
     private double x;
     private double health;
     private double energy;
@@ -91,31 +110,31 @@ public class Microbe {
     private volatile boolean isSelected = false;
 
     /**
-     * Timestamp (ms) of the last successful attack this microbe landed.
+     * {@link SimulationClock} tick of the last successful attack this microbe landed.
      * Written by the simulation worker thread that owns this microbe's chunk;
      * read by the EDT for rendering only.  {@code volatile} guarantees visibility
      * without needing to enter {@code stateLock}.
      */
-    private volatile long lastAttackTime = 0;
+    private volatile long lastAttackTime = SimulationClock.NEVER;
 
     // ── Debug / AI Intent fields ──────────────────────────────────────────
     /**
-     * Duration (ms) for which adrenaline stays active after a hit.
+     * Number of ticks for which adrenaline stays active after a hit (2 s at 1× speed).
      */
-    private static final long ADRENALINE_DURATION_MS = 2000;
+    static final long ADRENALINE_DURATION_TICKS = SimulationClock.ticksFor(2000);
     /**
      * Speed multiplier while adrenaline is active.
      */
-    private static final double ADRENALINE_SPEED_MULT = 2.0;
+    static final double ADRENALINE_SPEED_MULT = 2.0;
     /**
      * Energy cost multiplier while adrenaline is active.
      */
-    private static final double ADRENALINE_ENERGY_MULT = 3.0;
+    static final double ADRENALINE_ENERGY_MULT = 3.0;
     /**
      * Damping factor applied to every incoming knockback force.
      * Reduces raw impulse values from the engine to prevent physics explosions.
      */
-    private static final double KNOCKBACK_DAMPING = 0.15;
+    static final double KNOCKBACK_DAMPING = 0.15;
     /**
      * World-space X coordinate of the microbe's current AI target.
      * -1 means no active target (WANDER state).
@@ -129,28 +148,39 @@ public class Microbe {
     private volatile double targetY = -1;
     /**
      * Human-readable string describing the current AI state.
-     * One of: "HUNT", "FLEE", "WANDER".
+     * One of: "HUNT", "FLEE", "FORAGE", "WANDER".
      */
     private volatile String aiState = "WANDER";
     /**
-     * Timestamp (ms) at which this microbe last took damage.
-     * While within {@code ADRENALINE_DURATION_MS} of this timestamp the microbe
+     * {@link SimulationClock} tick at which this microbe last took damage.
+     * While within {@code ADRENALINE_DURATION_TICKS} of this tick the microbe
      * moves twice as fast but burns 3× the energy (panic / adrenaline mechanic).
      * {@code volatile} for cross-thread visibility (written by victim's attacker
      * thread, read by the victim's own thread during {@code move()}).
      */
-    private volatile long adrenalineTimer = 0;
+    private volatile long adrenalineTimer = SimulationClock.NEVER;
 
     /**
      * Creates a new microbe with random genes.
      */
     public Microbe(double x, double y) {
+        this(x, y, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Creates a new microbe with genes and heading drawn from {@code random}.
+     * Used by the engine so that seeded runs are reproducible.
+     *
+     * @param x      initial X position
+     * @param y      initial Y position
+     * @param random source of the random genes and initial heading
+     */
+    public Microbe(double x, double y, RandomGenerator random) {
         this.id = ID_COUNTER.getAndIncrement();
         this.parentId = -1;
         this.absoluteGeneration = 1;
         this.x = x;
         this.y = y;
-        ThreadLocalRandom random = ThreadLocalRandom.current();
         this.heatResistance = random.nextDouble() * 0.3;
         this.toxinResistance = random.nextDouble() * 0.3;
         this.speed = random.nextDouble() * 0.3;
@@ -162,24 +192,55 @@ public class Microbe {
         this.unmodifiableAncestry = Collections.unmodifiableList(ancestry);
         this.cachedColor = computeColor();
         this.cachedBrightColor = computeBrightColor();
-        randomizeVelocity();
+        randomizeVelocity(random);
     }
 
     /**
      * Creates a child microbe through reproduction (with mutation).
      */
     public Microbe(Microbe parent, double x, double y) {
-        this.id = ID_COUNTER.getAndIncrement();
+        this(parent, x, y, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Creates a child microbe through reproduction, drawing mutations and the initial
+     * heading from {@code random}.
+     *
+     * @param parent the reproducing microbe
+     * @param x      initial X position
+     * @param y      initial Y position
+     * @param random source of the gene mutations and initial heading
+     */
+    public Microbe(Microbe parent, double x, double y, RandomGenerator random) {
+        this(parent, x, y, random, ID_COUNTER.getAndIncrement());
+    }
+
+    /**
+     * Creates a child microbe through reproduction with an ID taken from an {@link IdBlock},
+     * so that workers spawning children in parallel do not contend on the global counter.
+     *
+     * @param parent the reproducing microbe
+     * @param x      initial X position
+     * @param y      initial Y position
+     * @param random source of the gene mutations and initial heading
+     * @param ids    the calling thread's ID block
+     */
+    public Microbe(Microbe parent, double x, double y, RandomGenerator random, IdBlock ids) {
+        this(parent, x, y, random, ids.nextId());
+    }
+
+    private Microbe(Microbe parent, double x, double y, RandomGenerator random, long id) {
+        this.id = id;
         this.parentId = parent.id;
         this.absoluteGeneration = parent.absoluteGeneration + 1;
         this.x = x;
         this.y = y;
 
         // Inherit genes with slight mutation
-        this.heatResistance = mutate(parent.heatResistance);
-        this.toxinResistance = mutate(parent.toxinResistance);
-        this.speed = mutate(parent.speed);
-        this.diet = mutate(parent.diet);
+        this.heatResistance = mutate(parent.heatResistance, random);
+        this.toxinResistance = mutate(parent.toxinResistance, random);
+        this.speed = mutate(parent.speed, random);
+        this.diet = mutate(parent.diet, random);
 
         this.health = MAX_HEALTH;
         this.energy = INITIAL_ENERGY;
@@ -224,7 +285,7 @@ public class Microbe {
         this.unmodifiableAncestry = Collections.unmodifiableList(this.ancestry);
         this.cachedColor = computeColor();
         this.cachedBrightColor = computeBrightColor();
-        randomizeVelocity();
+        randomizeVelocity(random);
     }
 
     /**
@@ -253,14 +314,14 @@ public class Microbe {
         this.unmodifiableAncestry = Collections.unmodifiableList(ancestry);
         this.cachedColor = computeColor();
         this.cachedBrightColor = computeBrightColor();
-        randomizeVelocity();
+        randomizeVelocity(random);
     }
 
     /**
      * Mutates a gene value slightly.
      */
-    private double mutate(double value) {
-        double mutation = (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.1; // ±5% mutation
+    private static double mutate(double value, RandomGenerator random) {
+        double mutation = (random.nextDouble() - 0.5) * 0.1; // ±5% mutation
         double newValue = value + mutation;
         return Math.max(0.0, Math.min(1.0, newValue)); // Clamp to [0, 1]
     }
@@ -268,8 +329,7 @@ public class Microbe {
     /**
      * Sets random velocity based on speed gene.
      */
-    private void randomizeVelocity() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+    private void randomizeVelocity(RandomGenerator random) {
         double angle = random.nextDouble() * 2 * Math.PI;
         double magnitude = speed * 2.0; // Scale speed
         this.velocityX = Math.cos(angle) * magnitude;
@@ -277,12 +337,13 @@ public class Microbe {
     }
 
     /**
-     * Updates position and velocity. Movement costs energy proportional to speed.
-     * While adrenaline is active (within {@value #ADRENALINE_DURATION_MS} ms of
-     * the last hit), the microbe moves at double speed but burns 3× the energy.
+     * Updates position and velocity at tick {@code now}. Movement costs energy
+     * proportional to speed. While adrenaline is active (within
+     * {@code ADRENALINE_DURATION_TICKS} of the last hit), the microbe moves at
+     * double speed but burns 3× the energy.
      */
-    public void move(int width, int height) {
-        boolean hasAdrenaline = (System.currentTimeMillis() - adrenalineTimer < ADRENALINE_DURATION_MS);
+    public void move(int width, int height, long now) {
+        boolean hasAdrenaline = isAdrenalineActive(now);
 
         double energyCost = MOVEMENT_ENERGY_COST * (1.0 + speed);
         if (hasAdrenaline) {
@@ -310,7 +371,7 @@ public class Microbe {
 
         // Random direction changes for more organic movement
         if (ThreadLocalRandom.current().nextDouble() < 0.02) {
-            randomizeVelocity();
+            randomizeVelocity(ThreadLocalRandom.current());
         }
     }
 
@@ -441,35 +502,35 @@ public class Microbe {
     }
 
     /**
-     * Returns the timestamp (ms) of the last successful attack this microbe landed,
-     * or {@code 0} if it has never attacked.  Used only for visual feedback.
+     * Returns the tick of the last successful attack this microbe landed,
+     * or {@link SimulationClock#NEVER} if it has never attacked.  Used only for visual feedback.
      */
     public long getLastAttackTime() {
         return lastAttackTime;
     }
 
     /**
-     * Returns the timestamp (ms) at which this microbe last took damage,
-     * or {@code 0} if it has never been hit.  Used for adrenaline/panic logic.
+     * Returns the tick at which this microbe last took damage,
+     * or {@link SimulationClock#NEVER} if it has never been hit.  Used for adrenaline/panic logic.
      */
     public long getAdrenalineTimer() {
         return adrenalineTimer;
     }
 
     /**
-     * Returns {@code true} if the adrenaline/panic effect is currently active.
+     * Returns {@code true} if the adrenaline/panic effect is active at tick {@code now}.
      * Convenience method for renderers and AI code.
      */
-    public boolean isAdrenalineActive() {
-        return (System.currentTimeMillis() - adrenalineTimer) < ADRENALINE_DURATION_MS;
+    public boolean isAdrenalineActive(long now) {
+        return (now - adrenalineTimer) < ADRENALINE_DURATION_TICKS;
     }
 
     /**
-     * Records that this microbe just successfully attacked.
+     * Records that this microbe successfully attacked at tick {@code now}.
      * Must only be called from the worker thread that owns this microbe's chunk.
      */
-    void markAttack() {
-        lastAttackTime = System.currentTimeMillis();
+    void markAttack(long now) {
+        lastAttackTime = now;
     }
 
     /**
@@ -486,14 +547,15 @@ public class Microbe {
      * </ul>
      *
      * @param damage raw damage amount (positive value)
+     * @param now    current {@link SimulationClock} tick (starts the adrenaline timer)
      * @return energy awarded to the attacker (≥ 0)
      */
-    public double takeDamageAndTransferEnergy(double damage) {
+    public double takeDamageAndTransferEnergy(double damage, long now) {
         synchronized (stateLock) {
             double energyTransferred;
             health -= damage;
             // Trigger the adrenaline/panic response on any hit
-            adrenalineTimer = System.currentTimeMillis();
+            adrenalineTimer = now;
             if (health <= 0) {
                 // Victim dies – attacker claims all remaining energy
                 energyTransferred = energy;
@@ -640,6 +702,48 @@ public class Microbe {
         return unmodifiableAncestry;
     }
 
+    // ── Store synchronisation (package-private) ───────────────────────────
+
+    /**
+     * Returns the current horizontal velocity. Used by {@link MicrobeStore#add(Microbe)}
+     * to seed a store slot from this object's state.
+     */
+    double getVelocityX() {
+        return velocityX;
+    }
+
+    /**
+     * Returns the current vertical velocity.
+     */
+    double getVelocityY() {
+        return velocityY;
+    }
+
+    /**
+     * Copies the mutable simulation state of {@code slot} from the engine's store into
+     * this view. Called once per tick during compaction while the SimulationLoop thread
+     * holds {@code dataLock}: by the worker owning the slot in a parallel compaction,
+     * otherwise by the SimulationLoop thread. Unsynchronised readers may observe the
+     * fields being overwritten one by one.
+     *
+     * @param store the store that owns this microbe's authoritative state
+     * @param slot  this microbe's current slot index in {@code store}
+     */
+    void syncFrom(MicrobeStore store, int slot) {
+        this.x = store.getX(slot);
+        this.y = store.getY(slot);
+        this.velocityX = store.getVelocityX(slot);
+        this.velocityY = store.getVelocityY(slot);
+        this.health = store.getHealth(slot);
+        this.energy = store.getEnergy(slot);
+        this.age = store.getAge(slot);
+        this.lastAttackTime = store.getLastAttackTime(slot);
+        this.adrenalineTimer = store.getAdrenalineTimer(slot);
+        this.aiState = store.getAiState(slot);
+        this.targetX = store.getTargetX(slot);
+        this.targetY = store.getTargetY(slot);
+    }
+
     // ── AI Intent accessors (debug / Developer Vision) ────────────────────
 
     /**
@@ -671,16 +775,41 @@ public class Microbe {
     }
 
     /**
-     * Returns the current AI state string: "HUNT", "FLEE", or "WANDER".
+     * Returns the current AI state string: "HUNT", "FLEE", "FORAGE", or "WANDER".
      */
     public String getAiState() {
         return aiState;
     }
 
     /**
-     * Sets the current AI state. Expected values: "HUNT", "FLEE", "WANDER".
+     * Sets the current AI state. Expected values: "HUNT", "FLEE", "FORAGE", "WANDER".
      */
     public void setAiState(String state) {
         this.aiState = state;
     }
+
+    /**
+     * Source of microbe IDs for a single thread: reserves {@value #SIZE} IDs at a time
+     * from the global counter and hands them out without further synchronisation.
+     * IDs stay unique across all blocks and constructors; IDs left unused in a block
+     * are simply skipped. Not thread-safe – keep one block per thread.
+     */
+    public static final class IdBlock {
+        /** Number of IDs reserved per refill. */
+        public static final int SIZE = 1024;
+
+        private long next;
+        private long end;
+
+        /**
+         * Returns the next ID of this block, reserving a new block when it is used up.
+         */
+        public long nextId() {
+            if (next == end) {
+                next = ID_COUNTER.getAndAdd(SIZE);
+                end = next + SIZE;
+            }
+            return next++;
+        }
+    }
 }
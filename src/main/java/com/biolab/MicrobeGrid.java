@@ -1,29 +1,114 @@
 package com.biolab;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
 
 /**
  * Grid-based spatial index for efficient microbe proximity queries.
  *
  * <p>Partitions the world into fixed-size cells. Each living microbe is assigned
- * to the cell that contains its current position. To find nearby microbes for a
+ * to the cell that contains its current position; cells hold {@link MicrobeStore}
+ * slot indices rather than object references. To find nearby microbes for a
  * given world coordinate, only the microbe's own cell and the 8 surrounding cells
  * are checked, reducing neighbor lookup from O(n²) to approximately
  * O(n*(n/cellCount)).</p>
  *
- * <p>The grid is rebuilt every frame from the microbe snapshot (dead microbes are
- * skipped), so it is never modified concurrently – each worker thread only reads
- * from it after {@link #rebuild(List)} has completed.</p>
+ * <p>The grid is either rebuilt every frame from the microbe store (dead microbes
+ * are skipped) or maintained incrementally: a microbe is only moved to another cell
+ * when it crosses a cell boundary ({@link #relocate}), births are inserted
+ * ({@link #insert}) and removals and slot renumbering are followed while the store
+ * compacts ({@link MicrobeStore.SlotListener}), on all workers after a parallel
+ * compaction. Each cell keeps its slots in ascending order, so both ways produce
+ * exactly the same grid. Apart from its own parallel passes it is never modified
+ * concurrently – worker threads only read from it during the parallel phases.</p>
+ *
+ * <h3>Layouts</h3>
+ * <ul>
+ *   <li><b>Bucket</b> ({@link #rebuild}) – one slot array per cell plus a Fenwick tree
+ *       over the cell counts. Supports the incremental updates.</li>
+ *   <li><b>Compact</b> ({@link #rebuildCompact}) – a counting sort of the slots by
+ *       cell into one contiguous array, with a {@code cellStart} prefix-sum array
+ *       (compressed sparse rows). No per-cell objects; a 3×3 neighbourhood is three
+ *       contiguous ranges, and the array itself is the grid order. Read-only until
+ *       the next rebuild. It can also be rebuilt on all workers of a
+ *       {@link TickExecutor}.</li>
+ * </ul>
+ * <p>Only the arrays of the layout in use are kept. Both layouts order cells and
+ * slots the same way, so every query returns the same result in either layout.</p>
+ *
+ * <p>Nearest-slot queries ({@link #findNearest}, {@link #findKNearest}) take any
+ * radius: they search outward ring by ring of cells and stop once no further ring
+ * can hold a closer slot, so their cost follows the local density rather than a
+ * fixed 3×3 block.</p>
+ *
+ * <p>Besides neighbour queries the grid defines a <em>grid order</em>: all indexed
+ * slots listed cell by cell in row-major order. Positions in that order
+ * ({@code 0 .. getIndexedCount()-1}) let schedulers split the population into
+ * spatially compact, equally sized ranges (see {@link #forEachSlotInRange}).</p>
  */
-public class MicrobeGrid {
+public class MicrobeGrid implements MicrobeIndex {
+
+    /**
+     * Which living microbes a grid indexes. A grid restricted to one diet answers a
+     * query with only that diet's slots, in the same order as an unrestricted grid
+     * would list them (see {@link DietGrids}).
+     */
+    public enum Diet {
+        /** Every living microbe. */
+        ALL,
+        /** Living Carnivores only. */
+        CARNIVORES,
+        /** Living Herbivores only. */
+        HERBIVORES
+    }
+
+    private final Diet diet;
     private final int cellSize;
     private final int cols;
     private final int rows;
-    private final ArrayList<List<Microbe>> cells;
+    private final int cellCount;
+    private int indexedCount;
+    /** Cell of each indexed slot, or -1 if the slot is not indexed. */
+    private int[] slotCell = new int[0];
+    /** {@code true} while the compact layout is in use. */
+    private boolean compact;
 
+    // ── Bucket layout (null while compact) ────────────────────────────────
+    private int[][] cellSlots;
+    private int[] cellCounts;
     /**
-     * Creates a new microbe spatial grid.
+     * Fenwick tree over {@link #cellCounts}: the prefix sum up to cell c is the number of
+     * indexed slots in cells before c (grid-order position of c's first slot).
+     */
+    private int[] countTree;
+    /** Position of each indexed slot inside its cell's slot array. */
+    private int[] slotPos = new int[0];
+    /** Spare {@link #slotCell} (all -1) and {@link #slotPos}, filled by the parallel renumbering. */
+    private int[] renumberedCell = new int[0];
+    private int[] renumberedPos = new int[0];
+    /** Per worker: cells that lost a slot in the parallel renumbering, and how many. */
+    private int[][] removedCells;
+    private int[] removedCount;
+
+    // ── Compact layout (null while bucketed) ──────────────────────────────
+    /** cellStart[c] = grid-order position of cell c's first slot; cellStart[cellCount] = indexed count. */
+    private int[] cellStart;
+    /** All indexed slots in grid order. */
+    private int[] sortedSlots;
+
+    // ── Parallel compact rebuild scratch (see rebuildCompact(store, executor, alongside)) ──
+    /** Per worker: slot counts per row, then the worker's write cursor in each row's bin. */
+    private int[][] rowCursors;
+    /** rowStart[r] = grid-order position of row r's first slot; rowStart[rows] = indexed count. */
+    private final int[] rowStart;
+    /** rowBand[w] = first row of worker w's band in the per-row sort. */
+    private int[] rowBand;
+    /** Indexed slots binned by row, in slot order within each row. */
+    private int[] binnedSlots = new int[0];
+
+    /**
+     * Creates a new microbe spatial grid indexing every living microbe.
      *
      * @param worldWidth  width of the world in world units
      * @param worldHeight height of the world in world units
@@ -31,58 +116,615 @@ public class MicrobeGrid {
      * @throws IllegalArgumentException if {@code cellSize} is not positive
      */
     public MicrobeGrid(int worldWidth, int worldHeight, int cellSize) {
+        this(worldWidth, worldHeight, cellSize, Diet.ALL);
+    }
+
+    /**
+     * Creates a new microbe spatial grid whose rebuilds index only the living microbes
+     * of {@code diet}. Incremental {@link #insert}s are not filtered: callers insert
+     * only matching slots.
+     *
+     * @param worldWidth  width of the world in world units
+     * @param worldHeight height of the world in world units
+     * @param cellSize    size of each grid cell (should be &gt;= max interaction distance)
+     * @param diet        microbes to index
+     * @throws IllegalArgumentException if {@code cellSize} is not positive
+     */
+    public MicrobeGrid(int worldWidth, int worldHeight, int cellSize, Diet diet) {
         if (cellSize <= 0) {
             throw new IllegalArgumentException("cellSize must be > 0, was: " + cellSize);
         }
+        this.diet = Objects.requireNonNull(diet, "diet");
         this.cellSize = cellSize;
         this.cols = Math.max(1, (worldWidth + cellSize - 1) / cellSize);
         this.rows = Math.max(1, (worldHeight + cellSize - 1) / cellSize);
 
-        int totalCells = this.cols * this.rows;
-        cells = new ArrayList<>(totalCells);
-        for (int i = 0; i < totalCells; i++) {
-            cells.add(new ArrayList<>(8)); // Slightly larger initial capacity for microbes
+        this.cellCount = this.cols * this.rows;
+        this.rowStart = new int[this.rows + 1];
+        allocateBuckets();
+    }
+
+    private void allocateBuckets() {
+        cellSlots = new int[cellCount][];
+        cellCounts = new int[cellCount];
+        countTree = new int[cellCount + 1];
+        for (int i = 0; i < cellCount; i++) {
+            cellSlots[i] = new int[8]; // Slightly larger initial capacity for microbes
         }
     }
 
     /**
-     * Clears the grid and re-inserts all living microbes from the given snapshot.
-     * Dead microbes ({@link Microbe#isDead()}) are silently skipped.
+     * Clears the grid and re-inserts all living slots of the given store into the
+     * bucket layout. Dead microbes ({@link MicrobeStore#isDead(int)}) and those of
+     * another {@link Diet} are silently skipped.
      *
-     * <p>Must be called once per frame, before any {@link #getNearbyMicrobes} queries,
+     * <p>Must be called once per frame, before any {@link #getNearbySlots} queries,
      * and always from a single thread (the SimulationLoop thread).</p>
      *
-     * @param snapshot immutable snapshot of microbes for this frame
+     * @param store population store for this frame
      */
-    public void rebuild(List<Microbe> snapshot) {
+    @Override
+    public void rebuild(MicrobeStore store) {
+        if (compact) {
+            cellStart = null;
+            sortedSlots = null;
+            rowCursors = null;
+            binnedSlots = new int[0];
+            allocateBuckets();
+            slotPos = new int[slotCell.length];
+            compact = false;
+        }
         // Clear all cells
-        for (List<Microbe> cell : cells) {
-            cell.clear();
+        Arrays.fill(cellCounts, 0);
+
+        // Insert each living slot into its cell
+        int count = store.size();
+        ensureSlotCapacity(count);
+        Arrays.fill(slotCell, count, slotCell.length, -1);
+        indexedCount = 0;
+        for (int slot = 0; slot < count; slot++) {
+            if (!indexes(store, slot)) { // Skip dead microbes and other diets
+                slotCell[slot] = -1;
+                continue;
+            }
+
+            int cell = cellIndex(store.getX(slot), store.getY(slot));
+            int n = cellCounts[cell];
+            if (n == cellSlots[cell].length) {
+                cellSlots[cell] = Arrays.copyOf(cellSlots[cell], n * 2);
+            }
+            cellSlots[cell][n] = slot;
+            cellCounts[cell] = n + 1;
+            slotCell[slot] = cell;
+            slotPos[slot] = n;
+            indexedCount++;
+        }
+
+        // The prefix sums define the grid order used by forEachSlotInRange();
+        // build the Fenwick tree over the counts in linear time
+        for (int i = 1; i <= cellCount; i++) {
+            countTree[i] = cellCounts[i - 1];
+        }
+        for (int i = 1; i <= cellCount; i++) {
+            int parent = i + (i & -i);
+            if (parent <= cellCount) countTree[parent] += countTree[i];
         }
+    }
 
-        // Insert each living microbe into its cell
-        for (Microbe microbe : snapshot) {
-            if (microbe.isDead()) continue; // Skip dead microbes
+    /**
+     * Rebuilds the grid in the compact layout with a counting sort: one pass computes
+     * each living slot's cell and the cell counts, a prefix sum turns the counts into
+     * {@code cellStart}, and a second pass scatters the slots into one contiguous
+     * array. The incremental updates are unavailable until the next {@link #rebuild}.
+     *
+     * <p>Same threading rules as {@link #rebuild}.</p>
+     *
+     * @param store population store for this frame
+     */
+    public void rebuildCompact(MicrobeStore store) {
+        useCompactLayout();
+        int count = store.size();
+        ensureSlotCapacity(count);
+        Arrays.fill(slotCell, count, slotCell.length, -1);
+        Arrays.fill(cellStart, 0);
 
-            int col = Math.min((int) (microbe.getX() / cellSize), cols - 1);
-            int row = Math.min((int) (microbe.getY() / cellSize), rows - 1);
-            col = Math.max(0, col);
-            row = Math.max(0, row);
-            cells.get(row * cols + col).add(microbe);
+        // Pass 1: cell of every living slot, counted into cellStart[cell + 1]
+        int indexed = 0;
+        for (int slot = 0; slot < count; slot++) {
+            if (!indexes(store, slot)) {
+                slotCell[slot] = -1;
+                continue;
+            }
+            int cell = cellIndex(store.getX(slot), store.getY(slot));
+            slotCell[slot] = cell;
+            cellStart[cell + 1]++;
+            indexed++;
         }
+        // Prefix sum: cellStart[c] = first position of cell c
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        // Pass 2: scatter in ascending slot order (stable, so cells stay sorted);
+        // cellStart[cell] is used as the write cursor and restored afterwards
+        if (sortedSlots.length < indexed) {
+            sortedSlots = new int[Math.max(indexed, sortedSlots.length * 2)];
+        }
+        for (int slot = 0; slot < count; slot++) {
+            int cell = slotCell[slot];
+            if (cell >= 0) sortedSlots[cellStart[cell]++] = slot;
+        }
+        for (int cell = cellCount; cell > 0; cell--) {
+            cellStart[cell] = cellStart[cell - 1];
+        }
+        cellStart[0] = 0;
+        indexedCount = indexed;
     }
 
     /**
-     * Returns all microbes in the cell containing {@code (x, y)} and its 8 neighbors
-     * (3×3 neighborhood). The returned list is a temporary collection suitable for
-     * read-only iteration within the calling frame.
+     * Rebuilds the grid in the compact layout on all workers of {@code executor}; the
+     * result is identical to {@link #rebuildCompact(MicrobeStore)}. Slots are first
+     * binned by grid row, then each row is counting-sorted by column:
+     * <ol>
+     *   <li>every worker computes the cells of an equal share of the slots and counts
+     *       them per row into its own histogram;</li>
+     *   <li>the SimulationLoop thread merges the histograms into per-worker write
+     *       cursors (rows × workers entries, in slot order within every row);</li>
+     *   <li>every worker scatters its share into the row bins;</li>
+     *   <li>every worker sorts a band of rows by column and fills their
+     *       {@code cellStart} entries – bands are balanced by slots plus cells.</li>
+     * </ol>
+     * Apart from the small merge, all work – including the per-cell passes – is split
+     * over the workers. With a single worker this falls back to the serial rebuild.
+     *
+     * <p>{@code alongside}, if not {@code null}, runs on the last worker during the
+     * first pass, so that independent work such as rebuilding the food grid overlaps
+     * with this rebuild. Must be called from the executor's coordinating thread.</p>
+     *
+     * @param store     population store for this frame
+     * @param executor  workers to rebuild on
+     * @param alongside task to run concurrently with the first pass, or {@code null}
+     * @throws java.util.concurrent.CompletionException if a pass or {@code alongside} fails
+     */
+    @Override
+    public void rebuildCompact(MicrobeStore store, TickExecutor executor, Runnable alongside) {
+        int workers = executor.getWorkerCount();
+        if (workers == 1) {
+            if (alongside != null) alongside.run();
+            rebuildCompact(store);
+            return;
+        }
+        useCompactLayout();
+        final int count = store.size();
+        ensureSlotCapacity(count);
+        Arrays.fill(slotCell, count, slotCell.length, -1);
+        if (rowCursors == null || rowCursors.length != workers) {
+            rowCursors = new int[workers][rows];
+            rowBand = new int[workers + 1];
+        }
+        if (binnedSlots.length < count) {
+            binnedSlots = new int[Math.max(count, binnedSlots.length * 2)];
+        }
+
+        // Pass 1: cells of each worker's share, counted per row
+        executor.runPhase((worker, n) -> {
+            if (alongside != null && worker == n - 1) alongside.run();
+            int[] rowCounts = rowCursors[worker];
+            Arrays.fill(rowCounts, 0);
+            int end = share(count, worker + 1, n);
+            for (int slot = share(count, worker, n); slot < end; slot++) {
+                if (!indexes(store, slot)) {
+                    slotCell[slot] = -1;
+                    continue;
+                }
+                int cell = cellIndex(store.getX(slot), store.getY(slot));
+                slotCell[slot] = cell;
+                rowCounts[cell / cols]++;
+            }
+        });
+
+        // Merge: rowStart and, per worker, the first bin position of its slots in each row.
+        // Rows are then split into bands of about equal (slots + cells) for pass 4.
+        int indexed = 0;
+        for (int row = 0; row < rows; row++) {
+            rowStart[row] = indexed;
+            for (int[] cursors : rowCursors) {
+                int n = cursors[row];
+                cursors[row] = indexed;
+                indexed += n;
+            }
+        }
+        rowStart[rows] = indexed;
+        long totalWork = indexed + (long) rows * cols;
+        int row = 0;
+        for (int band = 0; band < workers; band++) {
+            long target = totalWork * band / workers;
+            while (row < rows && rowStart[row] + (long) row * cols < target) row++;
+            rowBand[band] = row;
+        }
+        rowBand[workers] = rows;
+        if (sortedSlots.length < indexed) {
+            sortedSlots = new int[Math.max(indexed, sortedSlots.length * 2)];
+        }
+
+        // Pass 2: scatter each worker's share into the row bins (stable)
+        executor.runPhase((worker, n) -> {
+            int[] cursors = rowCursors[worker];
+            int end = share(count, worker + 1, n);
+            for (int slot = share(count, worker, n); slot < end; slot++) {
+                int cell = slotCell[slot];
+                if (cell >= 0) binnedSlots[cursors[cell / cols]++] = slot;
+            }
+        });
+
+        // Pass 3: counting sort of each row of the worker's band by column. Counts and
+        // cursors live in the row's own cellStart entries, so bands never share an entry.
+        executor.runPhase((worker, n) -> {
+            for (int r = rowBand[worker]; r < rowBand[worker + 1]; r++) {
+                int first = r * cols;
+                int last = first + cols;
+                int from = rowStart[r];
+                int to = rowStart[r + 1];
+                Arrays.fill(cellStart, first, last, 0);
+                for (int i = from; i < to; i++) {
+                    cellStart[slotCell[binnedSlots[i]]]++;
+                }
+                int position = from;
+                for (int cell = first; cell < last; cell++) {
+                    int cellSlotCount = cellStart[cell];
+                    cellStart[cell] = position;
+                    position += cellSlotCount;
+                }
+                for (int i = from; i < to; i++) {
+                    int slot = binnedSlots[i];
+                    sortedSlots[cellStart[slotCell[slot]]++] = slot;
+                }
+                for (int cell = last - 1; cell > first; cell--) {
+                    cellStart[cell] = cellStart[cell - 1];
+                }
+                cellStart[first] = from;
+            }
+        });
+        cellStart[cellCount] = indexed;
+        indexedCount = indexed;
+    }
+
+    /** Returns {@code true} if a rebuild indexes {@code slot}: living and of this grid's diet. */
+    private boolean indexes(MicrobeStore store, int slot) {
+        return !store.isDead(slot) && (diet == Diet.ALL || store.isCarnivore(slot) == (diet == Diet.CARNIVORES));
+    }
+
+    /**
+     * Returns the microbes this grid indexes.
+     */
+    public Diet getDiet() {
+        return diet;
+    }
+
+    /** Returns the first slot of {@code worker}'s equal share of {@code count} slots. */
+    private static int share(int count, int worker, int workers) {
+        return (int) ((long) count * worker / workers);
+    }
+
+    private void useCompactLayout() {
+        if (compact) return;
+        cellSlots = null;
+        cellCounts = null;
+        countTree = null;
+        slotPos = new int[0];
+        renumberedCell = new int[0];
+        renumberedPos = new int[0];
+        removedCells = null;
+        cellStart = new int[cellCount + 1];
+        sortedSlots = new int[0];
+        compact = true;
+    }
+
+    /**
+     * Returns {@code true} if the grid is in the compact (counting-sort) layout.
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Returns {@code true}: in the bucket layout the grid follows the population
+     * incrementally; the compact layout rejects the updates until the next
+     * {@link #rebuild}.
+     */
+    @Override
+    public boolean supportsIncrementalUpdates() {
+        return true;
+    }
+
+    // ── Incremental maintenance (SimulationLoop thread, between phases) ───
+
+    /**
+     * Returns {@code true} if the indexed {@code slot} would belong to another cell at
+     * {@code (x, y)}. Read-only, so workers may call it for their own slots during a
+     * parallel phase to detect the few microbes that need {@link #relocate}.
+     */
+    @Override
+    public boolean crossesCell(int slot, double x, double y) {
+        return slotCell[slot] != cellIndex(x, y);
+    }
+
+    /**
+     * Adds {@code slot} at {@code (x, y)}, keeping the cell's slots in ascending order.
+     *
+     * @throws IllegalArgumentException if {@code slot} is already indexed
+     * @throws IllegalStateException    if the grid is in the compact layout
+     */
+    @Override
+    public void insert(int slot, double x, double y) {
+        requireBuckets();
+        ensureSlotCapacity(slot + 1);
+        if (slotCell[slot] >= 0) {
+            throw new IllegalArgumentException("Slot " + slot + " is already indexed");
+        }
+        int cell = cellIndex(x, y);
+        int n = cellCounts[cell];
+        int[] slots = cellSlots[cell];
+        if (n == slots.length) {
+            slots = cellSlots[cell] = Arrays.copyOf(slots, n * 2);
+        }
+        int pos = n;
+        while (pos > 0 && slots[pos - 1] > slot) {
+            slots[pos] = slots[pos - 1];
+            slotPos[slots[pos]] = pos;
+            pos--;
+        }
+        slots[pos] = slot;
+        cellCounts[cell] = n + 1;
+        slotCell[slot] = cell;
+        slotPos[slot] = pos;
+        addToCount(cell, 1);
+    }
+
+    /**
+     * Removes {@code slot} from the grid; does nothing if it is not indexed.
+     *
+     * @throws IllegalStateException if the grid is in the compact layout
+     */
+    @Override
+    public void remove(int slot) {
+        requireBuckets();
+        if (slot >= slotCell.length || slotCell[slot] < 0) return;
+        int cell = slotCell[slot];
+        int n = cellCounts[cell] - 1;
+        int[] slots = cellSlots[cell];
+        for (int pos = slotPos[slot]; pos < n; pos++) {
+            slots[pos] = slots[pos + 1];
+            slotPos[slots[pos]] = pos;
+        }
+        cellCounts[cell] = n;
+        slotCell[slot] = -1;
+        addToCount(cell, -1);
+    }
+
+    /**
+     * Moves the indexed {@code slot} to the cell containing {@code (x, y)}, if that is
+     * not its current cell.
+     *
+     * @throws IllegalStateException if the grid is in the compact layout
+     */
+    @Override
+    public void relocate(int slot, double x, double y) {
+        requireBuckets();
+        if (slotCell[slot] == cellIndex(x, y)) return;
+        remove(slot);
+        insert(slot, x, y);
+    }
+
+    /**
+     * Follows the store renumbering slot {@code from} to the lower slot {@code to}.
+     * Called in ascending order while the store compacts; the cell order is preserved
+     * because every slot below {@code from} has already been renumbered or removed.
+     *
+     * @throws IllegalStateException if the grid is in the compact layout
+     */
+    @Override
+    public void renumber(int from, int to) {
+        requireBuckets();
+        int cell = from < slotCell.length ? slotCell[from] : -1;
+        if (cell < 0) {
+            if (to < slotCell.length) slotCell[to] = -1;
+            return;
+        }
+        int pos = slotPos[from];
+        cellSlots[cell][pos] = to;
+        slotCell[to] = cell;
+        slotPos[to] = pos;
+        slotCell[from] = -1;
+    }
+
+    /**
+     * Follows a compaction of the store on all workers of {@code executor}, with the same
+     * result as the per-slot callbacks. Every worker renumbers the cell entries of an
+     * equal share of the slots in place and records their new cells and positions in
+     * spare arrays, which then replace the slot index; the entries of removed slots are
+     * blanked and their cells noted. Since the store keeps the survivors in order, the
+     * cells stay sorted. Only the noted cells are closed up serially, so the serial work
+     * is proportional to the removals, not to the population or the cell count.
+     *
+     * @throws IllegalStateException if the grid is in the compact layout
+     */
+    @Override
+    public void renumber(int[] newSlots, int count, TickExecutor executor) {
+        requireBuckets();
+        final int workers = executor.getWorkerCount();
+        final int limit = Math.min(count, slotCell.length); // Slots beyond are not indexed
+        if (renumberedCell.length != slotCell.length) {
+            // Spare cells are kept at -1: the workers reset every entry they read
+            renumberedCell = new int[slotCell.length];
+            renumberedPos = new int[slotCell.length];
+            Arrays.fill(renumberedCell, -1);
+        }
+        if (removedCells == null || removedCells.length != workers) {
+            removedCells = new int[workers][16];
+            removedCount = new int[workers];
+        }
+
+        executor.runPhase((worker, n) -> {
+            int[] removed = removedCells[worker];
+            int removedInShare = 0;
+            int end = share(limit, worker + 1, n);
+            for (int slot = share(limit, worker, n); slot < end; slot++) {
+                int cell = slotCell[slot];
+                if (cell < 0) continue;
+                slotCell[slot] = -1;
+                int pos = slotPos[slot];
+                int to = newSlots[slot];
+                cellSlots[cell][pos] = to;
+                if (to < 0) {
+                    if (removedInShare == removed.length) {
+                        removed = removedCells[worker] = Arrays.copyOf(removed, removedInShare * 2);
+                    }
+                    removed[removedInShare++] = cell;
+                } else {
+                    renumberedCell[to] = cell;
+                    renumberedPos[to] = pos;
+                }
+            }
+            removedCount[worker] = removedInShare;
+        });
+        int[] swap = slotCell;
+        slotCell = renumberedCell;
+        renumberedCell = swap;
+        swap = slotPos;
+        slotPos = renumberedPos;
+        renumberedPos = swap;
+
+        // Close up the cells that lost slots (a cell noted twice is already closed)
+        for (int w = 0; w < workers; w++) {
+            int[] removed = removedCells[w];
+            for (int i = 0, r = removedCount[w]; i < r; i++) {
+                int cell = removed[i];
+                int[] slots = cellSlots[cell];
+                int cellSlotCount = cellCounts[cell];
+                int kept = 0;
+                for (int pos = 0; pos < cellSlotCount; pos++) {
+                    int slot = slots[pos];
+                    if (slot < 0) continue;
+                    slots[kept] = slot;
+                    slotPos[slot] = kept;
+                    kept++;
+                }
+                cellCounts[cell] = kept;
+                if (kept != cellSlotCount) addToCount(cell, kept - cellSlotCount);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if {@code slot} is indexed.
+     */
+    public boolean contains(int slot) {
+        return slot < slotCell.length && slotCell[slot] >= 0;
+    }
+
+    private void requireBuckets() {
+        if (compact) {
+            throw new IllegalStateException("Incremental updates need the bucket layout; call rebuild() first");
+        }
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity <= slotCell.length) return;
+        int oldLength = slotCell.length;
+        int newLength = Math.max(capacity, oldLength * 2);
+        slotCell = Arrays.copyOf(slotCell, newLength);
+        if (!compact) slotPos = Arrays.copyOf(slotPos, newLength);
+        Arrays.fill(slotCell, oldLength, newLength, -1);
+    }
+
+    private void addToCount(int cell, int delta) {
+        for (int i = cell + 1; i < countTree.length; i += i & -i) {
+            countTree[i] += delta;
+        }
+        indexedCount += delta;
+    }
+
+    /**
+     * Returns the grid-order position of {@code cell}'s first slot.
+     */
+    private int cellStart(int cell) {
+        int sum = 0;
+        for (int i = cell; i > 0; i -= i & -i) {
+            sum += countTree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of indexed slots, i.e. the length of the grid order.
+     */
+    @Override
+    public int getIndexedCount() {
+        return indexedCount;
+    }
+
+    /**
+     * Invokes {@code action} for every slot whose grid-order position lies in
+     * {@code [from, to)}. Consecutive positions belong to the same or adjacent cells,
+     * so any range covers a compact band of the world.
+     *
+     * @param from first grid-order position (inclusive)
+     * @param to   last grid-order position (exclusive), at most {@link #getIndexedCount()}
+     * @param action callback receiving each slot index
+     */
+    @Override
+    public void forEachSlotInRange(int from, int to, IntConsumer action) {
+        if (from >= to) return;
+        if (compact) {
+            // The sorted slot array is the grid order
+            for (int pos = from; pos < to; pos++) {
+                action.accept(sortedSlots[pos]);
+            }
+            return;
+        }
+        int cell = cellAt(from);
+        int base = cellStart(cell);
+        int pos = from;
+        while (pos < to) {
+            int limit = Math.min(cellCounts[cell], to - base);
+            int[] slots = cellSlots[cell];
+            for (int k = pos - base; k < limit; k++) {
+                action.accept(slots[k]);
+            }
+            pos = base + limit;
+            base += cellCounts[cell];
+            cell++;
+        }
+    }
+
+    /**
+     * Returns the cell containing grid-order position {@code position}
+     * (the last cell whose start is &lt;= position), by descending the Fenwick tree.
+     */
+    private int cellAt(int position) {
+        int cell = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(cellCount); step > 0; step >>= 1) {
+            int next = cell + step;
+            if (next <= cellCount && countTree[next] <= remaining) {
+                cell = next;
+                remaining -= countTree[next];
+            }
+        }
+        return Math.min(cell, cellCount - 1);
+    }
+
+    /**
+     * Returns the slots of all microbes in the cell containing {@code (x, y)} and its
+     * 8 neighbors (3×3 neighborhood). The returned array is a temporary copy suitable
+     * for read-only iteration within the calling frame.
      *
      * @param x world x coordinate
      * @param y world y coordinate
-     * @return list of nearby microbes (may include dead microbes inserted before death
-     * was processed; callers should guard with {@link Microbe#isDead()} if needed)
+     * @return nearby slot indices (may include microbes that died earlier this frame;
+     * callers should guard with {@link MicrobeStore#isDead(int)} if needed)
      */
-    public List<Microbe> getNearbyMicrobes(double x, double y) {
+    public int[] getNearbySlots(double x, double y) {
         int centerCol = Math.min((int) (x / cellSize), cols - 1);
         int centerRow = Math.min((int) (y / cellSize), rows - 1);
         centerCol = Math.max(0, centerCol);
@@ -94,16 +736,312 @@ public class MicrobeGrid {
         int minRow = Math.max(0, centerRow - 1);
         int maxRow = Math.min(rows - 1, centerRow + 1);
 
-        // Collect microbes from the 3×3 neighborhood
-        List<Microbe> nearby = new ArrayList<>();
+        if (compact) {
+            // Each row of the neighbourhood is one contiguous range of the sorted slots
+            int total = 0;
+            for (int row = minRow; row <= maxRow; row++) {
+                total += cellStart[row * cols + maxCol + 1] - cellStart[row * cols + minCol];
+            }
+            int[] nearby = new int[total];
+            int pos = 0;
+            for (int row = minRow; row <= maxRow; row++) {
+                int start = cellStart[row * cols + minCol];
+                int n = cellStart[row * cols + maxCol + 1] - start;
+                System.arraycopy(sortedSlots, start, nearby, pos, n);
+                pos += n;
+            }
+            return nearby;
+        }
+
+        int total = 0;
         for (int row = minRow; row <= maxRow; row++) {
             for (int col = minCol; col <= maxCol; col++) {
-                nearby.addAll(cells.get(row * cols + col));
+                total += cellCounts[row * cols + col];
+            }
+        }
+
+        // Collect slots from the 3×3 neighborhood
+        int[] nearby = new int[total];
+        int pos = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = row * cols + col;
+                int n = cellCounts[cell];
+                System.arraycopy(cellSlots[cell], 0, nearby, pos, n);
+                pos += n;
             }
         }
         return nearby;
     }
 
+    /**
+     * Allocation-free variant of {@link #getNearbySlots}: replaces the contents of
+     * {@code out} with the slots of the 3×3 neighbourhood of {@code (x, y)}, in the
+     * same order. {@code out} only grows, so a per-worker buffer reused for every
+     * query stops allocating once it has reached the largest neighbourhood.
+     *
+     * @param x   world x coordinate
+     * @param y   world y coordinate
+     * @param out reusable result buffer owned by the calling thread
+     */
+    public void findNearby(double x, double y, Neighbours out) {
+        int centerCol = Math.max(0, Math.min((int) (x / cellSize), cols - 1));
+        int centerRow = Math.max(0, Math.min((int) (y / cellSize), rows - 1));
+        int minCol = Math.max(0, centerCol - 1);
+        int maxCol = Math.min(cols - 1, centerCol + 1);
+        int minRow = Math.max(0, centerRow - 1);
+        int maxRow = Math.min(rows - 1, centerRow + 1);
+
+        out.size = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            if (compact) {
+                int start = cellStart[row * cols + minCol];
+                out.append(sortedSlots, start, cellStart[row * cols + maxCol + 1] - start);
+            } else {
+                for (int col = minCol; col <= maxCol; col++) {
+                    int cell = row * cols + col;
+                    out.append(cellSlots[cell], 0, cellCounts[cell]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the indexed slot nearest to {@code (x, y)} within {@code radius}, or -1 if
+     * there is none; on a tie the smaller slot. Equivalent to
+     * {@link #findKNearest findKNearest(store, x, y, radius, 1, out)}: {@code out} holds
+     * the result and its squared distance afterwards.
+     *
+     * @param store  population whose current positions the slots were indexed at
+     * @param x      world x coordinate inside the world
+     * @param y      world y coordinate inside the world
+     * @param radius search radius in world units; any non-negative value
+     * @param out    reusable result buffer owned by the calling thread
+     * @throws IllegalArgumentException if {@code radius} is negative
+     */
+    @Override
+    public int findNearest(MicrobeStore store, double x, double y, double radius, Neighbours out) {
+        findKNearest(store, x, y, radius, 1, out);
+        return out.size == 0 ? -1 : out.slots[0];
+    }
+
+    /**
+     * Replaces the contents of {@code out} with the (up to) {@code k} indexed slots
+     * nearest to {@code (x, y)} within {@code radius}, nearest first; equally distant
+     * slots in ascending order. {@link Neighbours#distanceSq} gives their squared
+     * distances.
+     *
+     * <p>Cells are searched in square rings of growing Chebyshev distance around the
+     * cell of {@code (x, y)}, keeping the {@code k} best candidates in a bounded
+     * max-heap. Only cells within the bounding box of the search disk are visited –
+     * of {@code radius}, or of the {@code k}-th best distance once there are {@code k}
+     * candidates – and the search stops as soon as the disk lies inside the rings
+     * searched, or the next ring's nearest edge is beyond it. A dense neighbourhood is
+     * therefore answered from its first ring or two, and a large radius only costs the
+     * rings it has to reach. {@link Neighbours#visited} counts the slots examined.</p>
+     *
+     * @param store  population whose current positions the slots were indexed at
+     * @param x      world x coordinate inside the world
+     * @param y      world y coordinate inside the world
+     * @param radius search radius in world units; any non-negative value
+     * @param k      maximum number of slots to return
+     * @param out    reusable result buffer owned by the calling thread
+     * @throws IllegalArgumentException if {@code radius} is negative or {@code k < 1}
+     */
+    @Override
+    public void findKNearest(MicrobeStore store, double x, double y, double radius, int k, Neighbours out) {
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("radius must be >= 0, was: " + radius);
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be >= 1, was: " + k);
+        }
+        int centerCol = Math.max(0, Math.min((int) (x / cellSize), cols - 1));
+        int centerRow = Math.max(0, Math.min((int) (y / cellSize), rows - 1));
+        out.startSearch(k, radius * radius);
+
+        for (int ring = 0; ; ring++) {
+            // Cells touching the bounding box of the disk of the current bound
+            double bound = Math.sqrt(out.boundSq());
+            int boxMinCol = Math.max(0, (int) Math.ceil((x - bound) / cellSize - 1));
+            int boxMaxCol = Math.min(cols - 1, (int) ((x + bound) / cellSize));
+            int boxMinRow = Math.max(0, (int) Math.ceil((y - bound) / cellSize - 1));
+            int boxMaxRow = Math.min(rows - 1, (int) ((y + bound) / cellSize));
+
+            int left = centerCol - ring;
+            int right = centerCol + ring;
+            int top = centerRow - ring;
+            int bottom = centerRow + ring;
+            int minCol = Math.max(left, boxMinCol);
+            int maxCol = Math.min(right, boxMaxCol);
+            int maxRow = Math.min(bottom, boxMaxRow);
+            for (int row = Math.max(top, boxMinRow); row <= maxRow; row++) {
+                if (row == top || row == bottom) {
+                    scanCells(store, x, y, row, minCol, maxCol, out);
+                } else {
+                    // Only the two side cells of the rows in between belong to the ring
+                    if (left >= boxMinCol) scanCells(store, x, y, row, left, left, out);
+                    if (right <= boxMaxCol) scanCells(store, x, y, row, right, right, out);
+                }
+            }
+            if (left <= boxMinCol && right >= boxMaxCol && top <= boxMinRow && bottom >= boxMaxRow) break;
+
+            // Distance from (x, y) to the nearest cell of the next ring, on the sides it exists
+            double reach = Double.POSITIVE_INFINITY;
+            if (left > 0) reach = Math.min(reach, x - (double) left * cellSize);
+            if (right < cols - 1) reach = Math.min(reach, (double) (right + 1) * cellSize - x);
+            if (top > 0) reach = Math.min(reach, y - (double) top * cellSize);
+            if (bottom < rows - 1) reach = Math.min(reach, (double) (bottom + 1) * cellSize - y);
+            if (reach * reach > out.boundSq()) break;
+        }
+        out.sortHeap();
+    }
+
+    /** Offers the slots of the cells {@code minCol..maxCol} of {@code row} to the search in {@code out}. */
+    private void scanCells(MicrobeStore store, double x, double y, int row, int minCol, int maxCol, Neighbours out) {
+        if (minCol > maxCol) return;
+        if (compact) {
+            out.scan(store, x, y, sortedSlots, cellStart[row * cols + minCol], cellStart[row * cols + maxCol + 1]);
+        } else {
+            for (int cell = row * cols + minCol; cell <= row * cols + maxCol; cell++) {
+                if (cellCounts[cell] > 0) out.scan(store, x, y, cellSlots[cell], 0, cellCounts[cell]);
+            }
+        }
+    }
+
+    /**
+     * Reusable result buffer for {@link #findNearby} and the nearest-slot queries of
+     * every {@link MicrobeIndex}. Not thread-safe: each worker thread keeps its own.
+     */
+    public static final class Neighbours {
+        private int[] slots = new int[64];
+        private double[] distances = new double[0];
+        private int size;
+        private int visited;
+        // Nearest-slot search in progress: heap capacity and squared radius
+        private int k;
+        private double limitSq;
+
+        /** Returns the number of slots found by the last query. */
+        public int size() {
+            return size;
+        }
+
+        /** Returns the {@code i}-th slot found by the last query. */
+        public int get(int i) {
+            return slots[i];
+        }
+
+        /**
+         * Returns the squared distance of the {@code i}-th slot found by the last
+         * nearest-slot query; undefined after {@link #findNearby}.
+         */
+        public double distanceSq(int i) {
+            return distances[i];
+        }
+
+        /** Returns the number of indexed slots the last query examined. */
+        public int visited() {
+            return visited;
+        }
+
+        private void append(int[] source, int from, int count) {
+            if (size + count > slots.length) {
+                slots = Arrays.copyOf(slots, Math.max(size + count, slots.length * 2));
+            }
+            System.arraycopy(source, from, slots, size, count);
+            size += count;
+            visited = size;
+        }
+
+        /** Starts a search for the {@code k} nearest slots within {@code sqrt(limitSq)}. */
+        void startSearch(int k, double limitSq) {
+            if (slots.length < k) slots = new int[k];
+            if (distances.length < slots.length) distances = new double[slots.length];
+            this.k = k;
+            this.limitSq = limitSq;
+            size = 0;
+            visited = 0;
+        }
+
+        /** Returns the squared distance beyond which no slot can enter the result any more. */
+        double boundSq() {
+            return size < k ? limitSq : distances[0];
+        }
+
+        /** {@code true} if candidate a ranks before candidate b: closer, or as close and a smaller slot. */
+        private static boolean before(double distA, int slotA, double distB, int slotB) {
+            return distA < distB || (distA == distB && slotA < slotB);
+        }
+
+        /** Offers the slots {@code slots[from .. to)} at their current positions in {@code store}. */
+        void scan(MicrobeStore store, double x, double y, int[] slots, int from, int to) {
+            visited += to - from;
+            for (int i = from; i < to; i++) {
+                int slot = slots[i];
+                double dx = store.getX(slot) - x;
+                double dy = store.getY(slot) - y;
+                offer(slot, dx * dx + dy * dy);
+            }
+        }
+
+        /** Keeps {@code slot} if it is within the radius and among the {@code k} best so far. */
+        private void offer(int slot, double distSq) {
+            if (distSq > limitSq) return;
+            if (size < k) {
+                // Sift up into the max-heap of the best candidates (worst at the root)
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!before(distances[parent], slots[parent], distSq, slot)) break;
+                    slots[i] = slots[parent];
+                    distances[i] = distances[parent];
+                    i = parent;
+                }
+                slots[i] = slot;
+                distances[i] = distSq;
+            } else if (before(distSq, slot, distances[0], slots[0])) {
+                siftDown(0, slot, distSq, size);
+            }
+        }
+
+        /** Places {@code (slot, distSq)} at heap position {@code i} or below, within {@code [0, end)}. */
+        private void siftDown(int i, int slot, double distSq, int end) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= end) break;
+                if (child + 1 < end && before(distances[child], slots[child], distances[child + 1], slots[child + 1])) {
+                    child++;
+                }
+                if (!before(distSq, slot, distances[child], slots[child])) break;
+                slots[i] = slots[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            slots[i] = slot;
+            distances[i] = distSq;
+        }
+
+        /** Turns the heap into the result order, nearest first (an in-place heapsort). */
+        void sortHeap() {
+            for (int end = size - 1; end > 0; end--) {
+                int slot = slots[end];
+                double distSq = distances[end];
+                slots[end] = slots[0];
+                distances[end] = distances[0];
+                siftDown(0, slot, distSq, end);
+            }
+        }
+    }
+
+    private int cellIndex(double x, double y) {
+        int col = Math.min((int) (x / cellSize), cols - 1);
+        int row = Math.min((int) (y / cellSize), rows - 1);
+        col = Math.max(0, col);
+        row = Math.max(0, row);
+        return row * cols + col;
+    }
+
     /**
      * Returns the number of columns in the grid.
      */
@@ -0,0 +1,109 @@
+package com.biolab;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Spatial index over the living microbes of a {@link MicrobeStore}, as used by the
+ * {@link SimulationEngine}: nearest-slot queries for sensing, an <em>index order</em>
+ * of all indexed slots for the spatially aware schedulers, and optionally incremental
+ * maintenance between rebuilds.
+ *
+ * <p>Implementations index slots rather than object references and read positions
+ * from the store. Every implementation answers a nearest-slot query with the same
+ * slots – ties are broken by the smaller slot – so the choice of index affects the
+ * speed of a run but not its outcome; only the index order differs.</p>
+ *
+ * <p>Rebuilds and updates run on the SimulationLoop thread (or on the workers of a
+ * {@link TickExecutor} inside {@link #rebuildCompact}); queries may then run on any
+ * number of threads, each with its own {@link MicrobeGrid.Neighbours} buffer.</p>
+ *
+ * @see MicrobeGrid
+ * @see MicrobeQuadtree
+ */
+public interface MicrobeIndex extends MicrobeStore.SlotListener {
+
+    /**
+     * Rebuilds the index from the living slots of {@code store} (those of the index's
+     * {@link MicrobeGrid.Diet}), in the layout that accepts incremental updates if the
+     * index {@link #supportsIncrementalUpdates supports them}.
+     *
+     * @param store population store for this frame
+     */
+    void rebuild(MicrobeStore store);
+
+    /**
+     * Rebuilds the index like {@link #rebuild}, on the workers of {@code executor}, for
+     * read-only use until the next rebuild. {@code alongside}, if not {@code null},
+     * runs concurrently with the rebuild. Must be called from the executor's
+     * coordinating thread.
+     *
+     * @param store     population store for this frame
+     * @param executor  workers to rebuild on
+     * @param alongside task to run concurrently with the rebuild, or {@code null}
+     * @throws java.util.concurrent.CompletionException if the rebuild or {@code alongside} fails
+     */
+    void rebuildCompact(MicrobeStore store, TickExecutor executor, Runnable alongside);
+
+    /**
+     * Returns {@code true} if, after {@link #rebuild}, the index can follow the
+     * population through {@link #insert}, {@link #relocate} and the
+     * {@link MicrobeStore.SlotListener} callbacks instead of being rebuilt every frame.
+     */
+    boolean supportsIncrementalUpdates();
+
+    /**
+     * Adds the living {@code slot} at {@code (x, y)}.
+     *
+     * @throws IllegalStateException if the index does not accept incremental updates now
+     */
+    void insert(int slot, double x, double y);
+
+    /**
+     * Moves the indexed {@code slot} to its new position {@code (x, y)}.
+     *
+     * @throws IllegalStateException if the index does not accept incremental updates now
+     */
+    void relocate(int slot, double x, double y);
+
+    /**
+     * Returns {@code true} if moving the indexed {@code slot} to {@code (x, y)} requires
+     * a {@link #relocate}.
+     */
+    boolean crossesCell(int slot, double x, double y);
+
+    /**
+     * Returns the number of indexed slots, i.e. the length of the index order.
+     */
+    int getIndexedCount();
+
+    /**
+     * Invokes {@code action} for every slot whose index-order position lies in
+     * {@code [from, to)}. Any range of positions covers a spatially compact part of
+     * the world.
+     *
+     * @param from   first index-order position (inclusive)
+     * @param to     last index-order position (exclusive), at most {@link #getIndexedCount()}
+     * @param action callback receiving each slot index
+     */
+    void forEachSlotInRange(int from, int to, IntConsumer action);
+
+    /**
+     * Returns the indexed slot nearest to {@code (x, y)} within {@code radius}, or -1 if
+     * there is none; on a tie the smaller slot. {@code out} holds the result and its
+     * squared distance afterwards.
+     *
+     * @throws IllegalArgumentException if {@code radius} is negative
+     * @see MicrobeGrid#findNearest
+     */
+    int findNearest(MicrobeStore store, double x, double y, double radius, MicrobeGrid.Neighbours out);
+
+    /**
+     * Replaces the contents of {@code out} with the (up to) {@code k} indexed slots
+     * nearest to {@code (x, y)} within {@code radius}, nearest first; equally distant
+     * slots in ascending order.
+     *
+     * @throws IllegalArgumentException if {@code radius} is negative or {@code k < 1}
+     * @see MicrobeGrid#findKNearest
+     */
+    void findKNearest(MicrobeStore store, double x, double y, double radius, int k, MicrobeGrid.Neighbours out);
+}
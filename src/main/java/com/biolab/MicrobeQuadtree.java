@@ -0,0 +1,311 @@
+package com.biolab;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Adaptive spatial index for microbe proximity queries: a linear region quadtree
+ * whose nodes only subdivide where the population is dense.
+ *
+ * <p>A uniform {@link MicrobeGrid} has one cell size for the whole world, so when
+ * thousands of microbes pile onto a food cluster a single cell can hold hundreds of
+ * them, and every query near it scans them all. Here a node is split into four
+ * quadrants whenever it holds more than {@link #LEAF_CAPACITY} slots, down to
+ * {@value #MAX_DEPTH} levels, so a leaf is small wherever the microbes are and large
+ * wherever they are not.</p>
+ *
+ * <p>The tree is rebuilt every frame. Positions are quantised to
+ * 2<sup>{@value #MAX_DEPTH}</sup> steps per axis, the interleaved bits of the steps
+ * form a Morton key, and the slots are radix-sorted by key ({@link MortonOrder}).
+ * Every node is then a contiguous range of the sorted slots – the four children of
+ * a node are found by binary search on the next two key bits – so the tree is a few
+ * flat arrays of ranges and the sorted array itself is the index order (Z-order,
+ * equally spatially compact). Nearest-slot queries descend depth-first, nearest
+ * quadrant first, and skip every node whose box is farther than the radius or the
+ * {@code k}-th best candidate found so far.</p>
+ *
+ * <p>The tree does not support incremental updates: the {@link MicrobeIndex} update
+ * methods throw {@link IllegalStateException}. Queries return the same slots as a
+ * {@link MicrobeGrid} of the same population. The tree is built by a single thread,
+ * also in {@link #rebuildCompact}; queries are read-only.</p>
+ */
+public class MicrobeQuadtree implements MicrobeIndex {
+
+    /** Nodes holding more slots than this are subdivided. */
+    public static final int LEAF_CAPACITY = 16;
+    /** Maximum depth of the tree; positions are quantised to 2^MAX_DEPTH steps per axis. */
+    private static final int MAX_DEPTH = 16;
+    /** Margin added to node boxes, covering rounding in the quantisation (world units). */
+    private static final double BOX_SLACK = 1e-6;
+
+    private final MicrobeGrid.Diet diet;
+    private final double stepsPerUnitX;
+    private final double stepsPerUnitY;
+    /** Node width and height at each level. */
+    private final double[] levelWidth = new double[MAX_DEPTH + 1];
+    private final double[] levelHeight = new double[MAX_DEPTH + 1];
+    private final MortonOrder mortonOrder = new MortonOrder();
+
+    // Indexed slots and their keys before sorting
+    private int[] slots = new int[0];
+    private int[] keys = new int[0];
+    /** Indexed slots in Morton order: the index order; a buffer of {@link #mortonOrder}. */
+    private int[] sortedSlots = new int[0];
+    private int[] sortedKeys = new int[0];
+    private int indexedCount;
+
+    // Nodes in depth-first order, the root first; the four children of a node are consecutive
+    private int nodeCount;
+    private int[] nodeStart = new int[64];
+    private int[] nodeEnd = new int[64];
+    /** First child of each node, or -1 for a leaf. */
+    private int[] nodeChild = new int[64];
+    private int[] nodeLevel = new int[64];
+    private double[] nodeX = new double[64];
+    private double[] nodeY = new double[64];
+
+    /**
+     * Creates a new quadtree whose rebuilds index the living microbes of {@code diet}.
+     *
+     * @param worldWidth  width of the world in world units
+     * @param worldHeight height of the world in world units
+     * @param diet        microbes to index
+     * @throws IllegalArgumentException if the world is empty
+     */
+    public MicrobeQuadtree(int worldWidth, int worldHeight, MicrobeGrid.Diet diet) {
+        if (worldWidth <= 0 || worldHeight <= 0) {
+            throw new IllegalArgumentException("World must not be empty, was: " + worldWidth + "x" + worldHeight);
+        }
+        this.diet = Objects.requireNonNull(diet, "diet");
+        this.stepsPerUnitX = (1 << MAX_DEPTH) / (double) worldWidth;
+        this.stepsPerUnitY = (1 << MAX_DEPTH) / (double) worldHeight;
+        for (int level = 0; level <= MAX_DEPTH; level++) {
+            levelWidth[level] = worldWidth / (double) (1 << level);
+            levelHeight[level] = worldHeight / (double) (1 << level);
+        }
+    }
+
+    /**
+     * Rebuilds the tree from the living slots of {@code store} that are of this
+     * tree's diet: sorts them by Morton key and splits the nodes that hold more than
+     * {@link #LEAF_CAPACITY} slots.
+     *
+     * @param store population store for this frame
+     */
+    @Override
+    public void rebuild(MicrobeStore store) {
+        int count = store.size();
+        if (slots.length < count) {
+            slots = new int[Math.max(count, slots.length * 2)];
+            keys = new int[slots.length];
+        }
+        int indexed = 0;
+        for (int slot = 0; slot < count; slot++) {
+            if (!indexes(store, slot)) continue;
+            keys[indexed] = MortonOrder.key(step(store.getX(slot), stepsPerUnitX), step(store.getY(slot), stepsPerUnitY));
+            slots[indexed] = slot;
+            indexed++;
+        }
+        sortedSlots = mortonOrder.sort(slots, keys, indexed);
+        sortedKeys = mortonOrder.sortedKeys();
+        indexedCount = indexed;
+
+        nodeCount = 0;
+        addNode(0, 0, 0, 0, indexed);
+        subdivide(0, 0, 0);
+    }
+
+    /**
+     * Rebuilds the tree like {@link #rebuild}, after running {@code alongside} if not
+     * {@code null}, on the calling thread: the build is sequential, so it is not run
+     * as a worker phase and counts as serial time in the engine's tick profile.
+     */
+    @Override
+    public void rebuildCompact(MicrobeStore store, TickExecutor executor, Runnable alongside) {
+        if (alongside != null) alongside.run();
+        rebuild(store);
+    }
+
+    /** Returns {@code true} if a rebuild indexes {@code slot}: living and of this tree's diet. */
+    private boolean indexes(MicrobeStore store, int slot) {
+        return !store.isDead(slot)
+                && (diet == MicrobeGrid.Diet.ALL || store.isCarnivore(slot) == (diet == MicrobeGrid.Diet.CARNIVORES));
+    }
+
+    /** Returns the quantisation step of coordinate {@code v}, clamped to the world. */
+    private static int step(double v, double stepsPerUnit) {
+        return Math.max(0, Math.min((int) (v * stepsPerUnit), (1 << MAX_DEPTH) - 1));
+    }
+
+    private void addNode(int level, int col, int row, int start, int end) {
+        if (nodeCount == nodeStart.length) {
+            int capacity = nodeCount * 2;
+            nodeStart = Arrays.copyOf(nodeStart, capacity);
+            nodeEnd = Arrays.copyOf(nodeEnd, capacity);
+            nodeChild = Arrays.copyOf(nodeChild, capacity);
+            nodeLevel = Arrays.copyOf(nodeLevel, capacity);
+            nodeX = Arrays.copyOf(nodeX, capacity);
+            nodeY = Arrays.copyOf(nodeY, capacity);
+        }
+        nodeStart[nodeCount] = start;
+        nodeEnd[nodeCount] = end;
+        nodeChild[nodeCount] = -1;
+        nodeLevel[nodeCount] = level;
+        nodeX[nodeCount] = col * levelWidth[level];
+        nodeY[nodeCount] = row * levelHeight[level];
+        nodeCount++;
+    }
+
+    /** Splits {@code node}, at {@code (col, row)} of its level, into its quadrants if it is too full, recursively. */
+    private void subdivide(int node, int col, int row) {
+        int level = nodeLevel[node];
+        int start = nodeStart[node];
+        int end = nodeEnd[node];
+        if (end - start <= LEAF_CAPACITY || level == MAX_DEPTH) return;
+
+        // The slots of a node share the key bits above the level; the next two bits pick the quadrant
+        int shift = 2 * (MAX_DEPTH - level - 1);
+        int first = nodeCount;
+        int from = start;
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            int to = quadrant == 3 ? end : quadrantEnd(from, end, shift, quadrant);
+            addNode(level + 1, 2 * col + (quadrant & 1), 2 * row + (quadrant >> 1), from, to);
+            from = to;
+        }
+        nodeChild[node] = first;
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            subdivide(first + quadrant, 2 * col + (quadrant & 1), 2 * row + (quadrant >> 1));
+        }
+    }
+
+    /** Returns the first position in {@code [from, end)} whose key lies beyond {@code quadrant}. */
+    private int quadrantEnd(int from, int end, int shift, int quadrant) {
+        int lo = from;
+        int hi = end;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (((sortedKeys[mid] >>> shift) & 3) <= quadrant) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Returns {@code false}: the tree is rebuilt every frame. */
+    @Override
+    public boolean supportsIncrementalUpdates() {
+        return false;
+    }
+
+    /** @throws IllegalStateException always; the tree is rebuilt every frame */
+    @Override
+    public void insert(int slot, double x, double y) {
+        throw rebuiltEveryFrame();
+    }
+
+    /** @throws IllegalStateException always; the tree is rebuilt every frame */
+    @Override
+    public void relocate(int slot, double x, double y) {
+        throw rebuiltEveryFrame();
+    }
+
+    /** @throws IllegalStateException always; the tree is rebuilt every frame */
+    @Override
+    public boolean crossesCell(int slot, double x, double y) {
+        throw rebuiltEveryFrame();
+    }
+
+    /** @throws IllegalStateException always; the tree is rebuilt every frame */
+    @Override
+    public void remove(int slot) {
+        throw rebuiltEveryFrame();
+    }
+
+    /** @throws IllegalStateException always; the tree is rebuilt every frame */
+    @Override
+    public void renumber(int from, int to) {
+        throw rebuiltEveryFrame();
+    }
+
+    /** @throws IllegalStateException always; the tree is rebuilt every frame */
+    @Override
+    public void renumber(int[] newSlots, int count, TickExecutor executor) {
+        throw rebuiltEveryFrame();
+    }
+
+    private static IllegalStateException rebuiltEveryFrame() {
+        return new IllegalStateException("MicrobeQuadtree does not support incremental updates");
+    }
+
+    @Override
+    public int getIndexedCount() {
+        return indexedCount;
+    }
+
+    /**
+     * Invokes {@code action} for every slot at positions {@code [from, to)} of the
+     * Morton order.
+     */
+    @Override
+    public void forEachSlotInRange(int from, int to, IntConsumer action) {
+        for (int pos = from; pos < to; pos++) {
+            action.accept(sortedSlots[pos]);
+        }
+    }
+
+    /**
+     * Returns the number of nodes of the tree, leaves included.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int findNearest(MicrobeStore store, double x, double y, double radius, MicrobeGrid.Neighbours out) {
+        findKNearest(store, x, y, radius, 1, out);
+        return out.size() == 0 ? -1 : out.get(0);
+    }
+
+    @Override
+    public void findKNearest(MicrobeStore store, double x, double y, double radius, int k,
+                             MicrobeGrid.Neighbours out) {
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("radius must be >= 0, was: " + radius);
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be >= 1, was: " + k);
+        }
+        out.startSearch(k, radius * radius);
+        if (indexedCount > 0 && boxDistanceSq(0, x, y) <= out.boundSq()) {
+            search(0, store, x, y, out);
+        }
+        out.sortHeap();
+    }
+
+    /** Offers the slots of {@code node} to {@code out}, skipping children beyond its bound. */
+    private void search(int node, MicrobeStore store, double x, double y, MicrobeGrid.Neighbours out) {
+        int first = nodeChild[node];
+        if (first < 0) {
+            out.scan(store, x, y, sortedSlots, nodeStart[node], nodeEnd[node]);
+            return;
+        }
+        // The quadrant containing (x, y) first, then the two beside it, then the diagonal one
+        int level = nodeLevel[first];
+        int nearest = (x >= nodeX[node] + levelWidth[level] ? 1 : 0) | (y >= nodeY[node] + levelHeight[level] ? 2 : 0);
+        for (int i = 0; i < 4; i++) {
+            int child = first + (nearest ^ i);
+            if (nodeStart[child] == nodeEnd[child]) continue;
+            if (boxDistanceSq(child, x, y) > out.boundSq()) continue;
+            search(child, store, x, y, out);
+        }
+    }
+
+    /** Returns the squared distance from {@code (x, y)} to the box of {@code node}. */
+    private double boxDistanceSq(int node, double x, double y) {
+        int level = nodeLevel[node];
+        double minX = nodeX[node] - BOX_SLACK;
+        double minY = nodeY[node] - BOX_SLACK;
+        double dx = Math.max(0, Math.max(minX - x, x - (minX + levelWidth[level] + 2 * BOX_SLACK)));
+        double dy = Math.max(0, Math.max(minY - y, y - (minY + levelHeight[level] + 2 * BOX_SLACK)));
+        return dx * dx + dy * dy;
+    }
+}
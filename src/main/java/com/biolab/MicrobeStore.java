@@ -0,0 +1,934 @@
+package com.biolab;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Structure-of-arrays population store used by {@link SimulationEngine}.
+ *
+ * <p>Every microbe occupies one <em>slot</em>; its hot per-tick state (position,
+ * velocity, health, energy, age, the genes read every tick, timers and AI intent)
+ * lives in parallel primitive arrays indexed by that slot. Worker threads iterate
+ * slots by index, so a chunk walks a handful of contiguous arrays instead of
+ * chasing one heap object (with its lock, colours and ancestry list) per microbe.</p>
+ *
+ * <p>The {@link Microbe} object for each slot is kept as a thin <em>view</em> for the
+ * UI: identity, genes, ancestry and colours. Its mutable fields are refreshed from
+ * the arrays every tick, before dead slots are dropped: by {@link #compact} on the
+ * workers, or by {@link #syncViews()} on the SimulationLoop thread.</p>
+ *
+ * <h3>Thread-safety</h3>
+ * <ul>
+ *   <li>Structural changes ({@link #add}, {@link #removeDead}, {@link #compact},
+ *       {@link #permute}) are started only by the SimulationLoop thread while it holds
+ *       the engine's {@code dataLock}, never while workers are running other phases.
+ *       {@link #compact} and {@link #permute} themselves run on the workers, and
+ *       {@link #compact} rewrites the views of each worker's share of slots there.</li>
+ *   <li>The views are read by the UI without the lock, so a reader may see a view
+ *       mid-update, with some fields from this tick and some from the previous one
+ *       (see {@link Microbe}). Consistent per-frame state is in the
+ *       {@link RenderBuffer} of a render snapshot.</li>
+ *   <li>During the parallel phases each slot is owned by exactly one worker, which
+ *       is the only thread writing it. Effects on other slots (combat, feeding) are
+ *       recorded as intents and applied single-threaded by {@link IntentResolver}.</li>
+ *   <li>Position and velocity are double-buffered. During the parallel phase every
+ *       worker reads the current frame ({@link #getX}, {@link #getY}), which nobody
+ *       writes, while {@link #move} and {@link #steer} write only the owner's slot of
+ *       the next-frame buffers; {@link #swapFrames()} publishes them after the phase.
+ *       Neighbour scans therefore never see a half-moved microbe, and no worker
+ *       writes the arrays that the other workers are scanning.</li>
+ *   <li>The per-slot mutators therefore take no locks.</li>
+ * </ul>
+ */
+public class MicrobeStore {
+
+    /**
+     * Observer of the slot removals and renumbering done by {@link #removeDead(SlotListener)},
+     * for indexes that refer to microbes by slot (see {@link MicrobeGrid}).
+     */
+    interface SlotListener {
+        /** {@code slot} is being removed. */
+        void remove(int slot);
+
+        /** The survivor in {@code from} now lives in the lower slot {@code to}. */
+        void renumber(int from, int to);
+
+        /**
+         * Every slot {@code s < count} was removed ({@code newSlots[s] == -1}) or now lives
+         * in {@code newSlots[s]}; survivors keep their relative order. Reported once by
+         * {@link #compact}, on the coordinating thread of {@code executor}, whose workers
+         * the listener may use. By default replays the per-slot callbacks in ascending order.
+         */
+        default void renumber(int[] newSlots, int count, TickExecutor executor) {
+            for (int slot = 0; slot < count; slot++) {
+                int to = newSlots[slot];
+                if (to < 0) {
+                    remove(slot);
+                } else if (to != slot) {
+                    renumber(slot, to);
+                }
+            }
+        }
+    }
+
+    /** AI state code: no active target. */
+    static final byte AI_WANDER = 0;
+    /** AI state code: steering toward prey. */
+    static final byte AI_HUNT = 1;
+    /** AI state code: steering away from a predator. */
+    static final byte AI_FLEE = 2;
+    /** AI state code: steering toward a food pellet. */
+    static final byte AI_FORAGE = 3;
+
+    private static final String[] AI_STATE_NAMES = {"WANDER", "HUNT", "FLEE", "FORAGE"};
+    private static final int DEFAULT_CAPACITY = 1024;
+    /** Probability per tick of a random heading change (mirrors {@link Microbe#move}). */
+    private static final double RANDOM_TURN_CHANCE = 0.02;
+
+    private int size;
+    /** Splits off one independent random stream per added microbe. */
+    private final SplittableRandom streamSource;
+
+    // ── Columns ───────────────────────────────────────────────────────────
+    private Microbe[] views;
+    private double[] x;
+    private double[] y;
+    private double[] velocityX;
+    private double[] velocityY;
+    // Next-frame kinematics, written only by the slot's owner during the parallel phase
+    private double[] nextX;
+    private double[] nextY;
+    private double[] nextVelocityX;
+    private double[] nextVelocityY;
+    private double[] health;
+    private double[] energy;
+    private int[] age;
+    private double[] heatResistance;
+    private double[] toxinResistance;
+    private double[] speed;
+    private boolean[] carnivore;
+    private long[] lastAttackTime;
+    private long[] adrenalineTimer;
+    private byte[] aiState;
+    private double[] targetX;
+    private double[] targetY;
+    private SplittableRandom[] random;
+
+    // ── Spare columns of the parallel compaction (see compact), swapped with the above ──
+    private Microbe[] spareViews;
+    private double[] spareX;
+    private double[] spareY;
+    private double[] spareVelocityX;
+    private double[] spareVelocityY;
+    private double[] spareHealth;
+    private double[] spareEnergy;
+    private int[] spareAge;
+    private double[] spareHeatResistance;
+    private double[] spareToxinResistance;
+    private double[] spareSpeed;
+    private boolean[] spareCarnivore;
+    private long[] spareLastAttackTime;
+    private long[] spareAdrenalineTimer;
+    private byte[] spareAiState;
+    private double[] spareTargetX;
+    private double[] spareTargetY;
+    private SplittableRandom[] spareRandom;
+
+    // ── Parallel compaction scratch ───────────────────────────────────────
+    /** Per worker: survivors counted, then the first target slot of its survivors. */
+    private int[] survivorStart = new int[0];
+    /** Target slot of every slot, or -1 if removed. */
+    private int[] newSlots = new int[0];
+    /** Per newborn list: first target slot, and the number of its microbes appended. */
+    private int[] newbornStart = new int[0];
+    private int[] newbornTaken = new int[0];
+
+    /**
+     * Creates an empty store with a default initial capacity.
+     */
+    public MicrobeStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty store able to hold {@code initialCapacity} microbes before growing,
+     * with randomly seeded per-microbe random streams.
+     *
+     * @param initialCapacity initial number of slots (values &lt; 1 are raised to 1)
+     */
+    public MicrobeStore(int initialCapacity) {
+        this(initialCapacity, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates an empty store whose per-microbe random streams derive from {@code seed}.
+     * The {@code n}-th microbe added always receives the same stream, so a run is
+     * reproducible as long as microbes are added in a deterministic order.
+     *
+     * @param initialCapacity initial number of slots (values &lt; 1 are raised to 1)
+     * @param seed            seed of the per-microbe random streams
+     */
+    public MicrobeStore(int initialCapacity, long seed) {
+        this.streamSource = new SplittableRandom(seed);
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        views = new Microbe[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        velocityX = new double[capacity];
+        velocityY = new double[capacity];
+        nextX = new double[capacity];
+        nextY = new double[capacity];
+        nextVelocityX = new double[capacity];
+        nextVelocityY = new double[capacity];
+        health = new double[capacity];
+        energy = new double[capacity];
+        age = new int[capacity];
+        heatResistance = new double[capacity];
+        toxinResistance = new double[capacity];
+        speed = new double[capacity];
+        carnivore = new boolean[capacity];
+        lastAttackTime = new long[capacity];
+        adrenalineTimer = new long[capacity];
+        aiState = new byte[capacity];
+        targetX = new double[capacity];
+        targetY = new double[capacity];
+        random = new SplittableRandom[capacity];
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = views.length;
+        if (required <= capacity) return;
+        int newCapacity = Math.max(required, capacity + (capacity >> 1));
+        views = Arrays.copyOf(views, newCapacity);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        velocityX = Arrays.copyOf(velocityX, newCapacity);
+        velocityY = Arrays.copyOf(velocityY, newCapacity);
+        nextX = Arrays.copyOf(nextX, newCapacity);
+        nextY = Arrays.copyOf(nextY, newCapacity);
+        nextVelocityX = Arrays.copyOf(nextVelocityX, newCapacity);
+        nextVelocityY = Arrays.copyOf(nextVelocityY, newCapacity);
+        health = Arrays.copyOf(health, newCapacity);
+        energy = Arrays.copyOf(energy, newCapacity);
+        age = Arrays.copyOf(age, newCapacity);
+        heatResistance = Arrays.copyOf(heatResistance, newCapacity);
+        toxinResistance = Arrays.copyOf(toxinResistance, newCapacity);
+        speed = Arrays.copyOf(speed, newCapacity);
+        carnivore = Arrays.copyOf(carnivore, newCapacity);
+        lastAttackTime = Arrays.copyOf(lastAttackTime, newCapacity);
+        adrenalineTimer = Arrays.copyOf(adrenalineTimer, newCapacity);
+        aiState = Arrays.copyOf(aiState, newCapacity);
+        targetX = Arrays.copyOf(targetX, newCapacity);
+        targetY = Arrays.copyOf(targetY, newCapacity);
+        random = Arrays.copyOf(random, newCapacity);
+    }
+
+    // ── Structural operations (SimulationLoop thread only) ───────────────
+
+    /**
+     * Appends a microbe, seeding its slot from the object's current state.
+     *
+     * @param microbe the microbe to add; becomes the view for the new slot
+     * @return the slot index assigned to the microbe
+     */
+    public int add(Microbe microbe) {
+        ensureCapacity(size + 1);
+        int slot = size++;
+        seed(slot, microbe);
+        random[slot] = streamSource.split();
+        return slot;
+    }
+
+    /** Seeds every column of {@code slot} but the random stream from {@code microbe}. */
+    private void seed(int slot, Microbe microbe) {
+        views[slot] = microbe;
+        x[slot] = microbe.getX();
+        y[slot] = microbe.getY();
+        velocityX[slot] = microbe.getVelocityX();
+        velocityY[slot] = microbe.getVelocityY();
+        health[slot] = microbe.getHealth();
+        energy[slot] = microbe.getEnergy();
+        age[slot] = microbe.getAge();
+        heatResistance[slot] = microbe.getHeatResistance();
+        toxinResistance[slot] = microbe.getToxinResistance();
+        speed[slot] = microbe.getSpeed();
+        carnivore[slot] = microbe.isCarnivore();
+        lastAttackTime[slot] = microbe.getLastAttackTime();
+        adrenalineTimer[slot] = microbe.getAdrenalineTimer();
+        aiState[slot] = aiStateCode(microbe.getAiState());
+        targetX[slot] = microbe.getTargetX();
+        targetY[slot] = microbe.getTargetY();
+    }
+
+    /**
+     * Removes every dead slot, shifting survivors down so that their relative
+     * (birth) order is preserved.
+     *
+     * @return the number of slots removed
+     */
+    public int removeDead() {
+        return removeDead(null);
+    }
+
+    /**
+     * Like {@link #removeDead()}, reporting every removal and renumbering to
+     * {@code listener} as it happens, in ascending slot order.
+     *
+     * @param listener observer of the compaction, or {@code null}
+     * @return the number of slots removed
+     */
+    public int removeDead(SlotListener listener) {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (isDead(read)) {
+                if (listener != null) listener.remove(read);
+                continue;
+            }
+            if (write != read) {
+                moveSlot(read, write);
+                if (listener != null) listener.renumber(read, write);
+            }
+            write++;
+        }
+        int removed = size - write;
+        Arrays.fill(views, write, size, null);
+        Arrays.fill(random, write, size, null);
+        size = write;
+        return removed;
+    }
+
+    /**
+     * Removes every dead slot and appends newborns on all workers of {@code executor}.
+     * The result is the same as {@link #syncViews()}, {@link #removeDead(SlotListener)}
+     * and then {@link #add} for each newborn in order while the store holds fewer than
+     * {@code maxSize} microbes:
+     * <ol>
+     *   <li>every worker refreshes the views of an equal share of the slots and counts
+     *       the survivors among them;</li>
+     *   <li>the SimulationLoop thread turns the counts into each worker's first target
+     *       slot (a prefix sum), places the newborns after the survivors and splits
+     *       their random streams in order;</li>
+     *   <li>every worker scatters the survivors of its share into the spare columns,
+     *       which then replace the columns, and clears the share's old references;</li>
+     *   <li>every worker seeds the slots of a subset of the newborn lists.</li>
+     * </ol>
+     * The spare columns double the store's memory while parallel compaction is used.
+     * With a single worker this falls back to the serial path.
+     *
+     * @param executor workers to compact on; must be called from its coordinating thread
+     * @param newborns microbes to append, in order; the lists are left unchanged
+     * @param maxSize  population beyond which no more newborns are appended
+     * @param listener observer of the removals and renumbering, or {@code null}
+     * @return the number of newborns appended, in the last slots of the store
+     * @throws java.util.concurrent.CompletionException if a phase fails
+     */
+    public int compact(TickExecutor executor, List<? extends List<Microbe>> newborns, int maxSize,
+                       SlotListener listener) {
+        final int count = size;
+        final int workers = executor.getWorkerCount();
+        final int lists = newborns.size();
+        if (workers == 1) {
+            syncViews();
+            removeDead(listener);
+            int appended = 0;
+            for (List<Microbe> list : newborns) {
+                for (int i = 0; i < list.size() && size < maxSize; i++, appended++) {
+                    add(list.get(i));
+                }
+            }
+            return appended;
+        }
+        int offered = 0;
+        for (List<Microbe> list : newborns) {
+            offered += list.size();
+        }
+        ensureCapacity(count + offered);
+        if (spareViews == null || spareViews.length != views.length) {
+            allocateSpare(views.length);
+        }
+        if (newSlots.length < count) {
+            newSlots = new int[Math.max(count, newSlots.length * 2)];
+        }
+        if (survivorStart.length != workers) {
+            survivorStart = new int[workers];
+        }
+        if (newbornStart.length < lists) {
+            newbornStart = new int[lists];
+            newbornTaken = new int[lists];
+        }
+
+        // Phase 1: refresh the views of each share, so that holders observe deaths, and count survivors
+        executor.runPhase((worker, n) -> {
+            int survivors = 0;
+            int end = share(count, worker + 1, n);
+            for (int slot = share(count, worker, n); slot < end; slot++) {
+                views[slot].syncFrom(this, slot);
+                if (!isDead(slot)) survivors++;
+            }
+            survivorStart[worker] = survivors;
+        });
+
+        // Prefix sum over the workers, then the newborns after the survivors, in list order
+        int next = 0;
+        for (int w = 0; w < workers; w++) {
+            int counted = survivorStart[w];
+            survivorStart[w] = next;
+            next += counted;
+        }
+        final int survivors = next;
+        int budget = Math.max(0, maxSize - survivors);
+        for (int l = 0; l < lists; l++) {
+            int taken = Math.min(newborns.get(l).size(), budget);
+            newbornStart[l] = next;
+            newbornTaken[l] = taken;
+            next += taken;
+            budget -= taken;
+        }
+        final int newSize = next;
+
+        // Phase 2: scatter each share's survivors in order, then clear the share's references
+        executor.runPhase((worker, n) -> {
+            int to = survivorStart[worker];
+            int start = share(count, worker, n);
+            int end = share(count, worker + 1, n);
+            for (int from = start; from < end; from++) {
+                if (isDead(from)) {
+                    newSlots[from] = -1;
+                    continue;
+                }
+                newSlots[from] = to;
+                spareViews[to] = views[from];
+                spareX[to] = x[from];
+                spareY[to] = y[from];
+                spareVelocityX[to] = velocityX[from];
+                spareVelocityY[to] = velocityY[from];
+                spareHealth[to] = health[from];
+                spareEnergy[to] = energy[from];
+                spareAge[to] = age[from];
+                spareHeatResistance[to] = heatResistance[from];
+                spareToxinResistance[to] = toxinResistance[from];
+                spareSpeed[to] = speed[from];
+                spareCarnivore[to] = carnivore[from];
+                spareLastAttackTime[to] = lastAttackTime[from];
+                spareAdrenalineTimer[to] = adrenalineTimer[from];
+                spareAiState[to] = aiState[from];
+                spareTargetX[to] = targetX[from];
+                spareTargetY[to] = targetY[from];
+                spareRandom[to] = random[from];
+                to++;
+            }
+            Arrays.fill(views, start, end, null);
+            Arrays.fill(random, start, end, null);
+        });
+        swapSpare();
+        size = newSize;
+        if (listener != null) listener.renumber(newSlots, count, executor);
+
+        // The streams are split in slot order, as add() would; phase 3 seeds the rest
+        for (int slot = survivors; slot < newSize; slot++) {
+            random[slot] = streamSource.split();
+        }
+        if (newSize > survivors) {
+            executor.runPhase((worker, n) -> {
+                for (int l = worker; l < lists; l += n) {
+                    List<Microbe> list = newborns.get(l);
+                    int first = newbornStart[l];
+                    for (int i = 0, taken = newbornTaken[l]; i < taken; i++) {
+                        seed(first + i, list.get(i));
+                    }
+                }
+            });
+        }
+        return newSize - survivors;
+    }
+
+    /**
+     * Reorders the slots so that slot {@code i} holds the microbe previously in slot
+     * {@code order[i]}, on all workers of {@code executor}: every worker gathers an
+     * equal share of the new slots into the spare columns, which then replace the
+     * columns, and clears the references of a share of the old ones. Slot numbers held
+     * elsewhere (such as in a {@link MicrobeGrid}) become invalid.
+     *
+     * @param order    permutation of {@code 0 .. size()-1} in its first {@link #size()} entries
+     * @param executor workers to reorder on; must be called from its coordinating thread
+     * @throws java.util.concurrent.CompletionException if a phase fails
+     */
+    public void permute(int[] order, TickExecutor executor) {
+        final int count = size;
+        if (spareViews == null || spareViews.length != views.length) {
+            allocateSpare(views.length);
+        }
+        executor.runPhase((worker, n) -> {
+            int end = share(count, worker + 1, n);
+            for (int to = share(count, worker, n); to < end; to++) {
+                int from = order[to];
+                spareViews[to] = views[from];
+                spareX[to] = x[from];
+                spareY[to] = y[from];
+                spareVelocityX[to] = velocityX[from];
+                spareVelocityY[to] = velocityY[from];
+                spareHealth[to] = health[from];
+                spareEnergy[to] = energy[from];
+                spareAge[to] = age[from];
+                spareHeatResistance[to] = heatResistance[from];
+                spareToxinResistance[to] = toxinResistance[from];
+                spareSpeed[to] = speed[from];
+                spareCarnivore[to] = carnivore[from];
+                spareLastAttackTime[to] = lastAttackTime[from];
+                spareAdrenalineTimer[to] = adrenalineTimer[from];
+                spareAiState[to] = aiState[from];
+                spareTargetX[to] = targetX[from];
+                spareTargetY[to] = targetY[from];
+                spareRandom[to] = random[from];
+            }
+        });
+        swapSpare();
+        // Clear the old references, so that the spare columns keep no microbe reachable
+        executor.runPhase((worker, n) -> {
+            Arrays.fill(spareViews, share(count, worker, n), share(count, worker + 1, n), null);
+            Arrays.fill(spareRandom, share(count, worker, n), share(count, worker + 1, n), null);
+        });
+    }
+
+    private void allocateSpare(int capacity) {
+        spareViews = new Microbe[capacity];
+        spareX = new double[capacity];
+        spareY = new double[capacity];
+        spareVelocityX = new double[capacity];
+        spareVelocityY = new double[capacity];
+        spareHealth = new double[capacity];
+        spareEnergy = new double[capacity];
+        spareAge = new int[capacity];
+        spareHeatResistance = new double[capacity];
+        spareToxinResistance = new double[capacity];
+        spareSpeed = new double[capacity];
+        spareCarnivore = new boolean[capacity];
+        spareLastAttackTime = new long[capacity];
+        spareAdrenalineTimer = new long[capacity];
+        spareAiState = new byte[capacity];
+        spareTargetX = new double[capacity];
+        spareTargetY = new double[capacity];
+        spareRandom = new SplittableRandom[capacity];
+    }
+
+    private void swapSpare() {
+        Microbe[] v = views;
+        views = spareViews;
+        spareViews = v;
+        double[] d = x;
+        x = spareX;
+        spareX = d;
+        d = y;
+        y = spareY;
+        spareY = d;
+        d = velocityX;
+        velocityX = spareVelocityX;
+        spareVelocityX = d;
+        d = velocityY;
+        velocityY = spareVelocityY;
+        spareVelocityY = d;
+        d = health;
+        health = spareHealth;
+        spareHealth = d;
+        d = energy;
+        energy = spareEnergy;
+        spareEnergy = d;
+        int[] a = age;
+        age = spareAge;
+        spareAge = a;
+        d = heatResistance;
+        heatResistance = spareHeatResistance;
+        spareHeatResistance = d;
+        d = toxinResistance;
+        toxinResistance = spareToxinResistance;
+        spareToxinResistance = d;
+        d = speed;
+        speed = spareSpeed;
+        spareSpeed = d;
+        boolean[] c = carnivore;
+        carnivore = spareCarnivore;
+        spareCarnivore = c;
+        long[] t = lastAttackTime;
+        lastAttackTime = spareLastAttackTime;
+        spareLastAttackTime = t;
+        t = adrenalineTimer;
+        adrenalineTimer = spareAdrenalineTimer;
+        spareAdrenalineTimer = t;
+        byte[] b = aiState;
+        aiState = spareAiState;
+        spareAiState = b;
+        d = targetX;
+        targetX = spareTargetX;
+        spareTargetX = d;
+        d = targetY;
+        targetY = spareTargetY;
+        spareTargetY = d;
+        SplittableRandom[] r = random;
+        random = spareRandom;
+        spareRandom = r;
+    }
+
+    /** Returns the first slot of {@code worker}'s equal share of {@code count} slots. */
+    private static int share(int count, int worker, int workers) {
+        return (int) ((long) count * worker / workers);
+    }
+
+    private void moveSlot(int from, int to) {
+        views[to] = views[from];
+        x[to] = x[from];
+        y[to] = y[from];
+        velocityX[to] = velocityX[from];
+        velocityY[to] = velocityY[from];
+        health[to] = health[from];
+        energy[to] = energy[from];
+        age[to] = age[from];
+        heatResistance[to] = heatResistance[from];
+        toxinResistance[to] = toxinResistance[from];
+        speed[to] = speed[from];
+        carnivore[to] = carnivore[from];
+        lastAttackTime[to] = lastAttackTime[from];
+        adrenalineTimer[to] = adrenalineTimer[from];
+        aiState[to] = aiState[from];
+        targetX[to] = targetX[from];
+        targetY[to] = targetY[from];
+        random[to] = random[from];
+    }
+
+    /**
+     * Copies the current state of every slot into its {@link Microbe} view.
+     * Must be called before {@link #removeDead()} so that dying microbes are
+     * observed as dead by anyone still holding their view (e.g. the inspector).
+     */
+    public void syncViews() {
+        for (int i = 0; i < size; i++) {
+            views[i].syncFrom(this, i);
+        }
+    }
+
+    /**
+     * Returns an unmodifiable copy of the current views, in slot order.
+     */
+    public List<Microbe> copyViews() {
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(views, size)));
+    }
+
+    /**
+     * Copies the current views into {@code target}, in slot order, and returns it; if
+     * {@code target} is too small, a larger array is allocated and returned instead.
+     * Elements from {@link #size()} on are left untouched.
+     */
+    public Microbe[] copyViews(Microbe[] target) {
+        Microbe[] result = target.length >= size ? target : new Microbe[Math.max(size, target.length * 2)];
+        System.arraycopy(views, 0, result, 0, size);
+        return result;
+    }
+
+    // ── Per-slot simulation logic (owning worker thread) ──────────────────
+
+    /**
+     * Moves the microbe in {@code slot} one tick, applying energy cost, adrenaline,
+     * boundary bounce and random heading changes at tick {@code now}.
+     * Mirrors {@link Microbe#move(int, int, long)}.
+     *
+     * <p>Reads the current frame and writes the next-frame position and velocity;
+     * the result becomes visible through {@link #getX(int)} etc. after {@link #swapFrames()}.</p>
+     */
+    public void move(int slot, int width, int height, long now) {
+        boolean hasAdrenaline = isAdrenalineActive(slot, now);
+
+        double energyCost = Microbe.MOVEMENT_ENERGY_COST * (1.0 + speed[slot]);
+        if (hasAdrenaline) {
+            energyCost *= Microbe.ADRENALINE_ENERGY_MULT;
+        }
+        energy[slot] -= energyCost;
+
+        double vx = velocityX[slot];
+        double vy = velocityY[slot];
+        double nx = x[slot] + (hasAdrenaline ? vx * Microbe.ADRENALINE_SPEED_MULT : vx);
+        double ny = y[slot] + (hasAdrenaline ? vy * Microbe.ADRENALINE_SPEED_MULT : vy);
+
+        // Bounce off world boundaries
+        if (nx < 0 || nx > width) {
+            vx = -vx;
+            nx = Math.max(0, Math.min(width, nx));
+        }
+        if (ny < 0 || ny > height) {
+            vy = -vy;
+            ny = Math.max(0, Math.min(height, ny));
+        }
+        nextX[slot] = nx;
+        nextY[slot] = ny;
+        nextVelocityX[slot] = vx;
+        nextVelocityY[slot] = vy;
+
+        // Random direction changes for more organic movement
+        SplittableRandom stream = random[slot];
+        if (stream.nextDouble() < RANDOM_TURN_CHANCE) {
+            randomizeVelocity(slot, stream);
+        }
+    }
+
+    /**
+     * Carries the current position and velocity of {@code slot} over to the next
+     * frame unchanged, for slots that are not moved this tick.
+     */
+    public void holdPosition(int slot) {
+        nextX[slot] = x[slot];
+        nextY[slot] = y[slot];
+        nextVelocityX[slot] = velocityX[slot];
+        nextVelocityY[slot] = velocityY[slot];
+    }
+
+    /**
+     * Makes the next-frame positions and velocities current by swapping the buffers.
+     * Called by the SimulationLoop thread once the parallel movement phase has finished.
+     */
+    public void swapFrames() {
+        double[] t = x;
+        x = nextX;
+        nextX = t;
+        t = y;
+        y = nextY;
+        nextY = t;
+        t = velocityX;
+        velocityX = nextVelocityX;
+        nextVelocityX = t;
+        t = velocityY;
+        velocityY = nextVelocityY;
+        nextVelocityY = t;
+    }
+
+    private void randomizeVelocity(int slot, SplittableRandom random) {
+        double angle = random.nextDouble() * 2 * Math.PI;
+        double magnitude = speed[slot] * 2.0;
+        nextVelocityX[slot] = Math.cos(angle) * magnitude;
+        nextVelocityY[slot] = Math.sin(angle) * magnitude;
+    }
+
+    /**
+     * Applies environmental damage and ages the microbe by one tick.
+     * Mirrors {@link Microbe#updateHealth(double, double)}.
+     */
+    public void updateHealth(int slot, double temperature, double toxicity) {
+        double heatDamage = temperature * (1.0 - heatResistance[slot]) * 0.05;
+        double toxinDamage = toxicity * (1.0 - toxinResistance[slot]) * 0.05;
+
+        health[slot] -= (heatDamage + toxinDamage);
+
+        age[slot]++;
+    }
+
+    /**
+     * Increases energy by {@code energyGain}, capped at {@link Microbe#getMaxEnergy()}.
+     */
+    public void eat(int slot, double energyGain) {
+        energy[slot] = Math.min(Microbe.MAX_ENERGY, energy[slot] + energyGain);
+    }
+
+    /**
+     * Applies a damped velocity impulse.
+     */
+    public void applyKnockback(int slot, double forceX, double forceY) {
+        velocityX[slot] += forceX * Microbe.KNOCKBACK_DAMPING;
+        velocityY[slot] += forceY * Microbe.KNOCKBACK_DAMPING;
+    }
+
+    /**
+     * Adds a damped steering impulse to the next-frame velocity of {@code slot}
+     * (the in-phase counterpart of {@link #applyKnockback}).
+     */
+    public void steer(int slot, double forceX, double forceY) {
+        nextVelocityX[slot] += forceX * Microbe.KNOCKBACK_DAMPING;
+        nextVelocityY[slot] += forceY * Microbe.KNOCKBACK_DAMPING;
+    }
+
+    /**
+     * Inflicts {@code damage} at tick {@code now} and returns the energy the attacker absorbs.
+     * Mirrors {@link Microbe#takeDamageAndTransferEnergy(double, long)}.
+     */
+    public double takeDamageAndTransferEnergy(int slot, double damage, long now) {
+        double energyTransferred;
+        health[slot] -= damage;
+        adrenalineTimer[slot] = now;
+        if (health[slot] <= 0) {
+            energyTransferred = energy[slot];
+            energy[slot] = 0;
+        } else {
+            energyTransferred = (damage / Microbe.MAX_HEALTH) * Microbe.MAX_ENERGY;
+        }
+        return energyTransferred;
+    }
+
+    /**
+     * Records that the microbe in {@code slot} landed an attack at tick {@code now}.
+     */
+    public void markAttack(int slot, long now) {
+        lastAttackTime[slot] = now;
+    }
+
+    /**
+     * Returns {@code true} if the slot meets the age, health and energy thresholds to reproduce.
+     */
+    public boolean canReproduce(int slot) {
+        return age[slot] >= Microbe.REPRODUCTION_AGE
+                && health[slot] > Microbe.MAX_HEALTH * 0.5
+                && energy[slot] >= Microbe.MIN_REPRODUCTION_ENERGY;
+    }
+
+    /**
+     * Resets age and deducts reproduction costs after a child was spawned.
+     */
+    public void resetReproduction(int slot) {
+        age[slot] = 0;
+        health[slot] -= Microbe.MAX_HEALTH * 0.3;
+        energy[slot] -= Microbe.REPRODUCTION_ENERGY_COST;
+    }
+
+    /**
+     * Records the AI intent of {@code slot} for debug rendering.
+     *
+     * @param state one of {@link #AI_WANDER}, {@link #AI_HUNT}, {@link #AI_FLEE}, {@link #AI_FORAGE}
+     */
+    public void setAiIntent(int slot, byte state, double tx, double ty) {
+        aiState[slot] = state;
+        targetX[slot] = tx;
+        targetY[slot] = ty;
+    }
+
+    /**
+     * Marks {@code slot} as wandering, keeping its last target coordinates (as {@link Microbe} does).
+     */
+    public void setWandering(int slot) {
+        aiState[slot] = AI_WANDER;
+    }
+
+    // ── Accessors ─────────────────────────────────────────────────────────
+
+    /** Returns the number of occupied slots. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the random stream of {@code slot}. Like the slot's other state it may only
+     * be used by the thread owning the slot in the current phase.
+     */
+    public SplittableRandom getRandom(int slot) {
+        return random[slot];
+    }
+
+    /** Returns the {@link Microbe} view of {@code slot}. */
+    public Microbe getView(int slot) {
+        return views[slot];
+    }
+
+    /** Returns the x position of {@code slot}. */
+    public double getX(int slot) {
+        return x[slot];
+    }
+
+    /** Returns the y position of {@code slot}. */
+    public double getY(int slot) {
+        return y[slot];
+    }
+
+    /** Returns the next-frame x position of {@code slot} (valid after {@link #move}). */
+    public double getNextX(int slot) {
+        return nextX[slot];
+    }
+
+    /** Returns the next-frame y position of {@code slot} (valid after {@link #move}). */
+    public double getNextY(int slot) {
+        return nextY[slot];
+    }
+
+    /** Returns the horizontal velocity of {@code slot}. */
+    public double getVelocityX(int slot) {
+        return velocityX[slot];
+    }
+
+    /** Returns the vertical velocity of {@code slot}. */
+    public double getVelocityY(int slot) {
+        return velocityY[slot];
+    }
+
+    /** Returns the current health of {@code slot}. */
+    public double getHealth(int slot) {
+        return health[slot];
+    }
+
+    /** Returns the current energy of {@code slot}. */
+    public double getEnergy(int slot) {
+        return energy[slot];
+    }
+
+    /** Returns the age (in ticks) of {@code slot}. */
+    public int getAge(int slot) {
+        return age[slot];
+    }
+
+    /** Returns the speed gene of {@code slot}. */
+    public double getSpeed(int slot) {
+        return speed[slot];
+    }
+
+    /** Returns {@code true} if {@code slot} holds a Carnivore (diet gene &gt; 0.6). */
+    public boolean isCarnivore(int slot) {
+        return carnivore[slot];
+    }
+
+    /** Returns {@code true} if {@code slot} has run out of health or energy. */
+    public boolean isDead(int slot) {
+        return health[slot] <= 0 || energy[slot] <= 0;
+    }
+
+    /** Returns the tick of the last attack landed by {@code slot}. */
+    public long getLastAttackTime(int slot) {
+        return lastAttackTime[slot];
+    }
+
+    /** Returns the tick at which {@code slot} last took damage. */
+    public long getAdrenalineTimer(int slot) {
+        return adrenalineTimer[slot];
+    }
+
+    /** Returns {@code true} if the adrenaline effect of {@code slot} is active at tick {@code now}. */
+    public boolean isAdrenalineActive(int slot, long now) {
+        return now - adrenalineTimer[slot] < Microbe.ADRENALINE_DURATION_TICKS;
+    }
+
+    /** Returns the AI state as the string used by {@link Microbe#getAiState()}. */
+    public String getAiState(int slot) {
+        return AI_STATE_NAMES[aiState[slot]];
+    }
+
+    /** Returns the AI state of {@code slot} as one of the {@code AI_*} codes. */
+    byte getAiStateCode(int slot) {
+        return aiState[slot];
+    }
+
+    /** Returns the x coordinate of the AI target of {@code slot}, or -1 if none. */
+    public double getTargetX(int slot) {
+        return targetX[slot];
+    }
+
+    /** Returns the y coordinate of the AI target of {@code slot}, or -1 if none. */
+    public double getTargetY(int slot) {
+        return targetY[slot];
+    }
+
+    private static byte aiStateCode(String state) {
+        return switch (state) {
+            case "HUNT" -> AI_HUNT;
+            case "FLEE" -> AI_FLEE;
+            case "FORAGE" -> AI_FORAGE;
+            default -> AI_WANDER;
+        };
+    }
+}
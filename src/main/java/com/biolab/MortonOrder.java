@@ -0,0 +1,143 @@
+package com.biolab;
+
+import java.util.Arrays;
+
+/**
+ * Sorts the slots of a {@link MicrobeStore} along a Morton (Z-order) curve over the
+ * grid cells, so that microbes close in the world end up close in slot order.
+ *
+ * <p>The key of a slot is the Morton code of its cell: the bits of the cell's column
+ * and row, interleaved. Consecutive keys describe a recursively nested sequence of
+ * squares, so any contiguous range of sorted slots covers a compact region of the
+ * world, and the microbes a slot scans through the {@link MicrobeGrid} mostly lie
+ * in nearby slots – and nearby memory – as well.</p>
+ *
+ * <p>The keys are sorted with a least-significant-digit radix sort, 8 bits per pass
+ * and only as many passes as the largest key needs: linear in the population, and
+ * stable, so slots of one cell keep their order. The buffers are reused between
+ * calls. Not thread-safe; used by the SimulationLoop thread under the engine's
+ * {@code dataLock}.</p>
+ */
+final class MortonOrder {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private final int[] digitCounts = new int[RADIX];
+    private int[] keys = new int[0];
+    private int[] order = new int[0];
+    private int[] keyBuffer = new int[0];
+    private int[] orderBuffer = new int[0];
+
+    /**
+     * Returns the Morton code of the cell at {@code (col, row)}; both must be in
+     * {@code [0, 65535]}.
+     */
+    static int key(int col, int row) {
+        return spread(col) | (spread(row) << 1);
+    }
+
+    /** Spreads the low 16 bits of {@code v} to the even bit positions. */
+    private static int spread(int v) {
+        v &= 0xFFFF;
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    /**
+     * Returns the slots of {@code store} in Morton order of their cells, as an array
+     * whose first {@code store.size()} entries are a permutation of the slots (see
+     * {@link MicrobeStore#permute}). The array is reused by the next call.
+     *
+     * @param store    population to sort
+     * @param cellSize size of the cells the positions are binned into (world units)
+     */
+    int[] sort(MicrobeStore store, int cellSize) {
+        int count = store.size();
+        ensureCapacity(count);
+        int maxKey = 0;
+        for (int slot = 0; slot < count; slot++) {
+            int col = Math.max(0, (int) (store.getX(slot) / cellSize));
+            int row = Math.max(0, (int) (store.getY(slot) / cellSize));
+            int key = key(col, row);
+            keys[slot] = key;
+            order[slot] = slot;
+            maxKey |= key;
+        }
+        return radixSort(count, maxKey);
+    }
+
+    /**
+     * Returns the first {@code count} entries of {@code slots} stably sorted by the
+     * Morton codes in {@code keys}, compared as unsigned; {@link #sortedKeys()} gives the
+     * codes in the same order. The arrays passed in are not modified; the one returned is
+     * reused by the next call.
+     */
+    int[] sort(int[] slots, int[] keys, int count) {
+        ensureCapacity(count);
+        System.arraycopy(slots, 0, order, 0, count);
+        System.arraycopy(keys, 0, this.keys, 0, count);
+        int maxKey = 0;
+        for (int i = 0; i < count; i++) {
+            maxKey |= keys[i];
+        }
+        return radixSort(count, maxKey);
+    }
+
+    /** Returns the keys of the last sort, in sorted order. */
+    int[] sortedKeys() {
+        return keys;
+    }
+
+    private void ensureCapacity(int count) {
+        if (keys.length < count) {
+            int capacity = Math.max(count, keys.length * 2);
+            keys = new int[capacity];
+            order = new int[capacity];
+            keyBuffer = new int[capacity];
+            orderBuffer = new int[capacity];
+        }
+    }
+
+    /** Sorts the first {@code count} (key, slot) pairs of the buffers; returns the slots. */
+    private int[] radixSort(int count, int maxKey) {
+        // LSD radix sort of (key, slot) pairs, ping-ponging between the buffers
+        int[] fromKeys = keys;
+        int[] fromOrder = order;
+        int[] toKeys = keyBuffer;
+        int[] toOrder = orderBuffer;
+        int bits = 32 - Integer.numberOfLeadingZeros(maxKey);
+        for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+            Arrays.fill(digitCounts, 0);
+            for (int i = 0; i < count; i++) {
+                digitCounts[(fromKeys[i] >>> shift) & (RADIX - 1)]++;
+            }
+            int position = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int n = digitCounts[digit];
+                digitCounts[digit] = position;
+                position += n;
+            }
+            for (int i = 0; i < count; i++) {
+                int target = digitCounts[(fromKeys[i] >>> shift) & (RADIX - 1)]++;
+                toKeys[target] = fromKeys[i];
+                toOrder[target] = fromOrder[i];
+            }
+            int[] swap = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swap;
+            swap = fromOrder;
+            fromOrder = toOrder;
+            toOrder = swap;
+        }
+        // After an odd number of passes the result is in the former buffers
+        keys = fromKeys;
+        order = fromOrder;
+        keyBuffer = toKeys;
+        orderBuffer = toOrder;
+        return order;
+    }
+}
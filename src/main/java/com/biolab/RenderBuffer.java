@@ -0,0 +1,156 @@
+package com.biolab;
+
+import java.util.Arrays;
+
+/**
+ * Packed, primitive copy of what the renderer draws for every microbe of a
+ * {@link SimulationEngine.RenderSnapshot}: position, colour, health bucket, flags and
+ * the Developer Vision fields, in the snapshot's slot order.
+ *
+ * <p>The canvas iterates these arrays linearly instead of calling getters on the
+ * {@link Microbe} views, which touches one object per microbe and reads fields the
+ * SimulationLoop thread is rewriting. The views are kept in the snapshot for hit
+ * testing and for handing the selected microbe to the inspector only; the selection
+ * ring is drawn from here as well, at the {@link #getSelectedIndex index} recorded
+ * while the buffer was filled.</p>
+ *
+ * <h3>Thread-safety</h3>
+ * <p>Filled by the SimulationLoop thread while it holds the engine's {@code dataLock},
+ * then published with the snapshot (volatile write). The engine recycles its buffers
+ * in turn, so the contents stay unchanged until two further snapshots have been
+ * published.</p>
+ */
+public final class RenderBuffer {
+
+    /** Highest {@link #getHealthBucket health bucket} (full health). */
+    public static final int HEALTH_BUCKETS = 10;
+
+    private static final byte FLAG_CARNIVORE = 1;
+
+    private int size;
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private int[] rgb = new int[0];
+    private byte[] healthBucket = new byte[0];
+    private byte[] flags = new byte[0];
+    private int[] ticksSinceAttack = new int[0];
+    private byte[] aiState = new byte[0];
+    private float[] targetX = new float[0];
+    private float[] targetY = new float[0];
+    private long[] id = new long[0];
+    private int selectedIndex = -1;
+
+    /**
+     * Copies the render state of every slot of {@code store} at tick {@code now}.
+     * Caller holds the engine's {@code dataLock}.
+     */
+    void fill(MicrobeStore store, long now) {
+        int count = store.size();
+        if (count > x.length) grow(Math.max(count, x.length * 2));
+        int selected = -1;
+        for (int i = 0; i < count; i++) {
+            Microbe view = store.getView(i);
+            x[i] = (float) store.getX(i);
+            y[i] = (float) store.getY(i);
+            rgb[i] = view.getColor().getRGB() & 0xFFFFFF;
+            double healthRatio = Math.max(0.0, store.getHealth(i) / Microbe.MAX_HEALTH);
+            healthBucket[i] = (byte) Math.min(HEALTH_BUCKETS, (int) (healthRatio * HEALTH_BUCKETS));
+            flags[i] = store.isCarnivore(i) ? FLAG_CARNIVORE : 0;
+            ticksSinceAttack[i] = (int) Math.min(Integer.MAX_VALUE, now - store.getLastAttackTime(i));
+            aiState[i] = store.getAiStateCode(i);
+            targetX[i] = (float) store.getTargetX(i);
+            targetY[i] = (float) store.getTargetY(i);
+            id[i] = view.getId();
+            if (view.isSelected()) selected = i;
+        }
+        size = count;
+        selectedIndex = selected;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        rgb = Arrays.copyOf(rgb, capacity);
+        healthBucket = Arrays.copyOf(healthBucket, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        ticksSinceAttack = Arrays.copyOf(ticksSinceAttack, capacity);
+        aiState = Arrays.copyOf(aiState, capacity);
+        targetX = Arrays.copyOf(targetX, capacity);
+        targetY = Arrays.copyOf(targetY, capacity);
+        id = Arrays.copyOf(id, capacity);
+    }
+
+    /** Returns the number of microbes in the buffer. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns the x coordinate of microbe {@code i}. */
+    public float getX(int i) {
+        return x[i];
+    }
+
+    /** Returns the y coordinate of microbe {@code i}. */
+    public float getY(int i) {
+        return y[i];
+    }
+
+    /** Returns the gene colour of microbe {@code i} as packed {@code 0xRRGGBB}. */
+    public int getRgb(int i) {
+        return rgb[i];
+    }
+
+    /** Returns the health of microbe {@code i} in {@code [0, HEALTH_BUCKETS]}. */
+    public int getHealthBucket(int i) {
+        return healthBucket[i];
+    }
+
+    /** Returns {@code true} if microbe {@code i} is a Carnivore. */
+    public boolean isCarnivore(int i) {
+        return (flags[i] & FLAG_CARNIVORE) != 0;
+    }
+
+    /** Returns the ticks since microbe {@code i} last landed an attack (saturating). */
+    public int getTicksSinceAttack(int i) {
+        return ticksSinceAttack[i];
+    }
+
+    /** Returns the AI state code of microbe {@code i} (see {@code MicrobeStore.AI_*}). */
+    public byte getAiState(int i) {
+        return aiState[i];
+    }
+
+    /** Returns the x coordinate of the AI target of microbe {@code i}, or -1 if none. */
+    public float getTargetX(int i) {
+        return targetX[i];
+    }
+
+    /** Returns the y coordinate of the AI target of microbe {@code i}, or -1 if none. */
+    public float getTargetY(int i) {
+        return targetY[i];
+    }
+
+    /** Returns the ID of microbe {@code i}. */
+    public long getId(int i) {
+        return id[i];
+    }
+
+    /**
+     * Returns the index of the microbe that was selected when the buffer was filled,
+     * or -1 if none was.
+     */
+    public int getSelectedIndex() {
+        return selectedIndex;
+    }
+
+    /**
+     * Returns the index of the microbe with ID {@code microbeId}, or -1 if it is not in
+     * the buffer. Scans the whole buffer; prefer {@link #getSelectedIndex()}.
+     */
+    public int indexOf(long microbeId) {
+        for (int i = 0; i < size; i++) {
+            if (id[i] == microbeId) return i;
+        }
+        return -1;
+    }
+}
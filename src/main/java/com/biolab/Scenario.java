@@ -0,0 +1,151 @@
+package com.biolab;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable description of a headless simulation run, loaded from a
+ * {@code .properties} scenario file.
+ *
+ * <h3>Keys</h3>
+ * <pre>
+ * world.width=10000             # world size in world units
+ * world.height=10000
+ * population.initial=20000      # microbes seeded at startup
+ * population.max=20000          # cap reached through reproduction
+ * environment.temperature=0.3   # [0.0, 1.0]
+ * environment.toxicity=0.3      # [0.0, 1.0]
+ * food.spawnRate=0.3            # food spawn probability per tick, [0.0, 1.0]
+ * ticks=1000                    # number of ticks to run
+ * seed=42                       # master seed; omit for a random seed
+ * stats.interval=100            # write a stats row every N ticks; 0 disables
+ * stats.output=biolab_batch_stats.csv
+ * scheduling=WORK_STEALING      # see SimulationEngine.Scheduling
+ * </pre>
+ * Every key is optional; missing keys take the defaults shown above.
+ *
+ * @param worldWidth        world width in world units
+ * @param worldHeight       world height in world units
+ * @param initialPopulation microbes seeded at startup
+ * @param maxPopulation     population cap reached through reproduction
+ * @param temperature       environment temperature in [0.0, 1.0]
+ * @param toxicity          environment toxicity in [0.0, 1.0]
+ * @param foodSpawnRate     food spawn probability per tick in [0.0, 1.0]
+ * @param ticks             number of ticks to run
+ * @param seed              master seed of the run
+ * @param statsInterval     ticks between two stats rows, or {@code 0} for none
+ * @param statsOutput       CSV file the stats rows are appended to
+ * @param scheduling        scheduler for the engine's parallel phases
+ */
+public record Scenario(int worldWidth, int worldHeight, int initialPopulation, int maxPopulation,
+                       double temperature, double toxicity, double foodSpawnRate,
+                       long ticks, long seed, int statsInterval, Path statsOutput,
+                       SimulationEngine.Scheduling scheduling) {
+
+    /**
+     * Validates the scenario.
+     *
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public Scenario {
+        if (worldWidth <= 0 || worldHeight <= 0) {
+            throw new IllegalArgumentException("World dimensions must be positive, was: " + worldWidth + "x" + worldHeight);
+        }
+        if (initialPopulation < 0) {
+            throw new IllegalArgumentException("population.initial must be >= 0, was: " + initialPopulation);
+        }
+        if (maxPopulation <= 0) {
+            throw new IllegalArgumentException("population.max must be > 0, was: " + maxPopulation);
+        }
+        requireUnitRange("environment.temperature", temperature);
+        requireUnitRange("environment.toxicity", toxicity);
+        requireUnitRange("food.spawnRate", foodSpawnRate);
+        if (ticks < 0) {
+            throw new IllegalArgumentException("ticks must be >= 0, was: " + ticks);
+        }
+        if (statsInterval < 0) {
+            throw new IllegalArgumentException("stats.interval must be >= 0, was: " + statsInterval);
+        }
+        if (statsOutput == null || scheduling == null) {
+            throw new IllegalArgumentException("stats.output and scheduling must not be null");
+        }
+    }
+
+    private static void requireUnitRange(String key, double value) {
+        if (!(value >= 0.0 && value <= 1.0)) {
+            throw new IllegalArgumentException(key + " must be in [0.0, 1.0], was: " + value);
+        }
+    }
+
+    /**
+     * Loads a scenario from a {@code .properties} file.
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a value is malformed or out of range
+     */
+    public static Scenario load(Path file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            props.load(input);
+        }
+        return fromProperties(props);
+    }
+
+    /**
+     * Builds a scenario from already loaded properties, applying the defaults for missing keys.
+     *
+     * @throws IllegalArgumentException if a value is malformed or out of range
+     */
+    public static Scenario fromProperties(Properties props) {
+        try {
+            return new Scenario(
+                    Integer.parseInt(props.getProperty("world.width", "10000").trim()),
+                    Integer.parseInt(props.getProperty("world.height", "10000").trim()),
+                    Integer.parseInt(props.getProperty("population.initial", "20000").trim()),
+                    Integer.parseInt(props.getProperty("population.max", "20000").trim()),
+                    Double.parseDouble(props.getProperty("environment.temperature", "0.3").trim()),
+                    Double.parseDouble(props.getProperty("environment.toxicity", "0.3").trim()),
+                    Double.parseDouble(props.getProperty("food.spawnRate", "0.3").trim()),
+                    Long.parseLong(props.getProperty("ticks", "1000").trim()),
+                    props.containsKey("seed")
+                            ? Long.parseLong(props.getProperty("seed").trim())
+                            : ThreadLocalRandom.current().nextLong(),
+                    Integer.parseInt(props.getProperty("stats.interval", "100").trim()),
+                    Path.of(props.getProperty("stats.output", "biolab_batch_stats.csv").trim()),
+                    SimulationEngine.Scheduling.valueOf(
+                            props.getProperty("scheduling", "WORK_STEALING").trim().toUpperCase(Locale.ROOT)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number in scenario: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a seeded engine configured with this scenario's world, population,
+     * environment, food rate and scheduling.
+     */
+    public SimulationEngine createEngine() {
+        return createEngine(null);
+    }
+
+    /**
+     * Like {@link #createEngine()}, but the engine runs on {@code scheduler} instead of
+     * threads of its own (see {@link SimulationEngine#SimulationEngine(int, int, int, int, long, ForkJoinPool)}).
+     *
+     * @param scheduler shared pool, or {@code null} for engine-owned threads
+     */
+    public SimulationEngine createEngine(ForkJoinPool scheduler) {
+        SimulationEngine engine = new SimulationEngine(
+                worldWidth, worldHeight, initialPopulation, maxPopulation, seed, scheduler);
+        engine.getEnvironment().setTemperature(temperature);
+        engine.getEnvironment().setToxicity(toxicity);
+        engine.setFoodSpawnRate(foodSpawnRate);
+        engine.setScheduling(scheduling);
+        return engine;
+    }
+}
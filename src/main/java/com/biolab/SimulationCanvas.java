@@ -2,7 +2,6 @@ package com.biolab;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 
 /**
  * Canvas for rendering the simulation world with camera controls (pan, zoom).
@@ -40,9 +39,10 @@ public class SimulationCanvas extends JPanel {
      */
     private static final int CARNIVORE_SIZE_BONUS = 2;
     /**
-     * Duration (ms) for which the red attack-flash ring is visible after a bite.
+     * Number of simulation ticks for which the red attack-flash ring is visible
+     * after a bite (300 ms at 1× speed).
      */
-    private static final long ATTACK_FLASH_DURATION_MS = 300;
+    private static final long ATTACK_FLASH_TICKS = SimulationClock.ticksFor(300);
     private static final Color ATTACK_RING_COLOR = new Color(255, 30, 30);
     private static final Color ATTACK_RING_GLOW = new Color(255, 60, 60, 120);
     private static final BasicStroke STROKE_ATTACK = new BasicStroke(2.5f);
@@ -50,6 +50,7 @@ public class SimulationCanvas extends JPanel {
     // ── Debug / Developer Vision rendering ───────────────────────────────
     private static final Color DEBUG_HUNT_LINE_COLOR = new Color(255, 50, 50);
     private static final Color DEBUG_FLEE_LINE_COLOR = new Color(0, 230, 255);
+    private static final Color DEBUG_FORAGE_LINE_COLOR = new Color(120, 255, 80);
     private static final Color DEBUG_VISION_COLOR = new Color(255, 255, 255, 30);
     private static final Color DEBUG_ID_COLOR = new Color(220, 220, 220);
     private static final Font DEBUG_ID_FONT = new Font("Monospaced", Font.PLAIN, 9);
@@ -72,6 +73,16 @@ public class SimulationCanvas extends JPanel {
      */
     private static final AlphaComposite[][] GLOW_COMPOSITES = buildGlowTable();
 
+    /**
+     * Direct-mapped cache of the microbe colours by packed RGB, so that drawing from
+     * the {@link RenderBuffer} creates no {@link Color} per microbe and frame.
+     * Index: a hash of the RGB value; a colliding colour replaces the entry. EDT only.
+     */
+    private static final int COLOR_CACHE_SIZE = 4096;
+    private final int[] colorCacheKeys = new int[COLOR_CACHE_SIZE];
+    private final Color[] colorCache = new Color[COLOR_CACHE_SIZE];
+    private final Color[] brightColorCache = new Color[COLOR_CACHE_SIZE];
+
     /**
      * @param worldWidth        width of the simulation world in world units
      * @param worldHeight       height of the simulation world in world units
@@ -128,6 +139,15 @@ public class SimulationCanvas extends JPanel {
      * The microbe the camera is currently locked onto, or {@code null} when free.
      */
     private volatile Microbe followTarget;
+    /**
+     * The selected microbe, whose ring is drawn at its entry in the render snapshot; {@code null} if none.
+     */
+    private volatile Microbe selectedMicrobe;
+    // Index of a selection made after the snapshot was published (e.g. while paused),
+    // looked up once per snapshot; EDT only
+    private SimulationEngine.RenderSnapshot selectionLookupSnapshot;
+    private long selectionLookupId;
+    private int selectionLookupIndex;
     private double cameraY;
     private double zoom = 1.0;
     // ── Camera – position & zoom ──────────────────────────────────────────
@@ -143,6 +163,24 @@ public class SimulationCanvas extends JPanel {
     // Construction
     // ─────────────────────────────────────────────────────────────────────
 
+    /**
+     * Returns the colour cache entry of packed {@code rgb}, filling it on a miss with
+     * the colour and its brightened variant (see {@link Microbe#getBrightColor()}).
+     */
+    private int colorCacheIndex(int rgb) {
+        int index = (rgb * 0x9E3779B1) >>> (32 - Integer.numberOfTrailingZeros(COLOR_CACHE_SIZE));
+        if (colorCache[index] == null || colorCacheKeys[index] != rgb) {
+            Color color = new Color(rgb);
+            colorCacheKeys[index] = rgb;
+            colorCache[index] = color;
+            brightColorCache[index] = new Color(
+                    Math.min(255, color.getRed() + 40),
+                    Math.min(255, color.getGreen() + 40),
+                    Math.min(255, color.getBlue() + 40));
+        }
+        return index;
+    }
+
     private static AlphaComposite[][] buildGlowTable() {
         AlphaComposite[][] table = new AlphaComposite[11][3];
         for (int h = 0; h <= 10; h++) {
@@ -261,6 +299,14 @@ public class SimulationCanvas extends JPanel {
         followTarget = microbe;
     }
 
+    /**
+     * Sets the microbe whose selection ring is drawn, or {@code null} for none.
+     * The ring is only drawn while {@link Microbe#isSelected()} is also set.
+     */
+    public void setSelectedMicrobe(Microbe microbe) {
+        selectedMicrobe = microbe;
+    }
+
     /**
      * Releases follow mode. The camera stays at its current position and the
      * user can pan freely.
@@ -317,7 +363,7 @@ public class SimulationCanvas extends JPanel {
     private Microbe findMicrobeAtScreenPos(int screenX, int screenY) {
         double worldX = (screenX - getWidth() / 2.0) / zoom + cameraX;
         double worldY = (screenY - getHeight() / 2.0) / zoom + cameraY;
-        for (Microbe m : engine.getMicrobes()) {
+        for (Microbe m : engine.getRenderSnapshot().microbes()) {
             if (m.contains(worldX, worldY)) return m;
         }
         return null;
@@ -355,8 +401,7 @@ public class SimulationCanvas extends JPanel {
         try {
             // ── Read the snapshot ONCE per frame (lock-free, allocation-free) ──
             SimulationEngine.RenderSnapshot snapshot = engine.getRenderSnapshot();
-            List<Microbe> snapshotMicrobes = snapshot.microbes();
-            List<FoodPellet> snapshotFood = snapshot.food();
+            FoodStore.View snapshotFood = snapshot.food();
 
             // AA ON for grid lines only – turned OFF before entity rendering
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -394,65 +439,70 @@ public class SimulationCanvas extends JPanel {
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
 
             // ── Food pellets ──────────────────────────────────────────────
-            for (FoodPellet food : snapshotFood) {
-                if (food == null || food.isConsumed()) continue;
-                double fx = food.getX(), fy = food.getY();
+            final double[] foodXs = snapshotFood.x();
+            final double[] foodYs = snapshotFood.y();
+            final int foodSize = FoodPellet.SIZE;
+            for (int slot = 0, slots = snapshotFood.slotCount(); slot < slots; slot++) {
+                if (snapshotFood.isConsumed(slot)) continue;
+                double fx = foodXs[slot], fy = foodYs[slot];
                 if (fx < visibleX1 - 20 || fx > visibleX2 + 20
                         || fy < visibleY1 - 20 || fy > visibleY2 + 20) continue;
 
                 for (int i = 3; i > 0; i--) {
                     g2d.setColor(FOOD_GLOW_COLORS[3 - i]);
-                    int gs = food.getSize() + (i * 3);
+                    int gs = foodSize + (i * 3);
                     g2d.fillOval((int) fx - gs / 2, (int) fy - gs / 2, gs, gs);
                 }
-                int x = (int) fx - food.getSize() / 2;
-                int y = (int) fy - food.getSize() / 2;
+                int x = (int) fx - foodSize / 2;
+                int y = (int) fy - foodSize / 2;
                 g2d.setColor(FOOD_OUTER_COLOR);
-                g2d.fillOval(x, y, food.getSize(), food.getSize());
-                g2d.setColor(food.getColor());
-                g2d.fillOval(x + 1, y + 1, food.getSize() - 2, food.getSize() - 2);
+                g2d.fillOval(x, y, foodSize, foodSize);
+                g2d.setColor(FoodPellet.FOOD_COLOR);
+                g2d.fillOval(x + 1, y + 1, foodSize - 2, foodSize - 2);
                 g2d.setColor(FOOD_CENTER_COLOR);
-                g2d.fillOval(x + 2, y + 2, food.getSize() - 4, food.getSize() - 4);
+                g2d.fillOval(x + 2, y + 2, foodSize - 4, foodSize - 4);
             }
 
             // ── Microbes ──────────────────────────────────────────────────
-            long nowMs = System.currentTimeMillis();
             final Composite defaultComposite = g2d.getComposite();
             final boolean debugOn = SimulationEngine.DEBUG_MODE;
 
-            for (Microbe microbe : snapshotMicrobes) {
-                if (microbe == null) continue;
-                double mx = microbe.getX(), my = microbe.getY();
+            final RenderBuffer render = snapshot.render();
+            final int microbeSize = Microbe.SIZE;
+            for (int i = 0, count = render.size(); i < count; i++) {
+                float mx = render.getX(i), my = render.getY(i);
                 if (mx < visibleX1 - 20 || mx > visibleX2 + 20
                         || my < visibleY1 - 20 || my > visibleY2 + 20) continue;
 
-                Color microbeColor = microbe.getColor();
+                int colorIndex = colorCacheIndex(render.getRgb(i));
+                Color microbeColor = colorCache[colorIndex];
+                boolean carnivore = render.isCarnivore(i);
                 // Carnivores are drawn slightly larger so they stand out visually
-                int size = microbe.getSize() + (microbe.isCarnivore() ? CARNIVORE_SIZE_BONUS : 0);
+                int size = microbeSize + (carnivore ? CARNIVORE_SIZE_BONUS : 0);
                 int x = (int) mx - size / 2;
                 int y = (int) my - size / 2;
 
                 // Health-scaled multi-layer glow (cached AlphaComposite lookup)
-                int healthBucket = Math.max(0, Math.min(10, (int) (microbe.getHealthRatio() * 10)));
-                for (int i = 0; i < 3; i++) {
-                    int layer = 3 - i;  // 3, 2, 1
-                    g2d.setComposite(GLOW_COMPOSITES[healthBucket][i]);
+                int healthBucket = render.getHealthBucket(i);
+                for (int layerIndex = 0; layerIndex < 3; layerIndex++) {
+                    int layer = 3 - layerIndex;  // 3, 2, 1
+                    g2d.setComposite(GLOW_COMPOSITES[healthBucket][layerIndex]);
                     g2d.setColor(microbeColor);
                     int gs = size + (layer * 4);
                     g2d.fillOval(x - layer * 2, y - layer * 2, gs, gs);
                 }
                 g2d.setComposite(AC_BRIGHT_FILL);
-                g2d.setColor(microbe.getBrightColor());
+                g2d.setColor(brightColorCache[colorIndex]);
                 g2d.fillOval(x, y, size, size);
                 g2d.setComposite(defaultComposite);
                 g2d.setColor(microbeColor);
                 g2d.fillOval(x + 1, y + 1, size - 2, size - 2);
 
                 // ── Attack-flash ring (carnivore recently bit something) ───
-                long msSinceAttack = nowMs - microbe.getLastAttackTime();
-                if (microbe.isCarnivore() && msSinceAttack < ATTACK_FLASH_DURATION_MS) {
+                int ticksSinceAttack = render.getTicksSinceAttack(i);
+                if (carnivore && ticksSinceAttack < ATTACK_FLASH_TICKS) {
                     // Fade alpha linearly from full → 0 over the flash duration
-                    float flashAlpha = Math.max(0.0f, Math.min(1.0f, 1.0f - (float) msSinceAttack / ATTACK_FLASH_DURATION_MS));
+                    float flashAlpha = Math.max(0.0f, Math.min(1.0f, 1.0f - (float) ticksSinceAttack / ATTACK_FLASH_TICKS));
                     int ringPad = 5;
                     int ringX = x - ringPad;
                     int ringY = y - ringPad;
@@ -475,36 +525,28 @@ public class SimulationCanvas extends JPanel {
                     g2d.setStroke(STROKE_1);
                 }
 
-                if (microbe.isSelected()) {
-                    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                    g2d.setColor(SELECTION_GLOW_COLOR);
-                    g2d.setStroke(STROKE_3);
-                    g2d.drawOval(x - 5, y - 5, size + 10, size + 10);
-                    g2d.setColor(SELECTION_SOLID_COLOR);
-                    g2d.setStroke(STROKE_2);
-                    g2d.drawOval(x - 4, y - 4, size + 8, size + 8);
-                    g2d.setStroke(STROKE_1);
-                    g2d.drawOval(x - 3, y - 3, size + 6, size + 6);
-                    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-                }
-
                 // ── Developer Vision (Debug) overlay ──────────────────────
                 if (debugOn) {
                     g2d.setStroke(STROKE_DEBUG_LINE);
 
                     // Vision / aggro radius circle
-                    int visionR = SimulationEngine.getSpatialCellSize();
+                    int visionR = (int) SimulationEngine.getSenseRadius();
                     g2d.setComposite(AC_DEBUG_VISION);
                     g2d.setColor(DEBUG_VISION_COLOR);
                     g2d.drawOval((int) mx - visionR, (int) my - visionR, visionR * 2, visionR * 2);
 
                     // AI intent line to target
-                    String aiState = microbe.getAiState();
-                    double tx = microbe.getTargetX();
-                    double ty = microbe.getTargetY();
-                    if (tx >= 0 && ("HUNT".equals(aiState) || "FLEE".equals(aiState))) {
+                    float tx = render.getTargetX(i);
+                    float ty = render.getTargetY(i);
+                    Color lineColor = switch (render.getAiState(i)) {
+                        case MicrobeStore.AI_HUNT -> DEBUG_HUNT_LINE_COLOR;
+                        case MicrobeStore.AI_FLEE -> DEBUG_FLEE_LINE_COLOR;
+                        case MicrobeStore.AI_FORAGE -> DEBUG_FORAGE_LINE_COLOR;
+                        default -> null;
+                    };
+                    if (tx >= 0 && lineColor != null) {
                         g2d.setComposite(AC_DEBUG_LINE);
-                        g2d.setColor("HUNT".equals(aiState) ? DEBUG_HUNT_LINE_COLOR : DEBUG_FLEE_LINE_COLOR);
+                        g2d.setColor(lineColor);
                         g2d.drawLine((int) mx, (int) my, (int) tx, (int) ty);
                     }
 
@@ -512,13 +554,33 @@ public class SimulationCanvas extends JPanel {
                     g2d.setComposite(AC_DEBUG_ID);
                     g2d.setColor(DEBUG_ID_COLOR);
                     g2d.setFont(DEBUG_ID_FONT);
-                    g2d.drawString(String.valueOf(microbe.getId()), (int) mx + size / 2 + 2, (int) my - size / 2 - 2);
+                    g2d.drawString(String.valueOf(render.getId(i)), (int) mx + size / 2 + 2, (int) my - size / 2 - 2);
 
                     g2d.setComposite(defaultComposite);
                     g2d.setStroke(STROKE_1);
                 }
             }
 
+            // ── Selection ring (from the same snapshot as the body beneath it) ──
+            Microbe selected = selectedMicrobe;
+            int selectedIndex = selected != null && selected.isSelected()
+                    ? selectedIndex(snapshot, selected.getId()) : -1;
+            if (selectedIndex >= 0) {
+                int size = microbeSize + (render.isCarnivore(selectedIndex) ? CARNIVORE_SIZE_BONUS : 0);
+                int x = (int) render.getX(selectedIndex) - size / 2;
+                int y = (int) render.getY(selectedIndex) - size / 2;
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2d.setColor(SELECTION_GLOW_COLOR);
+                g2d.setStroke(STROKE_3);
+                g2d.drawOval(x - 5, y - 5, size + 10, size + 10);
+                g2d.setColor(SELECTION_SOLID_COLOR);
+                g2d.setStroke(STROKE_2);
+                g2d.drawOval(x - 4, y - 4, size + 8, size + 8);
+                g2d.setStroke(STROKE_1);
+                g2d.drawOval(x - 3, y - 3, size + 6, size + 6);
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            }
+
             // ── Restore screen-space transform ────────────────────────────
             g2d.setTransform(originalTransform);
 
@@ -528,6 +590,23 @@ public class SimulationCanvas extends JPanel {
         }
     }
 
+    /**
+     * Returns the render-buffer index of the selected microbe {@code id} in
+     * {@code snapshot}, or -1: the index recorded when the snapshot was filled, or, if
+     * the selection changed since, a lookup done once per snapshot.
+     */
+    private int selectedIndex(SimulationEngine.RenderSnapshot snapshot, long id) {
+        RenderBuffer render = snapshot.render();
+        int index = render.getSelectedIndex();
+        if (index >= 0 && render.getId(index) == id) return index;
+        if (snapshot != selectionLookupSnapshot || id != selectionLookupId) {
+            selectionLookupSnapshot = snapshot;
+            selectionLookupId = id;
+            selectionLookupIndex = render.indexOf(id);
+        }
+        return selectionLookupIndex;
+    }
+
     // ─────────────────────────────────────────────────────────────────────
     // Inner interface
     // ─────────────────────────────────────────────────────────────────────
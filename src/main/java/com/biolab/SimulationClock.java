@@ -0,0 +1,58 @@
+package com.biolab;
+
+/**
+ * Simulated time of one {@link SimulationEngine}, counted in ticks.
+ *
+ * <p>Timed mechanics (attack cooldown, adrenaline) are measured on this clock
+ * instead of the wall clock, so a duration always spans the same number of ticks:
+ * the speed multiplier, frame drops and host load change how fast the simulation
+ * runs, not what it computes. Durations are still specified in milliseconds at the
+ * nominal rate of {@value #TICKS_PER_SECOND} ticks per second (1× speed) and
+ * converted once with {@link #ticksFor(long)}.</p>
+ *
+ * <h3>Threading</h3>
+ * <p>The clock is advanced only by the SimulationLoop thread, under the engine's
+ * data lock and before the tick's parallel phases start; workers and snapshot
+ * publication therefore read it as a plain field.</p>
+ */
+public final class SimulationClock {
+
+    /** Ticks per simulated second at 1× speed (matches the loop's base rate). */
+    public static final int TICKS_PER_SECOND = 30;
+
+    /**
+     * Timestamp of an event that never happened: far enough in the past that every
+     * duration has elapsed, yet safe to subtract from any tick without overflow.
+     */
+    public static final long NEVER = Long.MIN_VALUE / 2;
+
+    private long tick;
+
+    /**
+     * Returns the current tick; {@code 0} before the first update.
+     */
+    public long now() {
+        return tick;
+    }
+
+    /**
+     * Advances the clock by one tick and returns the new tick.
+     */
+    long advance() {
+        return ++tick;
+    }
+
+    /**
+     * Converts a duration at 1× speed to a number of ticks, rounding to the nearest
+     * tick; any positive duration lasts at least one tick.
+     *
+     * @throws IllegalArgumentException if {@code millis} is negative
+     */
+    public static long ticksFor(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Duration must be >= 0, was: " + millis);
+        }
+        if (millis == 0) return 0;
+        return Math.max(1, Math.round(millis * TICKS_PER_SECOND / 1000.0));
+    }
+}
@@ -1,9 +1,15 @@
 package com.biolab;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,41 +27,162 @@ public class SimulationEngine {
      */
     public static volatile boolean DEBUG_MODE = false;
 
-    private final List<Microbe> microbes;
-    private final List<Microbe> newMicrobes;
-    private final List<FoodPellet> foodPellets;
+    private final MicrobeStore store;
+    /** Newborns of the current tick, one list per {@link TickExecutor} worker. */
+    private final List<List<Microbe>> newbornsByWorker;
+    /** Microbe IDs for the newborns, one block per {@link TickExecutor} worker. */
+    private final Microbe.IdBlock[] idBlocks;
+    private final FoodStore foodStore;
     private final Environment environment;
     private final int width;
     private final int height;
     private static final int THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors());
 
-    private final AtomicInteger availableReproductionSlots;
-    private final ExecutorService executorService;
+    private final TickExecutor tickExecutor;
+    /** Per-worker reproduction scratch: eligible parents counted, then births granted. */
+    private final int[] eligibleParents;
+    private final int[] birthQuota;
+    /** Master seed from which every random stream of this engine is derived. */
+    private final long seed;
+    /** Engine-level random stream (spawning food); used on the SimulationLoop thread only. */
+    private final SplittableRandom random;
     private static final int INITIAL_FOOD_COUNT = 200;
     private static final int MAX_FOOD_PELLETS = 1000;
     private static final int MAX_POPULATION = 20000;
-    private static final int MAX_REPRODUCTION_ATTEMPTS = 5;
-    private static final int MIN_RETRIES_BEFORE_BACKOFF = 2;
+    private final int maxPopulation;
     private static final int SHUTDOWN_TIMEOUT_SECONDS = 2;
-    private static final int SHUTDOWN_NOW_TIMEOUT_SECONDS = 1;
     private static final int SPATIAL_CELL_SIZE = 30;
+
+    // Tuning constants for combat & steering
+    // Damage per hit: a carnivore needs ~8-12 bites to kill a healthy herbivore
+    private static final double COMBAT_DAMAGE = 9.0;
+    // Distance at which microbes notice prey and threats: the reach of the former 3×3-cell
+    // scan, which was 30 to 60 units depending on a microbe's position in its cell. Kept
+    // for the model's sake although one cell (30) makes sparse-world ticks ~15% faster.
+    private static final double SENSE_RADIUS = 1.5 * SPATIAL_CELL_SIZE;
+    // How strongly a carnivore steers toward prey (fraction of speed gene per frame)
+    private static final double HUNT_STEER_STRENGTH = 0.12;
+    // How strongly a herbivore steers away from a predator
+    private static final double FLEE_STEER_STRENGTH = 0.18;
+    // How strongly a herbivore with no threat in sight steers toward the nearest food
+    private static final double FORAGE_STEER_STRENGTH = 0.08;
+    // Maximum speed component added by steering (prevents runaway acceleration)
+    private static final double MAX_STEER_DELTA = 1.2;
+    // Minimum time between two attacks by the same carnivore (300 ms at 1× speed)
+    private static final long ATTACK_COOLDOWN_TICKS = SimulationClock.ticksFor(300);
     private final Object dataLock = new Object();
     private final SpatialGrid spatialGrid;
-    private final MicrobeGrid microbeGrid;
+    /** Microbe spatial index, one per diet, of the kind {@link #gridsKind}; SimulationLoop thread under dataLock. */
+    private DietGrids grids;
+    private SpatialIndex gridsKind = SpatialIndex.GRID;
+    private volatile SpatialIndex spatialIndex = SpatialIndex.GRID;
+    private volatile boolean incrementalGrid = true;
+    private volatile boolean parallelCompaction = true;
+    /** Ticks between two Morton reorders of the population; 0 disables reordering. */
+    private volatile int reorderInterval;
+    private final MortonOrder mortonOrder = new MortonOrder();
+    /** {@code true} while {@link #grids} match the store; SimulationLoop thread under dataLock. */
+    private boolean gridCurrent;
     private volatile double foodSpawnRate = 0.3;
 
+    /**
+     * How the per-slot phases (movement and intents) distribute microbes over worker threads.
+     */
+    public enum Scheduling {
+        /** Equal slot-index ranges, one per {@link TickExecutor} worker. */
+        STATIC_PARTITIONS,
+        /**
+         * Grid-order ranges on a {@link ForkJoinPool}: the population is split along
+         * the order of the {@link MicrobeIndex} into spatially compact ranges, dense
+         * ranges are subdivided recursively, and idle workers steal pending ranges.
+         */
+        WORK_STEALING,
+        /**
+         * Each {@link TickExecutor} worker owns a fixed, contiguous band of the
+         * {@link MicrobeIndex} order – of grid tiles – so neighbour queries mostly stay
+         * within the worker's own band of memory.
+         */
+        TILE_OWNERSHIP
+    }
+
+    /**
+     * Kind of spatial index the microbes are found through. Every kind answers the
+     * neighbour queries alike, so the simulation outcome does not depend on it.
+     */
+    public enum SpatialIndex {
+        /**
+         * A uniform {@link MicrobeGrid} of {@code SPATIAL_CELL_SIZE} cells, maintained
+         * incrementally unless {@link #setIncrementalGrid disabled}.
+         */
+        GRID,
+        /**
+         * An adaptive {@link MicrobeQuadtree} whose nodes subdivide in dense hotspots,
+         * rebuilt every tick.
+         */
+        QUADTREE
+    }
+
+    /** Smallest grid-order range the work-stealing scheduler still splits. */
+    private static final int MIN_STEAL_GRANULARITY = 64;
+    /** Target number of leaf ranges per worker for the work-stealing scheduler. */
+    private static final int LEAVES_PER_WORKER = 16;
+
+    private volatile Scheduling scheduling = Scheduling.WORK_STEALING;
+    /**
+     * Pool for {@link Scheduling#WORK_STEALING}: either the shared scheduler passed at
+     * construction or a private pool created on first use; guarded by {@code dataLock}.
+     */
+    private ForkJoinPool stealingPool;
+    /** {@code false} if {@link #stealingPool} is a shared scheduler this engine must not shut down. */
+    private final boolean ownsStealingPool;
+    private final IntentResolver intentResolver;
+    /** Per-thread neighbour-query buffer, reused for every microbe the thread processes. */
+    private final ThreadLocal<MicrobeGrid.Neighbours> neighbourBuffer =
+            ThreadLocal.withInitial(MicrobeGrid.Neighbours::new);
+    /** Simulated time; cooldowns and adrenaline are measured in its ticks. */
+    private final SimulationClock clock = new SimulationClock();
+    /** Neighbours visited by the behaviour queries of the current tick; added to by all workers. */
+    private final LongAdder neighbourVisits = new LongAdder();
+
+    // Tick profile (see TickProfile); SimulationLoop thread under dataLock
+    private long profiledTicks;
+    private long profiledTickNanos;
+    private long profiledParallelNanos;
+    private long profiledCompactionNanos;
+    private long profiledNeighbourVisits;
+    /** Wall time of the work-stealing passes of the current tick. */
+    private long stealingNanos;
+
     // ── Lock-free render snapshot ─────────────────────────────────────────
 
     /**
-     * Latest snapshot, published atomically (volatile pointer swap) at the end of
-     * every {@code update()} call.  Readers (EDT, DataExporter) access it without
-     * synchronisation.  The lists inside are unmodifiable defensive copies created
-     * under {@code dataLock}.
+     * Latest snapshot, published atomically (volatile pointer swap) at the end of an
+     * {@code update()} call that follows a {@link #getRenderSnapshot()} request, so it
+     * is taken at most once per rendered frame however fast the simulation runs.
+     * Readers (EDT) access it without synchronisation. The microbe list and the packed
+     * render state are filled under {@code dataLock} into one of {@link #snapshotBuffers}
+     * and {@link #renderBuffers}; the food is a copy-free {@link FoodStore.View}.
+     * {@code null} until the first request: headless runs never publish one.
      */
-    private volatile RenderSnapshot renderSnapshot = new RenderSnapshot(List.of(), List.of());
+    private volatile RenderSnapshot renderSnapshot;
+    /** Set by {@link #getRenderSnapshot()}; the next tick publishes a snapshot and clears it. */
+    private volatile boolean snapshotRequested;
+    /**
+     * Recycled microbe lists of the render snapshots, used in turn: the published one,
+     * the previous one (a renderer may still be drawing it) and the one filled next.
+     * Written under {@code dataLock}.
+     */
+    private final SnapshotBuffer[] snapshotBuffers = {
+            new SnapshotBuffer(), new SnapshotBuffer(), new SnapshotBuffer()};
+    /** Packed render state of the snapshots, recycled together with {@link #snapshotBuffers}. */
+    private final RenderBuffer[] renderBuffers = {new RenderBuffer(), new RenderBuffer(), new RenderBuffer()};
+    private int nextSnapshotBuffer;
+    /** Population after the last tick or spawn; written under {@code dataLock}. */
+    private volatile int populationCount;
 
     /**
-     * Creates and initialises the simulation engine.
+     * Creates and initialises the simulation engine with the default population cap
+     * of {@value #MAX_POPULATION}.
      *
      * @param width             width of the world in world units
      * @param height            height of the world in world units
@@ -63,162 +190,339 @@ public class SimulationEngine {
      * @throws IllegalArgumentException if dimensions are non-positive or population is negative
      */
     public SimulationEngine(int width, int height, int initialPopulation) {
+        this(width, height, initialPopulation, MAX_POPULATION);
+    }
+
+    /**
+     * Creates and initialises the simulation engine.
+     *
+     * @param width             width of the world in world units
+     * @param height            height of the world in world units
+     * @param initialPopulation number of microbes to seed at startup (must be &gt;= 0)
+     * @param maxPopulation     upper bound on the population reached through reproduction (must be &gt; 0)
+     * @throws IllegalArgumentException if dimensions or the cap are non-positive, or population is negative
+     */
+    public SimulationEngine(int width, int height, int initialPopulation, int maxPopulation) {
+        this(width, height, initialPopulation, maxPopulation, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates and initialises a seeded simulation engine.
+     *
+     * <p>All randomness of the simulation – the initial population, food spawning, and
+     * each microbe's movement, offspring placement and mutations – is drawn from
+     * {@link SplittableRandom} streams derived from {@code seed}: one for the engine and
+     * one per microbe. Given the same seed and the same inputs, a run is therefore
+     * identical for any number of worker threads and any {@link Scheduling}.</p>
+     *
+     * @param width             width of the world in world units
+     * @param height            height of the world in world units
+     * @param initialPopulation number of microbes to seed at startup (must be &gt;= 0)
+     * @param maxPopulation     upper bound on the population reached through reproduction (must be &gt; 0)
+     * @param seed              master seed of the run
+     * @throws IllegalArgumentException if dimensions or the cap are non-positive, or population is negative
+     */
+    public SimulationEngine(int width, int height, int initialPopulation, int maxPopulation, long seed) {
+        this(width, height, initialPopulation, maxPopulation, seed, null);
+    }
+
+    /**
+     * Creates a seeded simulation engine that runs on a shared scheduler instead of
+     * threads of its own, so that many engines can share one bounded pool.
+     *
+     * <p>The engine starts no worker threads: its barrier-separated phases run on the
+     * thread calling {@link #update()}, and in {@link Scheduling#WORK_STEALING} mode its
+     * grid ranges are forked into {@code scheduler}, where idle workers – for instance
+     * those not busy with another engine – steal them. Call {@link #update()} from a task
+     * running in {@code scheduler} for the best use of the pool. {@link #shutdown()}
+     * leaves the scheduler running.</p>
+     *
+     * @param width             width of the world in world units
+     * @param height            height of the world in world units
+     * @param initialPopulation number of microbes to seed at startup (must be &gt;= 0)
+     * @param maxPopulation     upper bound on the population reached through reproduction (must be &gt; 0)
+     * @param seed              master seed of the run
+     * @param scheduler         shared pool to run on, or {@code null} for engine-owned threads
+     * @throws IllegalArgumentException if dimensions or the cap are non-positive, or population is negative
+     */
+    public SimulationEngine(int width, int height, int initialPopulation, int maxPopulation, long seed,
+                            ForkJoinPool scheduler) {
         if (initialPopulation < 0) {
             throw new IllegalArgumentException("initialPopulation must be >= 0, was: " + initialPopulation);
         }
         if (width <= 0 || height <= 0) {
             throw new IllegalArgumentException("World dimensions must be positive, was: " + width + "x" + height);
         }
+        if (maxPopulation <= 0) {
+            throw new IllegalArgumentException("maxPopulation must be > 0, was: " + maxPopulation);
+        }
 
         this.width = width;
         this.height = height;
-        this.microbes = new ArrayList<>();
-        this.newMicrobes = new ArrayList<>();
-        this.foodPellets = new ArrayList<>();
+        this.maxPopulation = maxPopulation;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.store = new MicrobeStore(Math.max(initialPopulation, 1024), random.nextLong());
+        this.foodStore = new FoodStore(MAX_FOOD_PELLETS);
         this.environment = new Environment();
-        this.availableReproductionSlots = new AtomicInteger(MAX_POPULATION);
 
-        this.executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        int workers = scheduler == null ? THREAD_COUNT : 1;
+        this.tickExecutor = new TickExecutor(workers, "SimWorker");
+        this.stealingPool = scheduler;
+        this.ownsStealingPool = scheduler == null;
+        this.eligibleParents = new int[workers];
+        this.birthQuota = new int[workers];
+        this.newbornsByWorker = new ArrayList<>(workers);
+        this.idBlocks = new Microbe.IdBlock[workers];
+        for (int w = 0; w < workers; w++) {
+            newbornsByWorker.add(new ArrayList<>());
+            idBlocks[w] = new Microbe.IdBlock();
+        }
+        this.intentResolver = new IntentResolver();
         this.spatialGrid = new SpatialGrid(width, height, SPATIAL_CELL_SIZE);
-        this.microbeGrid = new MicrobeGrid(width, height, SPATIAL_CELL_SIZE);
-        LOGGER.info("SimulationEngine initialized with " + THREAD_COUNT + " threads");
+        this.grids = newGrids(SpatialIndex.GRID);
+        LOGGER.info(scheduler == null
+                ? "SimulationEngine initialized with " + THREAD_COUNT + " threads"
+                : "SimulationEngine initialized on a shared scheduler of parallelism " + scheduler.getParallelism());
 
-        ThreadLocalRandom random = ThreadLocalRandom.current();
         for (int i = 0; i < initialPopulation; i++) {
             double x = random.nextDouble() * width;
             double y = random.nextDouble() * height;
-            microbes.add(new Microbe(x, y));
+            store.add(new Microbe(x, y, random));
         }
 
         for (int i = 0; i < INITIAL_FOOD_COUNT; i++) {
-            foodPellets.add(FoodPellet.createRandom(width, height));
+            spawnFood();
         }
 
-        // Publish initial snapshot so the EDT can render before the first update()
-        renderSnapshot = new RenderSnapshot(List.copyOf(microbes), List.copyOf(foodPellets));
+        populationCount = store.size();
     }
 
     /**
      * Main simulation update called every frame.
-     * Uses thread pool to process microbes concurrently.
+     * Runs the tick as barrier-separated phases – behave, resolve, reproduce.
+     * In the parallel phases every slot is owned by exactly one worker and no thread
+     * writes another microbe: neighbours are sensed in the previous frame's position
+     * buffers while movement goes to the next-frame buffers, and combat and feeding are
+     * recorded as intents and resolved in slot order, so the outcome is independent of
+     * the worker count and scheduler.
      * This method is always called from the SimulationLoop thread (single writer).
      */
     public void update() {
-        if (executorService.isShutdown()) return;
+        if (tickExecutor.isShutdown()) return;
 
         // Get current environmental conditions (thread-safe)
         final double temp = environment.getTemperature();
         final double tox = environment.getToxicity();
 
-        final List<Microbe> snapshot;
-        final List<FoodPellet> foodSnapshot;
-
-        // Lock only for reading/modifying the shared lists
+        // The store is only restructured under dataLock, so hold it for the whole
+        // tick: workers index into its arrays while the loop thread waits on them.
         synchronized (dataLock) {
-            // Calculate available slots for reproduction this frame
-            int currentPop = microbes.size();
-            int availableSlots = Math.max(0, MAX_POPULATION - currentPop);
-            availableReproductionSlots.set(availableSlots);
+            final long tickStart = System.nanoTime();
+            final long phaseNanosAtStart = tickExecutor.getPhaseNanos();
+            stealingNanos = 0;
+            final long now = clock.advance();
+            final int microbeCount = store.size();
 
             // Food spawning
-            ThreadLocalRandom random = ThreadLocalRandom.current();
-            if (random.nextDouble() < foodSpawnRate && foodPellets.size() < MAX_FOOD_PELLETS) {
-                foodPellets.add(FoodPellet.createRandom(width, height));
+            if (random.nextDouble() < foodSpawnRate && foodStore.size() < MAX_FOOD_PELLETS) {
+                spawnFood();
             }
 
-            // Create snapshots for safe chunk-based parallel processing
-            snapshot = new ArrayList<>(microbes);
-            foodSnapshot = new ArrayList<>(foodPellets);
-        }
-
-        final int microbeCount = snapshot.size();
-        if (microbeCount == 0) return;
-
-        // Rebuild spatial grid for O(1) food lookup
-        spatialGrid.rebuild(foodSnapshot);
-        // Rebuild microbe spatial index for O(1) neighbor lookup
-        microbeGrid.rebuild(snapshot);
-
-        int chunkSize = Math.max(1, microbeCount / THREAD_COUNT);
-        List<Future<?>> futures = new ArrayList<>();
-
-        for (int i = 0; i < microbeCount; i += chunkSize) {
-            final int start = i;
-            final int end = Math.min(i + chunkSize, microbeCount);
-            Future<?> future = executorService.submit(() -> processMicrobeChunk(snapshot, spatialGrid, microbeGrid, start, end, temp, tox));
-            futures.add(future);
-        }
+            if (microbeCount == 0) return;
 
-        // Wait for all worker threads to complete
-        for (Future<?> future : futures) {
+            // Spatial grid for O(1) food lookup, and microbe spatial index for O(1) neighbor
+            // lookup: rebuilt on all workers (the food grid by one of them, concurrently), or
+            // kept up to date incrementally by the crossings, deaths and births of the previous tick
+            if (gridsKind != spatialIndex) {
+                gridsKind = spatialIndex;
+                grids = newGrids(gridsKind);
+                gridCurrent = false;
+            }
+            final boolean incremental = incrementalGrid && grids.supportsIncrementalUpdates();
+            boolean failed = false;
             try {
-                future.get();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                LOGGER.log(Level.WARNING, "Simulation thread interrupted during processing", e);
-                return;
-            } catch (ExecutionException e) {
+                if (!incremental) {
+                    grids.rebuildCompact(store, tickExecutor, () -> spatialGrid.rebuild(foodStore));
+                } else {
+                    spatialGrid.rebuild(foodStore);
+                    if (!gridCurrent) grids.rebuild(store);
+                }
+                gridCurrent = incremental;
+
+                Scheduling mode = scheduling;
+                // Phase 1: move, sense the previous frame, steer, record bites and food claims, in one
+                // pass per diet. Workers read the current position buffers and write only their own
+                // next-frame slots.
+                final MicrobeIndex carnivores = grids.carnivores();
+                final MicrobeIndex herbivores = grids.herbivores();
+                runSlotPhase(mode,
+                        (slot, intents, neighbours) -> processCarnivore(slot, carnivores, herbivores,
+                                temp, tox, now, incremental, intents, neighbours),
+                        (slot, intents, neighbours) -> processHerbivore(slot, spatialGrid, herbivores, carnivores,
+                                temp, tox, now, incremental, intents, neighbours));
+                store.swapFrames();
+                // Phase 2: resolve combat, feeding and cell crossings (single-threaded, no locks)
+                intentResolver.resolve(store, grids, foodStore, COMBAT_DAMAGE, now);
+                // Phase 3: reproduction (parents see the resolved state of the whole frame)
+                reproduce(microbeCount);
+            } catch (CompletionException e) {
+                gridCurrent = false;
+                if (tickExecutor.isShutdown()) return;
                 LOGGER.log(Level.SEVERE, "Error during microbe chunk processing", e.getCause());
+                // Recorded intents and newborns refer to this tick's slot numbers: drop
+                // them, and keep the numbering (no compaction or reordering) this tick
+                failed = true;
+                intentResolver.discard();
+                for (List<Microbe> newborns : newbornsByWorker) {
+                    newborns.clear();
+                }
             }
-        }
-
-        // Lock for list modifications (remove dead, add newborns)
-        synchronized (dataLock) {
-            microbes.removeIf(Microbe::isDead);
-            foodPellets.removeIf(FoodPellet::isConsumed);
-
-            // Add newborns within population limit
-            int currentPopulation = microbes.size();
-            List<Microbe> newbornsCopy;
-            synchronized (newMicrobes) {
-                newbornsCopy = new ArrayList<>(newMicrobes);
-                newMicrobes.clear();
-            }
-            int newbornCount = newbornsCopy.size();
 
-            if (currentPopulation + newbornCount <= MAX_POPULATION) {
-                microbes.addAll(newbornsCopy);
+            // Refresh the views (including the ones about to be removed, so that
+            // holders such as the inspector observe the death), then compact and
+            // add newborns within population limit, in parent slot order. A failed
+            // tick only refreshes the views.
+            final long compactionStart = System.nanoTime();
+            if (failed) {
+                store.syncViews();
+            } else if (parallelCompaction) {
+                try {
+                    int appended = store.compact(tickExecutor, newbornsByWorker, maxPopulation,
+                            gridCurrent ? grids : null);
+                    if (gridCurrent) {
+                        for (int slot = store.size() - appended; slot < store.size(); slot++) {
+                            if (!store.isDead(slot)) grids.insert(store, slot);
+                        }
+                    }
+                } catch (CompletionException e) {
+                    if (tickExecutor.isShutdown()) return;
+                    throw e;
+                }
+                for (List<Microbe> newborns : newbornsByWorker) {
+                    newborns.clear();
+                }
             } else {
-                int allowedNewborns = Math.max(0, MAX_POPULATION - currentPopulation);
-                for (int i = 0; i < allowedNewborns && i < newbornCount; i++) {
-                    microbes.add(newbornsCopy.get(i));
+                store.syncViews();
+                store.removeDead(gridCurrent ? grids : null);
+                int allowedNewborns = Math.max(0, maxPopulation - store.size());
+                for (List<Microbe> newborns : newbornsByWorker) {
+                    for (int i = 0; i < newborns.size() && allowedNewborns > 0; i++, allowedNewborns--) {
+                        addToStore(newborns.get(i));
+                    }
+                    newborns.clear();
+                }
+            }
+            final long compactionNanos = System.nanoTime() - compactionStart;
+            foodStore.recycleConsumed();
+
+            // Periodically sort the population along a Z-curve over the grid cells, so that
+            // neighbours in the world are neighbours in the store's arrays
+            final int interval = reorderInterval;
+            if (!failed && interval > 0 && now % interval == 0 && store.size() > 1) {
+                int[] order = mortonOrder.sort(store, SPATIAL_CELL_SIZE);
+                try {
+                    store.permute(order, tickExecutor);
+                } catch (CompletionException e) {
+                    if (tickExecutor.isShutdown()) return;
+                    throw e;
                 }
+                gridCurrent = false; // Slot numbers changed: the grid is rebuilt next tick
             }
 
-            // Publish an immutable snapshot for lock-free EDT reading.
-            // Both lists are unmodifiable copies created while holding dataLock,
-            // guaranteeing happens-before visibility via the volatile write.
-            renderSnapshot = new RenderSnapshot(
-                    List.copyOf(microbes),
-                    List.copyOf(foodPellets));
+            // Publish a snapshot for lock-free EDT reading, but only if one was asked
+            // for since the last: at high speed most ticks are never drawn.
+            populationCount = store.size();
+            if (snapshotRequested) {
+                snapshotRequested = false;
+                publishSnapshot();
+            }
+
+            profiledTicks++;
+            profiledTickNanos += System.nanoTime() - tickStart;
+            // Only the worker phases and fork/join passes count as parallel
+            profiledParallelNanos += tickExecutor.getPhaseNanos() - phaseNanosAtStart + stealingNanos;
+            profiledCompactionNanos += compactionNanos;
+            profiledNeighbourVisits += neighbourVisits.sumThenReset();
         }
     }
 
     /**
-     * Returns the latest immutable render snapshot for lock-free reading.
-     * Contains unmodifiable lists of microbes and food pellets.
-     * The snapshot is published atomically (volatile) at the end of each {@code update()}.
+     * Adds a pellet at a random position drawn from the engine's stream. Caller holds
+     * {@code dataLock} (or is the constructor).
+     */
+    private void spawnFood() {
+        double x = random.nextDouble() * width;
+        double y = random.nextDouble() * height;
+        foodStore.add(x, y);
+    }
+
+    /**
+     * Adds {@code microbe} to the store and, while the grid is maintained
+     * incrementally, to the grid. Caller holds {@code dataLock}.
+     */
+    private void addToStore(Microbe microbe) {
+        int slot = store.add(microbe);
+        if (gridCurrent && !store.isDead(slot)) {
+            grids.insert(store, slot);
+        }
+    }
+
+    /**
+     * Fills the next snapshot buffer from the store and publishes a snapshot with it.
+     * Caller holds {@code dataLock}.
+     */
+    private void publishSnapshot() {
+        SnapshotBuffer buffer = snapshotBuffers[nextSnapshotBuffer];
+        RenderBuffer render = renderBuffers[nextSnapshotBuffer];
+        nextSnapshotBuffer = (nextSnapshotBuffer + 1) % snapshotBuffers.length;
+        buffer.fill(store);
+        render.fill(store, clock.now());
+        // The buffers were written under dataLock; the volatile write makes them visible
+        renderSnapshot = new RenderSnapshot(buffer, render, foodStore.view(), clock.now());
+    }
+
+    /**
+     * Returns the latest render snapshot for lock-free reading, and requests a fresh
+     * one from the next {@code update()}. Called once per rendered frame, this limits
+     * publication to the frame rate. The very first call publishes a snapshot itself,
+     * waiting for a running tick to finish.
      */
     public RenderSnapshot getRenderSnapshot() {
-        return renderSnapshot;
+        snapshotRequested = true;
+        RenderSnapshot snapshot = renderSnapshot;
+        if (snapshot == null) {
+            synchronized (dataLock) {
+                if (renderSnapshot == null) publishSnapshot();
+                snapshot = renderSnapshot;
+            }
+        }
+        return snapshot;
     }
 
     /**
-     * Returns the spatial cell size (world units).
-     * Used by the debug renderer as the approximate vision / aggro radius.
+     * Returns the cell size of the engine's spatial grids (world units).
      */
     public static int getSpatialCellSize() {
         return SPATIAL_CELL_SIZE;
     }
 
+    /**
+     * Returns the distance (world units) within which microbes notice prey and threats.
+     * Used by the debug renderer as the vision / aggro radius.
+     */
+    public static double getSenseRadius() {
+        return SENSE_RADIUS;
+    }
+
     /**
      * Returns a living child of the given microbe (one whose {@code parentId} matches),
      * or {@code null} if none exists. Used for auto-selection after a microbe dies.
      */
     public Microbe findLivingChild(long parentId) {
         synchronized (dataLock) {
-            for (Microbe m : microbes) {
-                if (!m.isDead() && m.getParentId() == parentId) return m;
+            for (int i = 0; i < store.size(); i++) {
+                if (!store.isDead(i) && store.getView(i).getParentId() == parentId) return store.getView(i);
             }
         }
         return null;
@@ -230,33 +534,36 @@ public class SimulationEngine {
      */
     public Microbe findRandomLivingMicrobe() {
         synchronized (dataLock) {
-            if (microbes.isEmpty()) return null;
-            int idx = ThreadLocalRandom.current().nextInt(microbes.size());
-            return microbes.get(idx);
+            if (store.size() == 0) return null;
+            int idx = ThreadLocalRandom.current().nextInt(store.size());
+            return store.getView(idx);
         }
     }
 
     /**
-     * Returns the microbe list from the latest render snapshot.
-     * Lock-free, allocation-free — safe to call from the EDT on every frame.
+     * Returns an unmodifiable copy of the current population, in slot order, for
+     * statistics and export. Waits for a running tick and copies the list; renderers
+     * use {@link #getRenderSnapshot()} instead.
      */
     public List<Microbe> getMicrobes() {
-        return renderSnapshot.microbes();
+        synchronized (dataLock) {
+            return store.copyViews();
+        }
     }
 
     /**
-     * Returns the food pellet list from the latest render snapshot.
+     * Returns a view of the current food pellets.
      * Lock-free, allocation-free — safe to call from the EDT on every frame.
      */
-    public List<FoodPellet> getFoodPellets() {
-        return renderSnapshot.food();
+    public FoodStore.View getFood() {
+        return foodStore.view();
     }
 
     /**
-     * Returns the current population count. Thread-safe.
+     * Returns the population after the last tick. Thread-safe, lock-free.
      */
     public int getPopulationCount() {
-        return renderSnapshot.microbes().size();
+        return populationCount;
     }
 
     /**
@@ -274,11 +581,35 @@ public class SimulationEngine {
      */
     public void spawnMicrobe(Microbe microbe) {
         synchronized (dataLock) {
-            microbes.add(microbe);
-            renderSnapshot = new RenderSnapshot(List.copyOf(microbes), List.copyOf(foodPellets));
+            addToStore(microbe);
+            publishAfterSpawn();
         }
     }
 
+    /**
+     * Directly adds several microbes at once, publishing a single snapshot.
+     * Intended for sandbox, scenario and benchmark seeding – bypasses population caps.
+     *
+     * @param microbes the microbes to inject
+     */
+    public void spawnMicrobes(Collection<Microbe> microbes) {
+        synchronized (dataLock) {
+            for (Microbe microbe : microbes) {
+                addToStore(microbe);
+            }
+            publishAfterSpawn();
+        }
+    }
+
+    /**
+     * Updates the population count and, if a renderer is attached, shows the spawned
+     * microbes right away (the simulation may be paused). Caller holds {@code dataLock}.
+     */
+    private void publishAfterSpawn() {
+        populationCount = store.size();
+        if (renderSnapshot != null) publishSnapshot();
+    }
+
     /**
      * Returns the current food spawn rate probability.
      */
@@ -298,221 +629,618 @@ public class SimulationEngine {
      * Returns true if the engine is still running (not yet shut down).
      */
     public boolean isRunning() {
-        return !executorService.isShutdown();
+        return !tickExecutor.isShutdown();
+    }
+
+    /**
+     * Returns the master seed of this run; passing it to
+     * {@link #SimulationEngine(int, int, int, int, long)} reproduces the run.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the simulated clock of this engine.
+     * It is advanced by {@link #update()}; other threads should read the tick
+     * from {@link RenderSnapshot#tick()} instead.
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the scheduler used for the behaviour phase.
+     */
+    public Scheduling getScheduling() {
+        return scheduling;
+    }
+
+    /**
+     * Selects the scheduler for the behaviour phase; takes effect from the next tick.
+     * May be called from any thread (volatile write).
+     */
+    public void setScheduling(Scheduling scheduling) {
+        this.scheduling = Objects.requireNonNull(scheduling, "scheduling");
+    }
+
+    /**
+     * Returns the kind of spatial index the microbes are found through.
+     */
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
     }
 
     /**
-     * Processes a chunk of microbes concurrently in a worker thread.
+     * Selects the kind of spatial index; takes effect from the next tick, when the new
+     * index is built from scratch. A {@link SpatialIndex#QUADTREE} is rebuilt every
+     * tick whatever {@link #setIncrementalGrid} says. Both kinds find the same
+     * neighbours, so the simulation outcome is unaffected.
+     * May be called from any thread (volatile write).
+     */
+    public void setSpatialIndex(SpatialIndex spatialIndex) {
+        this.spatialIndex = Objects.requireNonNull(spatialIndex, "spatialIndex");
+    }
+
+    /** Creates an empty index of the given kind for each diet. */
+    private DietGrids newGrids(SpatialIndex kind) {
+        return switch (kind) {
+            case GRID -> new DietGrids(width, height, SPATIAL_CELL_SIZE);
+            case QUADTREE -> new DietGrids(new MicrobeQuadtree(width, height, MicrobeGrid.Diet.CARNIVORES),
+                    new MicrobeQuadtree(width, height, MicrobeGrid.Diet.HERBIVORES));
+        };
+    }
+
+    /**
+     * Returns {@code true} if the microbe grid is maintained incrementally.
+     */
+    public boolean isIncrementalGrid() {
+        return incrementalGrid;
+    }
+
+    /**
+     * Selects how the microbe grid follows the population; takes effect from the next tick.
+     * Incrementally (the default), a microbe only changes cells when it crosses a cell
+     * boundary – detected by its worker during the behaviour phase – and births and
+     * deaths update the grid directly. Otherwise the grid is rebuilt from scratch every
+     * tick by a counting sort into its compact layout. Both produce the same grid order
+     * and neighbour lists, so the simulation outcome is unaffected.
+     * May be called from any thread (volatile write).
+     */
+    public void setIncrementalGrid(boolean incrementalGrid) {
+        this.incrementalGrid = incrementalGrid;
+    }
+
+    /**
+     * Returns {@code true} if dead microbes are removed and newborns merged on all workers.
+     */
+    public boolean isParallelCompaction() {
+        return parallelCompaction;
+    }
+
+    /**
+     * Selects how the population is compacted at the end of a tick; takes effect from
+     * the next tick. In parallel (the default), every worker counts the survivors of
+     * its share, a prefix sum gives their target slots, and the survivors and
+     * newborns are scattered into recycled spare arrays that then replace the store's
+     * columns (see {@link MicrobeStore#compact}). Otherwise the SimulationLoop thread
+     * shifts the survivors down and appends the newborns one by one. Both produce the
+     * same slot order, so the simulation outcome is unaffected.
+     * May be called from any thread (volatile write).
+     */
+    public void setParallelCompaction(boolean parallelCompaction) {
+        this.parallelCompaction = parallelCompaction;
+    }
+
+    /**
+     * Returns the number of ticks between two Morton reorders, or 0 if disabled.
+     */
+    public int getReorderInterval() {
+        return reorderInterval;
+    }
+
+    /**
+     * Reorders the population every {@code ticks} ticks along a Morton (Z-order) curve
+     * over the grid cells, or never if {@code ticks} is 0 (the default). The population
+     * otherwise stays in birth order, so microbes that are neighbours in the world are
+     * scattered over the store's arrays and neighbour scans miss the cache; sorted,
+     * every partition of slots covers a compact region and its neighbours lie in nearby
+     * memory. The keys are radix-sorted on the SimulationLoop thread and the columns
+     * permuted on all workers; an incrementally maintained grid is rebuilt the tick after.
      *
-     * <h3>Thread-safety notes</h3>
-     * <ul>
-     *   <li>Each microbe in [start,end) is <em>owned</em> by this thread for the
-     *       duration of the frame (chunk partitioning guarantees no two threads
-     *       write the same microbe's movement/age state).</li>
-     *   <li>Combat writes that cross chunk boundaries (damage, knockback, energy
-     *       transfer) are serialised via {@code stateLock} inside the Microbe
-     *       methods, so they are safe even when attacker and victim live in
-     *       different chunks.</li>
-     *   <li>{@code microbeGrid} and {@code foodGrid} are read-only during this
-     *       phase; they were fully built before any worker thread was submitted.</li>
-     * </ul>
+     * <p>Since combat, feeding and reproduction are resolved in slot order, a run with
+     * reordering differs from one without, but is as reproducible: the order depends
+     * only on the state, not on the workers or the scheduler.</p>
+     * May be called from any thread (volatile write).
+     *
+     * @throws IllegalArgumentException if {@code ticks} is negative
      */
-    private void processMicrobeChunk(List<Microbe> snapshot, SpatialGrid foodGrid,
-                                     MicrobeGrid microbeGrid,
-                                     int start, int end, double temperature, double toxicity) {
-        // Tuning constants for combat & steering
-        // Damage per hit: a carnivore needs ~8-12 bites to kill a healthy herbivore
-        final double COMBAT_DAMAGE = 9.0;
-        // How strongly a carnivore steers toward prey (fraction of speed gene per frame)
-        final double HUNT_STEER_STRENGTH = 0.12;
-        // How strongly a herbivore steers away from a predator
-        final double FLEE_STEER_STRENGTH = 0.18;
-        // Maximum speed component added by steering (prevents runaway acceleration)
-        final double MAX_STEER_DELTA = 1.2;
-        // Minimum time (ms) between two attacks by the same carnivore (attack cooldown)
-        final long ATTACK_COOLDOWN_MS = 300;
-
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+    public void setReorderInterval(int ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("ticks must be >= 0, was: " + ticks);
+        }
+        this.reorderInterval = ticks;
+    }
 
-        for (int i = start; i < end; i++) {
-            Microbe microbe = snapshot.get(i);
-            if (microbe.isDead()) continue;
-
-            // ── 1. Movement ───────────────────────────────────────────────
-            microbe.move(width, height);
-
-            // ── 2. Environmental damage (natural selection) ───────────────
-            microbe.updateHealth(temperature, toxicity);
-
-            // ── 3. Predator / Prey interaction ────────────────────────────
-            List<Microbe> neighbours = microbeGrid.getNearbyMicrobes(microbe.getX(), microbe.getY());
-            boolean isCarnivore = microbe.isCarnivore();
-            int size = microbe.getSize();
-
-            if (isCarnivore) {
-                // ── Carnivore: hunt the nearest Herbivore ──────────────────
-                Microbe prey = null;
-                double bestDistSq = Double.MAX_VALUE;
-
-                for (Microbe other : neighbours) {
-                    if (other == microbe || other.isDead() || other.isCarnivore()) continue;
-                    double dx = other.getX() - microbe.getX();
-                    double dy = other.getY() - microbe.getY();
-                    double dSq = dx * dx + dy * dy;
-                    if (dSq < bestDistSq) {
-                        bestDistSq = dSq;
-                        prey = other;
-                    }
-                }
+    /**
+     * Returns per-worker busy, barrier-wait and idle times accumulated since the engine
+     * was created or {@link #resetWorkerStats()} was last called. Intended for profiling
+     * where the tick time is lost; call from the SimulationLoop thread for exact values.
+     */
+    public List<TickExecutor.WorkerStats> getWorkerStats() {
+        return tickExecutor.getWorkerStats();
+    }
 
-                if (prey != null) {
-                    double dx = prey.getX() - microbe.getX();
-                    double dy = prey.getY() - microbe.getY();
-                    double dist = Math.sqrt(bestDistSq);
-
-                    // Update AI intent for debug rendering
-                    microbe.setAiState("HUNT");
-                    microbe.setTargetX(prey.getX());
-                    microbe.setTargetY(prey.getY());
-
-                    // Steering: nudge velocity toward prey (normalised, scaled)
-                    double steerX = (dx / dist) * microbe.getSpeed() * HUNT_STEER_STRENGTH;
-                    double steerY = (dy / dist) * microbe.getSpeed() * HUNT_STEER_STRENGTH;
-                    steerX = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerX));
-                    steerY = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerY));
-                    microbe.applyKnockback(steerX, steerY);   // reuses the velocity-delta method
-
-                    // Combat: bite if within range and cooldown has elapsed
-                    double attackRange = (size + prey.getSize()) * 1.5;
-                    long now = System.currentTimeMillis();
-                    if (dist < attackRange
-                            && !prey.isDead()
-                            && (now - microbe.getLastAttackTime()) >= ATTACK_COOLDOWN_MS) {
-
-                        double energyGain = prey.takeDamageAndTransferEnergy(COMBAT_DAMAGE);
-                        microbe.eat(energyGain);
-                        microbe.markAttack();
-
-                        if (DEBUG_MODE) {
-                            System.out.printf("[COMBAT] Carnivore ID:%d attacked Herbivore ID:%d%n",
-                                    microbe.getId(), prey.getId());
-                        }
+    /**
+     * Resets the counters reported by {@link #getWorkerStats()} and {@link #getTickProfile()}.
+     */
+    public void resetWorkerStats() {
+        tickExecutor.resetStats();
+        synchronized (dataLock) {
+            profiledTicks = 0;
+            profiledTickNanos = 0;
+            profiledParallelNanos = 0;
+            profiledCompactionNanos = 0;
+            profiledNeighbourVisits = 0;
+        }
+    }
 
-                        // Knockback: normalised direction × flat force (5.0 world-units/frame).
-                        // applyKnockback() further damps this by 0.15, giving a real delta of 0.75.
-                        double kbDist = Math.max(0.1, Math.sqrt(dx * dx + dy * dy));
-                        double kx = (dx / kbDist) * 5.0;
-                        double ky = (dy / kbDist) * 5.0;
-                        prey.applyKnockback(kx, ky);
-                    }
-                } else {
-                    microbe.setAiState("WANDER");
-                }
+    /**
+     * Split of the tick time into parallel phases and the serial remainder, accumulated
+     * over the ticks since the engine was created or {@link #resetWorkerStats()} was
+     * last called.
+     *
+     * @param ticks           number of profiled ticks
+     * @param tickNanos       wall time spent in {@link #update()} under the data lock
+     * @param parallelNanos   part of {@code tickNanos} spent in phases that run on all workers:
+     *                        {@link TickExecutor} phases and work-stealing passes
+     * @param compactionNanos part of {@code tickNanos} spent refreshing the views, removing
+     *                        the dead and merging the newborns; mostly parallel unless
+     *                        {@link #setParallelCompaction parallel compaction} is off or
+     *                        there is a single worker
+     * @param neighbourVisits number of microbes the hunting and fleeing queries visited
+     */
+    public record TickProfile(long ticks, long tickNanos, long parallelNanos, long compactionNanos,
+                              long neighbourVisits) {
 
-            } else {
-                // ── Herbivore: eat food + flee nearest Carnivore ───────────
-
-                // Food consumption (herbivores only)
-                for (FoodPellet food : foodGrid.getNearbyFood(microbe.getX(), microbe.getY())) {
-                    if (food.checkCollision(microbe)) {
-                        double energyGain = food.consume();
-                        if (energyGain > 0) microbe.eat(energyGain);
-                        break;
-                    }
-                }
+        /** Returns the wall time spent on the SimulationLoop thread alone. */
+        public long serialNanos() {
+            return tickNanos - parallelNanos;
+        }
 
-                // Find nearest carnivore threat
-                Microbe threat = null;
-                double bestDistSq = Double.MAX_VALUE;
-
-                for (Microbe other : neighbours) {
-                    if (other == microbe || other.isDead() || !other.isCarnivore()) continue;
-                    double dx = other.getX() - microbe.getX();
-                    double dy = other.getY() - microbe.getY();
-                    double dSq = dx * dx + dy * dy;
-                    if (dSq < bestDistSq) {
-                        bestDistSq = dSq;
-                        threat = other;
-                    }
-                }
+        /**
+         * Returns the serial fraction of the tick; by Amdahl's law the tick cannot run
+         * faster than {@code 1 / serialFraction()} times its single-thread speed.
+         */
+        public double serialFraction() {
+            return tickNanos == 0 ? 0.0 : (double) serialNanos() / tickNanos;
+        }
+    }
 
-                if (threat != null) {
-                    double dx = microbe.getX() - threat.getX(); // away vector
-                    double dy = microbe.getY() - threat.getY();
-                    double dist = Math.sqrt(bestDistSq);
-
-                    // Update AI intent for debug rendering
-                    microbe.setAiState("FLEE");
-                    microbe.setTargetX(threat.getX());
-                    microbe.setTargetY(threat.getY());
-
-                    // Steering: nudge velocity away from threat (normalised, scaled)
-                    double steerX = (dx / dist) * microbe.getSpeed() * FLEE_STEER_STRENGTH;
-                    double steerY = (dy / dist) * microbe.getSpeed() * FLEE_STEER_STRENGTH;
-                    steerX = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerX));
-                    steerY = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerY));
-                    microbe.applyKnockback(steerX, steerY);
-                } else {
-                    microbe.setAiState("WANDER");
+    /**
+     * Returns the tick profile. Call from the SimulationLoop thread for exact values.
+     */
+    public TickProfile getTickProfile() {
+        synchronized (dataLock) {
+            return new TickProfile(profiledTicks, profiledTickNanos, profiledParallelNanos,
+                    profiledCompactionNanos, profiledNeighbourVisits);
+        }
+    }
+
+    /**
+     * Work applied to one slot during a slot phase.
+     */
+    @FunctionalInterface
+    private interface SlotTask {
+        /**
+         * @param slot       the slot to process; owned by the calling thread for this phase
+         * @param intents    the calling worker's intent buffer
+         * @param neighbours the calling thread's reusable neighbour-query buffer
+         */
+        void run(int slot, IntentResolver.Buffer intents, MicrobeGrid.Neighbours neighbours);
+    }
+
+    /**
+     * Runs {@code carnivoreTask} once for every Carnivore slot and {@code herbivoreTask}
+     * once for every Herbivore slot, distributed over the workers by {@code mode}, and
+     * returns when all slots have been processed. Each worker runs the two diets as
+     * separate passes, so every loop calls a single task.
+     */
+    private void runSlotPhase(Scheduling mode, SlotTask carnivoreTask, SlotTask herbivoreTask) {
+        final MicrobeIndex carnivores = grids.carnivores();
+        final MicrobeIndex herbivores = grids.herbivores();
+        if (mode == Scheduling.WORK_STEALING) {
+            if (stealingPool == null) {
+                stealingPool = new ForkJoinPool(THREAD_COUNT);
+            }
+            // One root task per diet covers its whole grid order and is halved until ranges are at most leafSize slots
+            int leafSize = Math.max(MIN_STEAL_GRANULARITY,
+                    grids.getIndexedCount() / (stealingPool.getParallelism() * LEAVES_PER_WORKER));
+            intentResolver.prepare(stealingPool.getParallelism() + 1);
+            GridRangeTask carnivorePass =
+                    new GridRangeTask(carnivores, 0, carnivores.getIndexedCount(), leafSize, carnivoreTask);
+            GridRangeTask herbivorePass =
+                    new GridRangeTask(herbivores, 0, herbivores.getIndexedCount(), leafSize, herbivoreTask);
+            long start = System.nanoTime();
+            stealingPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(carnivorePass, herbivorePass)));
+            stealingNanos += System.nanoTime() - start;
+        } else if (mode == Scheduling.TILE_OWNERSHIP) {
+            // Worker w owns the w-th equal share of each diet's grid order – a contiguous band of tiles
+            final int carnivoreCount = carnivores.getIndexedCount();
+            final int herbivoreCount = herbivores.getIndexedCount();
+            intentResolver.prepare(tickExecutor.getWorkerCount());
+            tickExecutor.runPhase((worker, workers) -> {
+                IntentResolver.Buffer intents = intentResolver.buffer(worker);
+                MicrobeGrid.Neighbours neighbours = neighbourBuffer.get();
+                carnivores.forEachSlotInRange(
+                        partitionStart(carnivoreCount, worker, workers), partitionStart(carnivoreCount, worker + 1, workers),
+                        slot -> carnivoreTask.run(slot, intents, neighbours));
+                herbivores.forEachSlotInRange(
+                        partitionStart(herbivoreCount, worker, workers), partitionStart(herbivoreCount, worker + 1, workers),
+                        slot -> herbivoreTask.run(slot, intents, neighbours));
+            });
+        } else {
+            final int count = store.size();
+            intentResolver.prepare(tickExecutor.getWorkerCount());
+            tickExecutor.runPhase((worker, workers) -> {
+                IntentResolver.Buffer intents = intentResolver.buffer(worker);
+                MicrobeGrid.Neighbours neighbours = neighbourBuffer.get();
+                int start = partitionStart(count, worker, workers);
+                int end = partitionStart(count, worker + 1, workers);
+                for (int i = start; i < end; i++) {
+                    if (store.isCarnivore(i)) carnivoreTask.run(i, intents, neighbours);
                 }
+                for (int i = start; i < end; i++) {
+                    if (!store.isCarnivore(i)) herbivoreTask.run(i, intents, neighbours);
+                }
+            });
+        }
+    }
+
+    /**
+     * Fork/join task over a range of index-order positions of one {@link MicrobeIndex}.
+     * Every living slot appears exactly once in the grid order of its diet, so each slot
+     * is owned by exactly one leaf task for the phase.
+     */
+    private final class GridRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MicrobeIndex grid;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final SlotTask task;
+
+        GridRangeTask(MicrobeIndex grid, int from, int to, int leafSize, SlotTask task) {
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                IntentResolver.Buffer intents = intentResolver.buffer(stealingBufferIndex());
+                MicrobeGrid.Neighbours neighbours = neighbourBuffer.get();
+                grid.forEachSlotInRange(from, to, slot -> task.run(slot, intents, neighbours));
+                return;
             }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GridRangeTask(grid, from, mid, leafSize, task),
+                    new GridRangeTask(grid, mid, to, leafSize, task));
+        }
+    }
 
-            // ── 4. Reproduction ───────────────────────────────────────────
-            if (microbe.canReproduce()) {
-                int retryCount = 0;
-                while (retryCount < MAX_REPRODUCTION_ATTEMPTS) {
-                    int currentSlots = availableReproductionSlots.get();
-                    if (currentSlots <= 0) break;
-
-                    if (availableReproductionSlots.compareAndSet(currentSlots, currentSlots - 1)) {
-                        double offsetX = (random.nextDouble() - 0.5) * 20;
-                        double offsetY = (random.nextDouble() - 0.5) * 20;
-                        Microbe child = new Microbe(
-                                microbe,
-                                microbe.getX() + offsetX,
-                                microbe.getY() + offsetY
-                        );
-                        synchronized (newMicrobes) {
-                            newMicrobes.add(child);
-                        }
-                        microbe.resetReproduction();
-                        break;
-                    }
+    /**
+     * Returns the intent buffer index of the calling thread in a work-stealing phase:
+     * 1 + its pool index for a thread of {@code stealingPool}, else 0 (the coordinating
+     * thread, which may run tasks while it waits).
+     */
+    private int stealingBufferIndex() {
+        return Thread.currentThread() instanceof ForkJoinWorkerThread thread && thread.getPool() == stealingPool
+                ? thread.getPoolIndex() + 1 : 0;
+    }
 
-                    retryCount++;
-                    if (retryCount > MIN_RETRIES_BEFORE_BACKOFF) {
-                        Thread.yield();
-                    }
-                }
+    /**
+     * Starts the tick of slot {@code i}: movement and environmental damage. With
+     * {@code trackCells} a move into another cell of {@code ownGrid} is recorded as well.
+     *
+     * @return {@code false} if the microbe is dead; its position is then carried over
+     */
+    private boolean advance(int i, MicrobeIndex ownGrid, double temperature, double toxicity, long now,
+                            boolean trackCells, IntentResolver.Buffer intents) {
+        final MicrobeStore store = this.store;
+        if (store.isDead(i)) {
+            store.holdPosition(i);
+            return false;
+        }
+        // ── 1. Movement (into the next-frame buffers) ─────────────────
+        store.move(i, width, height, now);
+        // ── 2. Environmental damage (natural selection) ───────────────
+        store.updateHealth(i, temperature, toxicity);
+        if (trackCells && ownGrid.crossesCell(i, store.getNextX(i), store.getNextY(i))) {
+            intents.crossCell(i);
+        }
+        return true;
+    }
+
+    /**
+     * Runs one tick of behaviour for the Carnivore in slot {@code i}: movement,
+     * environmental damage, hunting the nearest Herbivore of {@code preyGrid} within
+     * {@link #SENSE_RADIUS} and recording its bites in {@code intents}.
+     *
+     * <h3>Thread-safety notes</h3>
+     * <ul>
+     *   <li>Slot {@code i} is <em>owned</em> by the calling thread for the phase; only its
+     *       own next-frame kinematics, health, energy, AI intent and attack timestamp are
+     *       written here.</li>
+     *   <li>Neighbours are sensed at their previous-frame positions, which no thread
+     *       writes during the phase, so what a microbe senses does not depend on how far
+     *       other workers have progressed. Every slot in the grids was alive at the
+     *       start of the frame.</li>
+     *   <li>Effects on other microbes and on food pellets are only recorded; the
+     *       {@link IntentResolver} applies them after the phase in slot order.</li>
+     *   <li>The grids are read-only during this phase; cell crossings are applied to
+     *       them by the resolve phase.</li>
+     * </ul>
+     * The same holds for {@link #processHerbivore}.
+     */
+    private void processCarnivore(int i, MicrobeIndex ownGrid, MicrobeIndex preyGrid,
+                                  double temperature, double toxicity, long now, boolean trackCells,
+                                  IntentResolver.Buffer intents, MicrobeGrid.Neighbours neighbours) {
+        if (!advance(i, ownGrid, temperature, toxicity, now, trackCells, intents)) return;
+        final MicrobeStore store = this.store;
+        final int size = Microbe.SIZE;
+        final double mx = store.getNextX(i);
+        final double my = store.getNextY(i);
+
+        // ── 3. Hunt the nearest Herbivore ─────────────────────────────
+        int prey = preyGrid.findNearest(store, mx, my, SENSE_RADIUS, neighbours);
+        neighbourVisits.add(neighbours.visited());
+
+        if (prey >= 0) {
+            double bestDistSq = neighbours.distanceSq(0);
+            double preyX = store.getX(prey);
+            double preyY = store.getY(prey);
+            double dx = preyX - mx;
+            double dy = preyY - my;
+            double dist = Math.sqrt(bestDistSq);
+
+            // Update AI intent for debug rendering
+            store.setAiIntent(i, MicrobeStore.AI_HUNT, preyX, preyY);
+
+            // Steering: nudge velocity toward prey (normalised, scaled)
+            double speed = store.getSpeed(i);
+            double steerX = (dx / dist) * speed * HUNT_STEER_STRENGTH;
+            double steerY = (dy / dist) * speed * HUNT_STEER_STRENGTH;
+            steerX = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerX));
+            steerY = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerY));
+            store.steer(i, steerX, steerY);
+
+            // Combat: bite if within range and cooldown has elapsed
+            double attackRange = (size + size) * 1.5;
+            if (dist < attackRange
+                    && (now - store.getLastAttackTime(i)) >= ATTACK_COOLDOWN_TICKS) {
+
+                store.markAttack(i, now);
+
+                // Knockback: normalised direction × flat force (5.0 world-units/frame).
+                // applyKnockback() further damps this by 0.15, giving a real delta of 0.75.
+                double kbDist = Math.max(0.1, Math.sqrt(dx * dx + dy * dy));
+                double kx = (dx / kbDist) * 5.0;
+                double ky = (dy / kbDist) * 5.0;
+                intents.attack(i, prey, kx, ky);
             }
+        } else {
+            store.setWandering(i);
+        }
+    }
+
+    /**
+     * Runs one tick of behaviour for the Herbivore in slot {@code i}: movement,
+     * environmental damage, claiming a touched pellet of {@code foodGrid}, and fleeing
+     * the nearest Carnivore of {@code threatGrid} within {@link #SENSE_RADIUS} or else
+     * foraging. See {@link #processCarnivore} for the thread-safety notes.
+     */
+    private void processHerbivore(int i, SpatialGrid foodGrid, MicrobeIndex ownGrid, MicrobeIndex threatGrid,
+                                  double temperature, double toxicity, long now, boolean trackCells,
+                                  IntentResolver.Buffer intents, MicrobeGrid.Neighbours neighbours) {
+        if (!advance(i, ownGrid, temperature, toxicity, now, trackCells, intents)) return;
+        final MicrobeStore store = this.store;
+        final double mx = store.getNextX(i);
+        final double my = store.getNextY(i);
+
+        // ── 3. Food consumption: the nearest pellet is the one touched, if any is,
+        // since every pellet has the same collision distance
+        final FoodStore food = this.foodStore;
+        int pellet = foodGrid.nearestFood(mx, my, SPATIAL_CELL_SIZE);
+        if (pellet >= 0 && food.checkCollision(pellet, mx, my, Microbe.SIZE)) {
+            intents.claimFood(i, pellet);
+        }
+
+        // ── 4. Find the nearest Carnivore threat ──────────────────────
+        int threat = threatGrid.findNearest(store, mx, my, SENSE_RADIUS, neighbours);
+        neighbourVisits.add(neighbours.visited());
+
+        if (threat >= 0) {
+            double bestDistSq = neighbours.distanceSq(0);
+            double threatX = store.getX(threat);
+            double threatY = store.getY(threat);
+            double dx = mx - threatX; // away vector
+            double dy = my - threatY;
+            double dist = Math.sqrt(bestDistSq);
+
+            // Update AI intent for debug rendering
+            store.setAiIntent(i, MicrobeStore.AI_FLEE, threatX, threatY);
+
+            // Steering: nudge velocity away from threat (normalised, scaled)
+            double speed = store.getSpeed(i);
+            double steerX = (dx / dist) * speed * FLEE_STEER_STRENGTH;
+            double steerY = (dy / dist) * speed * FLEE_STEER_STRENGTH;
+            steerX = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerX));
+            steerY = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerY));
+            store.steer(i, steerX, steerY);
+        } else if (pellet >= 0) {
+            // No threat: forage toward the nearest pellet
+            double foodX = food.getX(pellet);
+            double foodY = food.getY(pellet);
+            double dx = foodX - mx;
+            double dy = foodY - my;
+            double dist = Math.max(0.1, Math.sqrt(dx * dx + dy * dy));
+            store.setAiIntent(i, MicrobeStore.AI_FORAGE, foodX, foodY);
+
+            double speed = store.getSpeed(i);
+            double steerX = (dx / dist) * speed * FORAGE_STEER_STRENGTH;
+            double steerY = (dy / dist) * speed * FORAGE_STEER_STRENGTH;
+            steerX = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerX));
+            steerY = Math.max(-MAX_STEER_DELTA, Math.min(MAX_STEER_DELTA, steerY));
+            store.steer(i, steerX, steerY);
+        } else {
+            store.setWandering(i);
         }
     }
 
     /**
-     * Immutable snapshot of the simulation state published after each {@code update()}.
+     * Runs the reproduction phases. The free population budget is handed out to the
+     * eligible parents in slot order: every worker first counts the eligible parents in
+     * its partition, the budget is split into per-worker quotas in partition order,
+     * and each worker then spawns children for the first {@code quota} eligible parents
+     * of its partition. Which parents reproduce is thus independent of the worker count
+     * and of thread timing, and no shared counter is contended. While the budget covers
+     * every living microbe it cannot bind, so the counting phase is skipped.
+     */
+    private void reproduce(int microbeCount) {
+        int budget = Math.max(0, maxPopulation - microbeCount);
+        if (budget >= microbeCount) {
+            Arrays.fill(birthQuota, Integer.MAX_VALUE);
+        } else {
+            grantBirthQuotas(microbeCount, budget);
+        }
+
+        tickExecutor.runPhase((worker, workers) -> reproduceChunk(
+                partitionStart(microbeCount, worker, workers),
+                partitionStart(microbeCount, worker + 1, workers),
+                birthQuota[worker], newbornsByWorker.get(worker), idBlocks[worker]));
+    }
+
+    private void grantBirthQuotas(int microbeCount, int budget) {
+        tickExecutor.runPhase((worker, workers) -> eligibleParents[worker] = countEligibleParents(
+                partitionStart(microbeCount, worker, workers),
+                partitionStart(microbeCount, worker + 1, workers)));
+
+        for (int w = 0; w < birthQuota.length; w++) {
+            birthQuota[w] = Math.min(eligibleParents[w], budget);
+            budget -= birthQuota[w];
+        }
+    }
+
+    private int countEligibleParents(int start, int end) {
+        int eligible = 0;
+        for (int i = start; i < end; i++) {
+            if (!store.isDead(i) && store.canReproduce(i)) eligible++;
+        }
+        return eligible;
+    }
+
+    /**
+     * Spawns children for the first {@code quota} slots in [start,end) that are ready
+     * to reproduce, appending them to {@code newborns} in slot order. Offspring offsets
+     * and mutations are drawn from the parent's own random stream.
+     */
+    private void reproduceChunk(int start, int end, int quota, List<Microbe> newborns, Microbe.IdBlock ids) {
+        final MicrobeStore store = this.store;
+
+        for (int i = start; i < end && quota > 0; i++) {
+            if (store.isDead(i) || !store.canReproduce(i)) continue;
+
+            SplittableRandom random = store.getRandom(i);
+            double offsetX = (random.nextDouble() - 0.5) * 20;
+            double offsetY = (random.nextDouble() - 0.5) * 20;
+            newborns.add(new Microbe(
+                    store.getView(i),
+                    store.getX(i) + offsetX,
+                    store.getY(i) + offsetY,
+                    random,
+                    ids
+            ));
+            store.resetReproduction(i);
+            quota--;
+        }
+    }
+
+    /**
+     * Returns the first slot of {@code worker}'s partition of {@code count} slots.
+     * The end of the partition is {@code partitionStart(count, worker + 1, workers)}.
+     */
+    private static int partitionStart(int count, int worker, int workers) {
+        return (int) ((long) count * worker / workers);
+    }
+
+    /**
+     * Snapshot of the simulation state published for the renderer.
      * The EDT reads this via a single volatile read — no lock, no ArrayList copy.
+     * {@code render} is what the renderer draws, packed into primitive arrays;
+     * {@code microbes} holds the views in the same order, for hit testing and
+     * selection. Both are unmodifiable and backed by recycled buffers: they stay valid
+     * until two further snapshots have been published, i.e. for the frame they were
+     * read for. {@code food} reads the live {@link FoodStore} arrays: pellets eaten
+     * after publication may already show as consumed.
+     * {@code tick} is the {@link SimulationClock} tick the snapshot was taken at, so
+     * renderers can age tick-stamped events such as {@link Microbe#getLastAttackTime()}.
      */
-    public record RenderSnapshot(List<Microbe> microbes, List<FoodPellet> food) {
+    public record RenderSnapshot(List<Microbe> microbes, RenderBuffer render, FoodStore.View food, long tick) {
     }
 
     /**
-     * Shuts down the thread pool gracefully.
+     * Reusable, unmodifiable microbe list of a {@link RenderSnapshot}; refilled in place.
+     */
+    private static final class SnapshotBuffer extends AbstractList<Microbe> implements RandomAccess {
+        private Microbe[] items = new Microbe[0];
+        private int size;
+
+        /** Copies the store's views in slot order. Caller holds {@code dataLock}. */
+        void fill(MicrobeStore store) {
+            int previous = size;
+            items = store.copyViews(items);
+            size = store.size();
+            if (previous > size) Arrays.fill(items, size, previous, null); // Don't retain the dead
+        }
+
+        @Override
+        public Microbe get(int index) {
+            Objects.checkIndex(index, size);
+            return items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Stops the worker threads gracefully.
      */
     public void shutdown() {
         LOGGER.info("Shutting down simulation engine...");
-        executorService.shutdown();
         try {
-            if (!executorService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
-                LOGGER.warning("Executor did not terminate in time, forcing shutdown...");
-                executorService.shutdownNow();
-                // Wait a bit for tasks to respond to being canceled
-                if (!executorService.awaitTermination(SHUTDOWN_NOW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
-                    LOGGER.severe("Executor did not terminate after forced shutdown");
+            if (!tickExecutor.shutdown(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.severe("Worker threads did not terminate in time");
+            }
+            ForkJoinPool pool;
+            synchronized (dataLock) {
+                pool = stealingPool;
+            }
+            if (pool != null && ownsStealingPool) {
+                pool.shutdown();
+                if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    LOGGER.severe("Work-stealing pool did not terminate in time");
                 }
             }
         } catch (InterruptedException e) {
-            LOGGER.log(Level.WARNING, "Shutdown interrupted, forcing immediate shutdown", e);
-            executorService.shutdownNow();
+            LOGGER.log(Level.WARNING, "Shutdown interrupted", e);
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         }
@@ -21,7 +21,7 @@ public class SimulationLoopController {
     private static final Logger LOGGER = Logger.getLogger(SimulationLoopController.class.getName());
 
     // ── Tick-speed (simulation updates / second) ──────────────────────────
-    private static final int BASE_TPS = 30;
+    private static final int BASE_TPS = SimulationClock.TICKS_PER_SECOND;
     private static final int[] SPEED_MULTIPLIERS = {1, 2, 5, 10, 20, 50, 100};
     private int currentSpeedIndex = 0;
 
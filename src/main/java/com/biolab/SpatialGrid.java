@@ -1,24 +1,39 @@
 package com.biolab;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Grid-based spatial index for efficient food pellet collision detection.
  *
  * <p>Partitions the world into fixed-size cells. Each food pellet is assigned to
- * the cell that contains its position. To find nearby food for a microbe,
- * only the pellet's own cell and the 8 surrounding cells are checked,
- * reducing collision detection from O(n*m) to approximately O(n*(m/cellCount)).</p>
+ * the cell that contains its position; cells hold {@link FoodStore} slot indices.
+ * To find nearby food for a microbe, only the pellet's own cell and the 8
+ * surrounding cells are checked, reducing collision detection from O(n*m) to
+ * approximately O(n*(m/cellCount)).</p>
  *
- * <p>The grid is rebuilt every frame from food snapshot, so it is not modified
- * concurrently – each worker thread only reads from it.</p>
+ * <p>The grid is rebuilt every frame from the food store, which does not change
+ * while workers run, so it is not modified concurrently – each worker thread only
+ * reads from it.</p>
+ *
+ * <p>Cells are stored in a compact (compressed sparse rows) layout instead of one
+ * list per cell: {@link #rebuild} counting-sorts the pellets by cell into a single
+ * array, and {@code cellStart} holds the prefix sums of the cell counts. A 3×3
+ * neighbourhood is thus three contiguous ranges, and an empty cell costs one
+ * {@code int}.</p>
  */
 public class SpatialGrid {
     private final int cellSize;
     private final int cols;
     private final int rows;
-    private final ArrayList<List<FoodPellet>> cells;
+    private final int cellCount;
+    /** cellStart[c] = index in {@link #sortedFood} of cell c's first pellet; cellStart[cellCount] = pellet count. */
+    private final int[] cellStart;
+    /** Slots of the indexed pellets sorted by cell (ascending slot within a cell). */
+    private int[] sortedFood = new int[0];
+    /** Scratch: cell of each slot, or -1 if skipped. */
+    private int[] foodCell = new int[0];
+    /** Store indexed by the last rebuild. */
+    private FoodStore food;
 
     /**
      * Creates a new spatial grid.
@@ -35,46 +50,70 @@ public class SpatialGrid {
         this.cols = Math.max(1, (worldWidth + cellSize - 1) / cellSize);
         this.rows = Math.max(1, (worldHeight + cellSize - 1) / cellSize);
 
-        int totalCells = this.cols * this.rows;
-        cells = new ArrayList<>(totalCells);
-        for (int i = 0; i < totalCells; i++) {
-            cells.add(new ArrayList<>(4)); // Small initial capacity – most cells will have few pellets
-        }
+        this.cellCount = this.cols * this.rows;
+        this.cellStart = new int[cellCount + 1];
     }
 
     /**
-     * Clears the grid and re-inserts all food pellets from the given snapshot.
-     * Must be called once per frame before any {@link #getNearbyFood} queries.
+     * Clears the grid and re-inserts all uneaten pellets of {@code food}.
+     * Must be called once per frame before any {@link #getNearbyFood} queries, and
+     * {@code food} must not change until the queries of the frame are done.
      *
-     * @param foodSnapshot immutable snapshot of food pellets for this frame
+     * @param food the food pellets for this frame
      */
-    public void rebuild(List<FoodPellet> foodSnapshot) {
-        // Clear all cells
-        for (List<FoodPellet> cell : cells) {
-            cell.clear();
+    public void rebuild(FoodStore food) {
+        this.food = food;
+        int count = food.slotCount();
+        if (foodCell.length < count) {
+            foodCell = new int[Math.max(count, foodCell.length * 2)];
         }
+        Arrays.fill(cellStart, 0);
 
-        // Insert each pellet into its cell
-        for (FoodPellet food : foodSnapshot) {
-            if (food.isConsumed()) continue; // Skip already consumed food
+        // Pass 1: cell of each pellet, counted into cellStart[cell + 1]
+        int indexed = 0;
+        for (int i = 0; i < count; i++) {
+            if (food.isConsumed(i)) { // Skip eaten pellets and free slots
+                foodCell[i] = -1;
+                continue;
+            }
 
-            int col = Math.min((int) (food.getX() / cellSize), cols - 1);
-            int row = Math.min((int) (food.getY() / cellSize), rows - 1);
+            int col = Math.min((int) (food.getX(i) / cellSize), cols - 1);
+            int row = Math.min((int) (food.getY(i) / cellSize), rows - 1);
             col = Math.max(0, col);
             row = Math.max(0, row);
-            cells.get(row * cols + col).add(food);
+            int cell = row * cols + col;
+            foodCell[i] = cell;
+            cellStart[cell + 1]++;
+            indexed++;
+        }
+        // Prefix sum: cellStart[c] = first index of cell c
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        // Pass 2: scatter, using cellStart[cell] as the write cursor and restoring it afterwards
+        if (sortedFood.length < indexed) {
+            sortedFood = new int[Math.max(indexed, sortedFood.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            int cell = foodCell[i];
+            if (cell >= 0) sortedFood[cellStart[cell]++] = i;
         }
+        for (int cell = cellCount; cell > 0; cell--) {
+            cellStart[cell] = cellStart[cell - 1];
+        }
+        cellStart[0] = 0;
     }
 
     /**
-     * Returns all food pellets in the cell containing (x, y) and its 8 neighbors.
-     * The returned list is a temporary collection suitable for iteration.
+     * Returns the slots of all food pellets in the cell containing (x, y) and its 8
+     * neighbors.
      *
      * @param x world x coordinate
      * @param y world y coordinate
-     * @return list of food pellets in the 3×3 neighborhood (may contain consumed pellets)
+     * @return slots of the pellets in the 3×3 neighborhood, cell by cell (may include
+     *         pellets eaten since the rebuild)
      */
-    public List<FoodPellet> getNearbyFood(double x, double y) {
+    public int[] getNearbyFood(double x, double y) {
         int centerCol = Math.min((int) (x / cellSize), cols - 1);
         int centerRow = Math.min((int) (y / cellSize), rows - 1);
         centerCol = Math.max(0, centerCol);
@@ -86,16 +125,63 @@ public class SpatialGrid {
         int minRow = Math.max(0, centerRow - 1);
         int maxRow = Math.min(rows - 1, centerRow + 1);
 
-        // Collect pellets from the 3×3 neighborhood
-        List<FoodPellet> nearby = new ArrayList<>();
+        // Collect pellets from the 3×3 neighborhood: one contiguous range per row
+        int total = 0;
         for (int row = minRow; row <= maxRow; row++) {
-            for (int col = minCol; col <= maxCol; col++) {
-                nearby.addAll(cells.get(row * cols + col));
-            }
+            total += cellStart[row * cols + maxCol + 1] - cellStart[row * cols + minCol];
+        }
+        int[] nearby = new int[total];
+        int pos = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            int from = cellStart[row * cols + minCol];
+            int n = cellStart[row * cols + maxCol + 1] - from;
+            System.arraycopy(sortedFood, from, nearby, pos, n);
+            pos += n;
         }
         return nearby;
     }
 
+    /**
+     * Returns the slot of the uneaten pellet nearest to (x, y) within {@code radius},
+     * or {@code -1} if there is none. Scans the same 3×3 neighbourhood as
+     * {@link #getNearbyFood} without collecting it, so it allocates nothing; ties go to
+     * the pellet that comes first in grid order.
+     *
+     * @param x      world x coordinate
+     * @param y      world y coordinate
+     * @param radius search radius; at most the cell size, which the neighbourhood covers
+     * @throws IllegalArgumentException if {@code radius} is negative or exceeds the cell size
+     */
+    public int nearestFood(double x, double y, double radius) {
+        if (radius < 0 || radius > cellSize) {
+            throw new IllegalArgumentException("radius must be in [0, " + cellSize + "], was: " + radius);
+        }
+        int centerCol = Math.max(0, Math.min((int) (x / cellSize), cols - 1));
+        int centerRow = Math.max(0, Math.min((int) (y / cellSize), rows - 1));
+        int minCol = Math.max(0, centerCol - 1);
+        int maxCol = Math.min(cols - 1, centerCol + 1);
+        int minRow = Math.max(0, centerRow - 1);
+        int maxRow = Math.min(rows - 1, centerRow + 1);
+
+        final FoodStore food = this.food;
+        int nearest = -1;
+        double bestDistSq = radius * radius;
+        for (int row = minRow; row <= maxRow; row++) {
+            int end = cellStart[row * cols + maxCol + 1];
+            for (int i = cellStart[row * cols + minCol]; i < end; i++) {
+                int slot = sortedFood[i];
+                double dx = food.getX(slot) - x;
+                double dy = food.getY(slot) - y;
+                double dSq = dx * dx + dy * dy;
+                if (dSq <= bestDistSq && (nearest < 0 || dSq < bestDistSq) && !food.isConsumed(slot)) {
+                    bestDistSq = dSq;
+                    nearest = slot;
+                }
+            }
+        }
+        return nearest;
+    }
+
     /**
      * Returns the number of columns in the grid.
      */
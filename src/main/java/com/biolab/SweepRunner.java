@@ -0,0 +1,268 @@
+package com.biolab;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless parameter sweep: runs one world per combination of temperature, toxicity
+ * and food spawn rate, all inside one JVM.
+ *
+ * <pre>
+ * java -cp target/classes com.biolab.SweepRunner sweep.properties
+ * </pre>
+ *
+ * <p>The sweep file is a {@link Scenario} file (the base world, tick count, seed and
+ * {@code stats.interval}) plus the value lists to combine:</p>
+ * <pre>
+ * sweep.temperature=0.1,0.5,0.9      # defaults to the scenario's value
+ * sweep.toxicity=0.1,0.5,0.9
+ * sweep.foodSpawnRate=0.3
+ * sweep.output=biolab_sweep.csv
+ * sweep.parallelism=8                # defaults to the number of cores
+ * </pre>
+ *
+ * <h3>Scheduling</h3>
+ * <p>All worlds share a single {@link ForkJoinPool} sized to the machine. Every world
+ * is one task in that pool, and its engine is created on the same pool (see
+ * {@link Scenario#createEngine(ForkJoinPool)}), so it starts no threads of its own:
+ * the whole sweep uses {@code parallelism} threads regardless of the number of worlds.
+ * Idle workers steal grid ranges of running worlds when fewer worlds than cores remain.</p>
+ *
+ * <h3>Output</h3>
+ * <p>Every world appends a row every {@code stats.interval} ticks (and after its last
+ * tick) to one combined CSV, as soon as the row is produced:</p>
+ * <pre>
+ * ParameterSet,Tick,Population,Temp,Tox,AvgHealth,AvgEnergy,AvgHeatRes,AvgToxRes,AvgSpeed,AvgDiet
+ * </pre>
+ * <p>Rows of different worlds interleave; {@code ParameterSet} identifies the world.</p>
+ */
+public final class SweepRunner {
+    private static final Logger LOGGER = Logger.getLogger(SweepRunner.class.getName());
+
+    private static final String CSV_HEADER = "ParameterSet,Tick," + DataExporter.STATS_COLUMNS;
+
+    /**
+     * One point of the sweep grid.
+     *
+     * @param temperature   environment temperature
+     * @param toxicity      environment toxicity
+     * @param foodSpawnRate food spawn probability per tick
+     */
+    public record ParameterSet(double temperature, double toxicity, double foodSpawnRate) {
+
+        /** Returns the key written in the {@code ParameterSet} column. */
+        public String key() {
+            return String.format(Locale.ROOT, "temp=%.3f;tox=%.3f;food=%.3f", temperature, toxicity, foodSpawnRate);
+        }
+
+        /** Returns {@code base} with this point's environment and food rate. */
+        public Scenario apply(Scenario base) {
+            return new Scenario(base.worldWidth(), base.worldHeight(), base.initialPopulation(),
+                    base.maxPopulation(), temperature, toxicity, foodSpawnRate, base.ticks(), base.seed(),
+                    base.statsInterval(), base.statsOutput(), base.scheduling());
+        }
+    }
+
+    private SweepRunner() {
+    }
+
+    /**
+     * Runs the sweep file given as the only argument.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java -cp <classpath> com.biolab.SweepRunner <sweep.properties>");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        Properties props = new Properties();
+        Scenario base;
+        List<ParameterSet> grid;
+        Path output;
+        int parallelism;
+        try (InputStream input = Files.newInputStream(Path.of(args[0]))) {
+            props.load(input);
+            base = Scenario.fromProperties(props);
+            grid = parameterGrid(props, base);
+            output = Path.of(props.getProperty("sweep.output", "biolab_sweep.csv").trim());
+            parallelism = parallelism(props);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Failed to load sweep " + args[0], e);
+            System.exit(1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        HeadlessRunner.RunSummary total;
+        try {
+            total = run(base, grid, output, parallelism);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to write " + output, e);
+            System.exit(1);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT,
+                "worlds=%d parallelism=%d ticks/world=%d  %.1f s  %.1f world-ticks/s  %.2fM microbe-updates/s%n",
+                grid.size(), parallelism, base.ticks(), seconds,
+                total.ticks() / seconds, total.microbeUpdates() / seconds / 1e6);
+    }
+
+    /**
+     * Builds the cartesian product of the {@code sweep.temperature}, {@code sweep.toxicity}
+     * and {@code sweep.foodSpawnRate} lists; a missing list contributes the base value.
+     *
+     * @throws IllegalArgumentException if a list contains a malformed number
+     */
+    public static List<ParameterSet> parameterGrid(Properties props, Scenario base) {
+        List<ParameterSet> grid = new ArrayList<>();
+        for (double temperature : values(props, "sweep.temperature", base.temperature())) {
+            for (double toxicity : values(props, "sweep.toxicity", base.toxicity())) {
+                for (double food : values(props, "sweep.foodSpawnRate", base.foodSpawnRate())) {
+                    grid.add(new ParameterSet(temperature, toxicity, food));
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Returns {@code sweep.parallelism}, by default the number of available processors.
+     *
+     * @throws IllegalArgumentException if the value is malformed or not positive
+     */
+    static int parallelism(Properties props) {
+        String value = props.getProperty("sweep.parallelism");
+        if (value == null || value.isBlank()) return Runtime.getRuntime().availableProcessors();
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number in sweep.parallelism: " + value, e);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("sweep.parallelism must be >= 1, was: " + parallelism);
+        }
+        return parallelism;
+    }
+
+    private static double[] values(Properties props, String key, double fallback) {
+        String list = props.getProperty(key);
+        if (list == null || list.isBlank()) return new double[]{fallback};
+        String[] parts = list.split(",");
+        double[] values = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number in " + key + ": " + list, e);
+        }
+        return values;
+    }
+
+    /**
+     * Runs one world per parameter set on a shared pool of {@code parallelism} threads
+     * and streams their statistics into {@code output} (overwritten).
+     *
+     * @return totals over all worlds; {@code elapsedNanos} is the summed per-world run time
+     * @throws IOException              if the output cannot be written
+     * @throws IllegalArgumentException if {@code parallelism} is not positive or a
+     *                                  parameter set is out of range
+     */
+    public static HeadlessRunner.RunSummary run(Scenario base, List<ParameterSet> grid, Path output,
+                                                int parallelism) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1, was: " + parallelism);
+        }
+        List<Scenario> worlds = new ArrayList<>(grid.size());
+        for (ParameterSet set : grid) {
+            worlds.add(set.apply(base));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+
+            List<Future<HeadlessRunner.RunSummary>> results = new ArrayList<>(worlds.size());
+            for (int i = 0; i < worlds.size(); i++) {
+                Scenario world = worlds.get(i);
+                String key = grid.get(i).key();
+                results.add(pool.submit(() -> runWorld(world, key, pool, writer)));
+            }
+
+            long ticks = 0;
+            long microbeUpdates = 0;
+            long elapsed = 0;
+            int population = 0;
+            for (Future<HeadlessRunner.RunSummary> result : results) {
+                HeadlessRunner.RunSummary summary = result.get();
+                ticks += summary.ticks();
+                microbeUpdates += summary.microbeUpdates();
+                elapsed += summary.elapsedNanos();
+                population += summary.finalPopulation();
+            }
+            return new HeadlessRunner.RunSummary(ticks, microbeUpdates, elapsed, population);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Sweep interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            throw new IllegalStateException("World failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one world to completion inside the shared pool, appending its rows to {@code writer}.
+     */
+    private static HeadlessRunner.RunSummary runWorld(Scenario world, String key, ForkJoinPool pool,
+                                                      BufferedWriter writer) {
+        SimulationEngine engine = world.createEngine(pool);
+        try {
+            int interval = world.statsInterval();
+            long microbeUpdates = 0;
+            long start = System.nanoTime();
+            for (long tick = 1; tick <= world.ticks(); tick++) {
+                microbeUpdates += engine.getPopulationCount();
+                engine.update();
+                if ((interval > 0 && tick % interval == 0) || tick == world.ticks()) {
+                    writeRow(writer, key + "," + tick + ","
+                            + DataExporter.formatStats(engine.getMicrobes(), engine.getEnvironment()));
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            return new HeadlessRunner.RunSummary(world.ticks(), microbeUpdates, elapsed, engine.getPopulationCount());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, String row) {
+        synchronized (writer) {
+            try {
+                writer.write(row);
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
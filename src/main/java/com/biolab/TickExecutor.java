@@ -0,0 +1,281 @@
+package com.biolab;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Persistent, barrier-synchronised worker pool that runs one simulation tick as a
+ * sequence of <em>phases</em>.
+ *
+ * <p>Unlike submitting fresh {@code Runnable}s to an {@code ExecutorService} every
+ * tick, the workers here are long-lived threads with a fixed index. A phase is
+ * started with {@link #runPhase(PhaseTask)}: every worker runs the same task for its
+ * own index (and hence its own stable partition), then all of them meet at a barrier
+ * before the call returns. The calling thread participates as worker {@code 0}, so a
+ * phase costs no queue hand-off and, with a single worker, no thread switch at all.</p>
+ *
+ * <h3>Wait policy</h3>
+ * <p>Waiting workers (and the coordinator waiting for the barrier) first spin with
+ * {@link Thread#onSpinWait()} for a bounded number of iterations and only then park.
+ * Spinning covers the short gap between consecutive phases of one tick; parking keeps
+ * idle workers off the CPU between ticks. On single-core machines spinning is skipped.</p>
+ *
+ * <h3>Instrumentation</h3>
+ * <p>Per worker the executor accumulates the time spent running tasks, the time spent
+ * at the barrier waiting for slower workers, and the idle time between phases; see
+ * {@link #getWorkerStats()}. The coordinator also accumulates the wall time of all
+ * phases ({@link #getPhaseNanos()}).</p>
+ */
+public class TickExecutor {
+    private static final Logger LOGGER = Logger.getLogger(TickExecutor.class.getName());
+
+    /** Spin iterations before parking; 0 on single-core hosts where spinning only steals time. */
+    private static final int SPIN_LIMIT = Runtime.getRuntime().availableProcessors() > 1 ? 20_000 : 0;
+
+    /**
+     * Work performed by each worker during one phase.
+     */
+    @FunctionalInterface
+    public interface PhaseTask {
+        /**
+         * Runs the phase for one worker.
+         *
+         * @param worker      index of the calling worker, in {@code [0, workerCount)}
+         * @param workerCount total number of workers taking part in the phase
+         */
+        void run(int worker, int workerCount);
+    }
+
+    /**
+     * Accumulated timing of one worker since construction or the last {@link #resetStats()}.
+     *
+     * @param worker           worker index
+     * @param busyNanos        time spent running phase tasks
+     * @param barrierWaitNanos time spent finished but waiting for the slowest worker of a phase
+     * @param idleNanos        time spent waiting for the next phase to start (helpers only)
+     */
+    public record WorkerStats(int worker, long busyNanos, long barrierWaitNanos, long idleNanos) {
+    }
+
+    private final int workerCount;
+    private final Thread[] helpers;
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private volatile PhaseTask currentTask;
+    /** Incremented (by the coordinator only) to start a new phase. */
+    private volatile long phaseSeq;
+    private volatile boolean running = true;
+    private volatile Thread coordinator;
+
+    // Per-worker timing, written by the owning worker and read after the barrier.
+    private final long[] busyNanos;
+    private final long[] idleNanos;
+    private final long[] barrierWaitNanos;
+    private final long[] finishedAt;
+    /** Wall time spent in {@link #runPhase}; written by the coordinator only. */
+    private long phaseNanos;
+
+    /**
+     * Creates the executor and starts {@code workerCount - 1} helper threads.
+     *
+     * @param workerCount number of workers including the calling thread (must be &gt;= 1)
+     * @param namePrefix  prefix for helper thread names
+     * @throws IllegalArgumentException if {@code workerCount} is not positive
+     */
+    public TickExecutor(int workerCount, String namePrefix) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("workerCount must be >= 1, was: " + workerCount);
+        }
+        this.workerCount = workerCount;
+        this.busyNanos = new long[workerCount];
+        this.idleNanos = new long[workerCount];
+        this.barrierWaitNanos = new long[workerCount];
+        this.finishedAt = new long[workerCount];
+        this.helpers = new Thread[workerCount - 1];
+        for (int w = 1; w < workerCount; w++) {
+            final int worker = w;
+            Thread t = new Thread(() -> helperLoop(worker), namePrefix + "-" + w);
+            t.setDaemon(true);
+            helpers[w - 1] = t;
+            t.start();
+        }
+    }
+
+    /**
+     * Runs {@code task} on every worker and returns once all of them have finished.
+     * Must be called from a single coordinating thread (the SimulationLoop thread).
+     *
+     * @param task the phase to run
+     * @throws CompletionException   wrapping the first exception thrown by any worker, or
+     *                               if the executor was shut down during the phase; the
+     *                               call returns only once no worker runs the task any more
+     * @throws IllegalStateException if the executor has been shut down
+     */
+    public void runPhase(PhaseTask task) {
+        if (!running) throw new IllegalStateException("TickExecutor has been shut down");
+
+        long phaseStart = System.nanoTime();
+        coordinator = Thread.currentThread();
+        currentTask = task;
+        remaining.set(workerCount);
+        phaseSeq++;                      // volatile write publishes task + remaining
+        for (Thread helper : helpers) {
+            LockSupport.unpark(helper);
+        }
+
+        runTask(task, 0);
+
+        // Barrier: wait for the helpers (spin, then park until the last one unparks us)
+        boolean interrupted = false;
+        int spins = 0;
+        while (remaining.get() != 0) {
+            if (!running) {
+                // Shut down mid-phase: a helper that never took the phase exits without it,
+                // so the count may never reach 0. Helpers only exit between phases, so once
+                // all have exited none is still running this phase's task.
+                for (Thread helper : helpers) {
+                    while (helper.isAlive()) {
+                        try {
+                            helper.join();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                }
+                failure.compareAndSet(null, new IllegalStateException("TickExecutor shut down during a phase"));
+                break;
+            }
+            if (spins < SPIN_LIMIT) {
+                spins++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.park(this);
+                if (Thread.interrupted()) interrupted = true;
+            }
+        }
+        long phaseEnd = System.nanoTime();
+        for (int w = 0; w < workerCount; w++) {
+            barrierWaitNanos[w] += phaseEnd - finishedAt[w];
+        }
+        phaseNanos += phaseEnd - phaseStart;
+        if (interrupted) Thread.currentThread().interrupt();
+
+        Throwable t = failure.getAndSet(null);
+        if (t != null) throw new CompletionException(t);
+    }
+
+    private void runTask(PhaseTask task, int worker) {
+        long start = System.nanoTime();
+        try {
+            task.run(worker, workerCount);
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        } finally {
+            long end = System.nanoTime();
+            busyNanos[worker] += end - start;
+            finishedAt[worker] = end;
+        }
+        if (remaining.decrementAndGet() == 0 && worker != 0) {
+            LockSupport.unpark(coordinator);
+        }
+    }
+
+    private void helperLoop(int worker) {
+        long seenSeq = 0;
+        while (true) {
+            long waitStart = System.nanoTime();
+            int spins = 0;
+            long seq;
+            while ((seq = phaseSeq) == seenSeq) {
+                if (!running) return;
+                if (spins < SPIN_LIMIT) {
+                    spins++;
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            seenSeq = seq;
+            idleNanos[worker] += System.nanoTime() - waitStart;
+            runTask(currentTask, worker);
+        }
+    }
+
+    /**
+     * Returns the number of workers (including the coordinating thread).
+     */
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Returns the wall time spent in {@link #runPhase} since construction, from the
+     * start of each phase to the end of its barrier. Not affected by
+     * {@link #resetStats()}; call from the coordinating thread.
+     */
+    public long getPhaseNanos() {
+        return phaseNanos;
+    }
+
+    /**
+     * Returns a snapshot of the per-worker timing counters. Call from the coordinating
+     * thread between phases for exact values; other threads may see slightly stale ones.
+     */
+    public List<WorkerStats> getWorkerStats() {
+        List<WorkerStats> stats = new ArrayList<>(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            stats.add(new WorkerStats(w, busyNanos[w], barrierWaitNanos[w], idleNanos[w]));
+        }
+        return stats;
+    }
+
+    /**
+     * Resets all timing counters to zero. Call from the coordinating thread between phases.
+     */
+    public void resetStats() {
+        for (int w = 0; w < workerCount; w++) {
+            busyNanos[w] = 0;
+            idleNanos[w] = 0;
+            barrierWaitNanos[w] = 0;
+        }
+    }
+
+    /**
+     * Returns {@code true} once {@link #shutdown(long, TimeUnit)} has been called.
+     */
+    public boolean isShutdown() {
+        return !running;
+    }
+
+    /**
+     * Stops the helper threads and waits up to {@code timeout} for them to exit.
+     *
+     * @return {@code true} if all helpers terminated in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        running = false;
+        for (Thread helper : helpers) {
+            LockSupport.unpark(helper);
+        }
+        Thread c = coordinator;
+        if (c != null) LockSupport.unpark(c);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread helper : helpers) {
+            long left = deadline - System.nanoTime();
+            if (left > 0) helper.join(TimeUnit.NANOSECONDS.toMillis(left) + 1);
+            if (helper.isAlive()) {
+                LOGGER.warning("Worker " + helper.getName() + " did not terminate in time");
+                return false;
+            }
+        }
+        return true;
+    }
+}
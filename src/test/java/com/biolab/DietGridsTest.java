@@ -0,0 +1,79 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the DietGrids class: routing of slots to the grid of their diet and
+ * incremental maintenance of both grids matching a full rebuild.
+ */
+class DietGridsTest {
+
+    private static final int WORLD = 300;
+    private static final int CELL = 30;
+
+    private static int[] gridOrder(MicrobeIndex grid) {
+        int[] order = new int[grid.getIndexedCount()];
+        int[] pos = {0};
+        grid.forEachSlotInRange(0, order.length, slot -> order[pos[0]++] = slot);
+        return order;
+    }
+
+    @Test
+    void rebuildShouldIndexEverySlotInTheGridOfItsDiet() {
+        SplittableRandom random = new SplittableRandom(1);
+        MicrobeStore store = new MicrobeStore();
+        for (int i = 0; i < 200; i++) {
+            store.add(new Microbe(random.nextDouble() * WORLD, random.nextDouble() * WORLD, random));
+        }
+        DietGrids grids = new DietGrids(WORLD, WORLD, CELL);
+        grids.rebuild(store);
+
+        assertEquals(200, grids.getIndexedCount());
+        for (int slot : gridOrder(grids.carnivores())) {
+            assertTrue(store.isCarnivore(slot));
+        }
+        for (int slot : gridOrder(grids.herbivores())) {
+            assertFalse(store.isCarnivore(slot));
+        }
+    }
+
+    @Test
+    void incrementalUpdatesShouldMatchRebuild() {
+        SplittableRandom random = new SplittableRandom(2);
+        MicrobeStore store = new MicrobeStore();
+        for (int i = 0; i < 300; i++) {
+            store.add(new Microbe(random.nextDouble() * WORLD, random.nextDouble() * WORLD, random));
+        }
+        DietGrids incremental = new DietGrids(WORLD, WORLD, CELL);
+        incremental.rebuild(store);
+
+        for (int tick = 1; tick <= 20; tick++) {
+            for (int slot = 0; slot < store.size(); slot++) {
+                store.move(slot, WORLD, WORLD, tick);
+            }
+            store.swapFrames();
+            for (int slot = 0; slot < store.size(); slot++) {
+                incremental.relocate(store, slot);
+            }
+            for (int k = 0; k < 5; k++) {
+                store.takeDamageAndTransferEnergy(random.nextInt(store.size()), Microbe.getMaxHealth() * 2, tick);
+            }
+            store.removeDead(incremental);
+            for (int k = 0; k < 4; k++) {
+                int slot = store.add(new Microbe(random.nextDouble() * WORLD, random.nextDouble() * WORLD, random));
+                incremental.insert(store, slot);
+            }
+
+            DietGrids rebuilt = new DietGrids(WORLD, WORLD, CELL);
+            rebuilt.rebuild(store);
+            assertArrayEquals(gridOrder(rebuilt.carnivores()), gridOrder(incremental.carnivores()),
+                    "Carnivore grids diverged at tick " + tick);
+            assertArrayEquals(gridOrder(rebuilt.herbivores()), gridOrder(incremental.herbivores()),
+                    "Herbivore grids diverged at tick " + tick);
+        }
+    }
+}
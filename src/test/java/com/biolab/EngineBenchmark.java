@@ -0,0 +1,200 @@
+package com.biolab;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Stand-alone throughput benchmark for {@link SimulationEngine#update()}.
+ *
+ * <p>Not a JUnit test (the name does not end in {@code Test}, so Surefire skips it).
+ * Run after {@code mvn test-compile} with:</p>
+ * <pre>
+ * java -cp target/classes:target/test-classes com.biolab.EngineBenchmark \
+ *      [population] [ticks] [uniform|clustered] [static|stealing|tiles] [incremental|rebuild] \
+ *      [parallel|serial] [reorderTicks] [grid|quadtree]
+ * </pre>
+ *
+ * <p>The world edge is scaled with the population so that density matches the
+ * default application (20 000 microbes on a 10 000 × 10 000 world); the population
+ * cap is set to the seeded population so reproduction cannot grow the workload.
+ * The {@code clustered} layout places 90% of the microbes in a few tight Gaussian
+ * hotspots, mimicking populations that pile up around food. Monitor contention
+ * (how often and how long threads blocked entering a {@code synchronized} block)
+ * is reported from {@link ThreadMXBean}, as are the bytes allocated by all threads
+ * during the measured ticks, together with the number of garbage collections. The
+ * serial part of the tick (see {@link SimulationEngine.TickProfile}) bounds the
+ * speed-up more cores can give; the end-of-tick compaction is reported separately,
+ * so that its {@code serial} and {@code parallel} variants can be compared.
+ * {@code reorderTicks} (default 0, off) sorts the population along a Morton curve
+ * every that many ticks; compare tick time and cache misses against 0. The last
+ * argument selects the microbe spatial index (see
+ * {@link SimulationEngine.SpatialIndex}); compare the two on both layouts.</p>
+ *
+ * <p>To compare cache behaviour between engine revisions (e.g. the double-buffered
+ * position state), run the same arguments under hardware counters:</p>
+ * <pre>
+ * perf stat -e cache-references,cache-misses,L1-dcache-load-misses,LLC-load-misses \
+ *      java -cp target/classes:target/test-classes com.biolab.EngineBenchmark 200000 50 clustered static
+ * </pre>
+ */
+public final class EngineBenchmark {
+
+    /** Microbes per square world unit in the default application. */
+    private static final double DEFAULT_DENSITY = 20_000.0 / (10_000.0 * 10_000.0);
+    private static final int WARMUP_TICKS = 20;
+    private static final int HOTSPOTS = 20;
+    private static final double HOTSPOT_SIGMA = 60.0;
+    private static final double CLUSTERED_FRACTION = 0.9;
+
+    private EngineBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int population = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        boolean clustered = args.length > 2 && args[2].equals("clustered");
+        SimulationEngine.Scheduling scheduling = switch (args.length > 3 ? args[3] : "stealing") {
+            case "static" -> SimulationEngine.Scheduling.STATIC_PARTITIONS;
+            case "tiles" -> SimulationEngine.Scheduling.TILE_OWNERSHIP;
+            default -> SimulationEngine.Scheduling.WORK_STEALING;
+        };
+        boolean incrementalGrid = !(args.length > 4 && args[4].equals("rebuild"));
+        boolean parallelCompaction = !(args.length > 5 && args[5].equals("serial"));
+        int reorderTicks = args.length > 6 ? Integer.parseInt(args[6]) : 0;
+        SimulationEngine.SpatialIndex spatialIndex = args.length > 7 && args[7].equals("quadtree")
+                ? SimulationEngine.SpatialIndex.QUADTREE : SimulationEngine.SpatialIndex.GRID;
+        int worldSize = (int) Math.ceil(Math.sqrt(population / DEFAULT_DENSITY));
+
+        SimulationEngine engine;
+        if (clustered) {
+            engine = new SimulationEngine(worldSize, worldSize, 0, population);
+            engine.spawnMicrobes(clusteredPopulation(population, worldSize, new Random(42)));
+        } else {
+            engine = new SimulationEngine(worldSize, worldSize, population, population);
+        }
+        engine.setScheduling(scheduling);
+        engine.setIncrementalGrid(incrementalGrid);
+        engine.setParallelCompaction(parallelCompaction);
+        engine.setReorderInterval(reorderTicks);
+        engine.setSpatialIndex(spatialIndex);
+
+        try {
+            for (int i = 0; i < WARMUP_TICKS; i++) {
+                engine.update();
+            }
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads.isThreadContentionMonitoringSupported()) {
+                threads.setThreadContentionMonitoringEnabled(true);
+            }
+            long[] blockedBefore = blocked(threads);
+            long allocatedBefore = allocatedBytes(threads);
+            long gcBefore = gcCount();
+
+            engine.resetWorkerStats();
+            long microbeUpdates = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                microbeUpdates += engine.getPopulationCount();
+                engine.update();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long[] blockedAfter = blocked(threads);
+            long allocated = allocatedBytes(threads) - allocatedBefore;
+            long gcs = gcCount() - gcBefore;
+
+            System.out.printf(Locale.ROOT,
+                    "population=%d world=%dx%d layout=%s scheduling=%s index=%s grid=%s compaction=%s reorder=%d"
+                            + " threads=%d ticks=%d  %.1f ticks/s  %.2fM microbe-updates/s%n",
+                    population, worldSize, worldSize, clustered ? "clustered" : "uniform", scheduling, spatialIndex,
+                    incrementalGrid ? "incremental" : "rebuild", parallelCompaction ? "parallel" : "serial", reorderTicks,
+                    Runtime.getRuntime().availableProcessors(), ticks,
+                    ticks / seconds, microbeUpdates / seconds / 1e6);
+            System.out.printf(Locale.ROOT, "  monitor contention: %d blocked entries, %d ms blocked%n",
+                    blockedAfter[0] - blockedBefore[0], blockedAfter[1] - blockedBefore[1]);
+            System.out.printf(Locale.ROOT, "  allocation: %.2f MB/tick  %.1f MB/s  %d GCs%n",
+                    allocated / 1e6 / ticks, allocated / 1e6 / seconds, gcs);
+            SimulationEngine.TickProfile profile = engine.getTickProfile();
+            System.out.printf(Locale.ROOT, "  serial: %.2f of %.2f ms/tick (%.1f%%, Amdahl limit %.1fx)%n",
+                    profile.serialNanos() / 1e6 / profile.ticks(), profile.tickNanos() / 1e6 / profile.ticks(),
+                    profile.serialFraction() * 100, 1 / profile.serialFraction());
+            System.out.printf(Locale.ROOT, "  compaction: %.3f ms/tick%n",
+                    profile.compactionNanos() / 1e6 / profile.ticks());
+            System.out.printf(Locale.ROOT, "  neighbour visits: %.0f/tick%n",
+                    (double) profile.neighbourVisits() / profile.ticks());
+            for (TickExecutor.WorkerStats w : engine.getWorkerStats()) {
+                System.out.printf(Locale.ROOT, "  worker %2d  busy %7.1f ms  barrier-wait %7.1f ms  idle %7.1f ms%n",
+                        w.worker(), w.busyNanos() / 1e6, w.barrierWaitNanos() / 1e6, w.idleNanos() / 1e6);
+            }
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * Returns {total blocked count, total blocked ms} over all live threads.
+     */
+    private static long[] blocked(ThreadMXBean threads) {
+        long count = 0;
+        long millis = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info == null) continue;
+            count += info.getBlockedCount();
+            millis += Math.max(0, info.getBlockedTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    /**
+     * Returns the bytes allocated so far by all live threads, or {@code 0} if the JVM
+     * does not support per-thread allocation accounting.
+     */
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (!(threads instanceof com.sun.management.ThreadMXBean hotspot)
+                || !hotspot.isThreadAllocatedMemorySupported()) {
+            return 0;
+        }
+        long total = 0;
+        for (long bytes : hotspot.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, bytes);
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static List<Microbe> clusteredPopulation(int population, int worldSize, Random random) {
+        double[][] centres = new double[HOTSPOTS][2];
+        for (double[] c : centres) {
+            c[0] = random.nextDouble() * worldSize;
+            c[1] = random.nextDouble() * worldSize;
+        }
+        List<Microbe> microbes = new ArrayList<>(population);
+        for (int i = 0; i < population; i++) {
+            double x;
+            double y;
+            if (random.nextDouble() < CLUSTERED_FRACTION) {
+                double[] c = centres[random.nextInt(HOTSPOTS)];
+                x = c[0] + random.nextGaussian() * HOTSPOT_SIGMA;
+                y = c[1] + random.nextGaussian() * HOTSPOT_SIGMA;
+            } else {
+                x = random.nextDouble() * worldSize;
+                y = random.nextDouble() * worldSize;
+            }
+            microbes.add(new Microbe(Math.max(0, Math.min(worldSize, x)), Math.max(0, Math.min(worldSize, y))));
+        }
+        return microbes;
+    }
+}
@@ -0,0 +1,88 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the FoodStore class: consumption bits, slot recycling, growth and the
+ * render view.
+ */
+class FoodStoreTest {
+
+    @Test
+    void constructorShouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new FoodStore(0));
+    }
+
+    @Test
+    void pelletShouldBeConsumedOnlyOnce() {
+        FoodStore food = new FoodStore(10);
+        int slot = food.add(5, 7);
+
+        assertFalse(food.isConsumed(slot));
+        assertEquals(5, food.getX(slot));
+        assertEquals(FoodPellet.ENERGY_VALUE, food.consume(slot));
+        assertEquals(0.0, food.consume(slot));
+        assertTrue(food.isConsumed(slot));
+    }
+
+    @Test
+    void eatenSlotsShouldBeReusedAfterRecycling() {
+        FoodStore food = new FoodStore(10);
+        for (int i = 0; i < 4; i++) {
+            food.add(i, i);
+        }
+        food.consume(1);
+        food.consume(2);
+        assertEquals(4, food.size(), "Eaten pellets count until recycled");
+
+        food.recycleConsumed();
+        food.recycleConsumed(); // Idempotent
+        assertEquals(2, food.size());
+        int first = food.add(10, 10);
+        int second = food.add(20, 20);
+        assertEquals(java.util.Set.of(1, 2), java.util.Set.of(first, second));
+        assertEquals(4, food.slotCount());
+        assertFalse(food.isConsumed(first));
+        assertEquals(4, food.add(30, 30));
+    }
+
+    @Test
+    void storeShouldGrowUpToItsCapacity() {
+        FoodStore food = new FoodStore(1000);
+        for (int i = 0; i < 1000; i++) {
+            food.add(i, -i);
+        }
+        assertEquals(999, food.getX(999));
+        assertEquals(-500, food.getY(500));
+        assertThrows(IllegalStateException.class, () -> food.add(0, 0));
+    }
+
+    @Test
+    void viewShouldShowTheLivePellets() {
+        FoodStore food = new FoodStore(200);
+        for (int i = 0; i < 130; i++) {
+            food.add(i, i);
+        }
+        food.consume(3);
+        food.consume(129);
+        FoodStore.View view = food.view();
+
+        assertEquals(130, view.slotCount());
+        assertEquals(128, view.count());
+        assertTrue(view.isConsumed(3));
+        assertEquals(64, view.x()[64]);
+        assertSame(view, food.view(), "Unchanged store should not allocate a new view");
+    }
+
+    @Test
+    void collisionShouldIgnoreEatenPellets() {
+        FoodStore food = new FoodStore(4);
+        int slot = food.add(50, 50);
+        assertTrue(food.checkCollision(slot, 55, 50, Microbe.SIZE));
+        assertFalse(food.checkCollision(slot, 80, 50, Microbe.SIZE));
+        food.consume(slot);
+        assertFalse(food.checkCollision(slot, 55, 50, Microbe.SIZE));
+    }
+}
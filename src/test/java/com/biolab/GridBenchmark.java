@@ -0,0 +1,217 @@
+package com.biolab;
+
+import java.lang.ref.Reference;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Stand-alone memory and throughput comparison of the {@link MicrobeGrid} layouts
+ * (per-cell buckets vs. compact counting sort) and of the compact {@link SpatialGrid}.
+ *
+ * <p>Not a JUnit test (the name does not end in {@code Test}, so Surefire skips it).
+ * Run after {@code mvn test-compile} with:</p>
+ * <pre>
+ * java -Xmx3g -cp target/classes:target/test-classes com.biolab.GridBenchmark [entities...]
+ * </pre>
+ *
+ * <p>Entities are spread uniformly over the default 10 000 × 10 000 world with the
+ * engine's cell size of 30 (about 111k cells); the default counts are 20 000 and
+ * 1 000 000. Memory is the retained heap of the index after a rebuild, measured as
+ * the used-heap difference around it (after forced GCs), so it is approximate.
+ * Throughput is one 3×3 neighbourhood query per entity, at the entity's position
+ * (a nearest-pellet query for the food grid).</p>
+ *
+ * <p>Nearest-microbe searches are compared as well, on the compact layout and with
+ * half of the entities in a few dense hotspots: a scan of the 3×3 neighbourhood for
+ * the nearest entity, and {@link MicrobeIndex#findKNearest} at several radii – among
+ * them the engine's {@link SimulationEngine#getSenseRadius() sense radius} – on the
+ * grid and on a {@link MicrobeQuadtree} (whose rebuild time is reported too). Each
+ * line reports the entities visited per query.</p>
+ */
+public final class GridBenchmark {
+
+    private static final int WORLD = 10_000;
+    private static final int CELL = 30;
+    private static final int ROUNDS = 5;
+
+    private GridBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int[] counts = args.length == 0 ? new int[]{20_000, 1_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            counts[i] = Integer.parseInt(args[i]);
+        }
+        for (int count : counts) {
+            benchmarkMicrobeGrid(count, false);
+            benchmarkMicrobeGrid(count, true);
+            benchmarkSpatialGrid(count);
+            benchmarkNearestQueries(count);
+        }
+    }
+
+    private static void benchmarkMicrobeGrid(int count, boolean compact) {
+        SplittableRandom random = new SplittableRandom(42);
+        MicrobeStore store = new MicrobeStore(count, 42L);
+        for (int i = 0; i < count; i++) {
+            store.add(new Microbe(random.nextDouble() * WORLD, random.nextDouble() * WORLD, random));
+        }
+
+        long before = usedHeap();
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        rebuild(grid, store, compact);
+        long retained = usedHeap() - before;
+
+        long rebuildNanos = Long.MAX_VALUE;
+        long queryNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            rebuild(grid, store, compact);
+            rebuildNanos = Math.min(rebuildNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int slot = 0; slot < count; slot++) {
+                checksum += grid.getNearbySlots(store.getX(slot), store.getY(slot)).length;
+            }
+            queryNanos = Math.min(queryNanos, System.nanoTime() - start);
+        }
+        report("MicrobeGrid " + (compact ? "compact" : "buckets"), count, retained, rebuildNanos, queryNanos, checksum);
+        Reference.reachabilityFence(grid);
+    }
+
+    private static void benchmarkNearestQueries(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        MicrobeStore store = new MicrobeStore(count, 42L);
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                store.add(new Microbe(random.nextDouble() * WORLD, random.nextDouble() * WORLD, random));
+            } else { // Ten hotspots with a standard deviation of two cells
+                double cx = 500 + (i / 2 % 10) * 900;
+                store.add(new Microbe(cx + random.nextGaussian() * 2 * CELL, cx + random.nextGaussian() * 2 * CELL, random));
+            }
+        }
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        grid.rebuildCompact(store);
+        MicrobeGrid.Neighbours out = new MicrobeGrid.Neighbours();
+
+        long nanos = Long.MAX_VALUE;
+        long visits = 0;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            visits = 0;
+            for (int slot = 0; slot < count; slot++) {
+                double x = store.getX(slot);
+                double y = store.getY(slot);
+                grid.findNearby(x, y, out);
+                int nearest = -1;
+                double best = Double.MAX_VALUE;
+                for (int k = 0; k < out.size(); k++) {
+                    int other = out.get(k);
+                    double dx = store.getX(other) - x;
+                    double dy = store.getY(other) - y;
+                    double dSq = dx * dx + dy * dy;
+                    if (other != slot && dSq < best) {
+                        best = dSq;
+                        nearest = other;
+                    }
+                }
+                visits += out.size();
+                checksum += nearest;
+            }
+            nanos = Math.min(nanos, System.nanoTime() - start);
+        }
+        reportQueries("3x3 scan nearest", count, nanos, visits, checksum);
+
+        MicrobeQuadtree tree = new MicrobeQuadtree(WORLD, WORLD, MicrobeGrid.Diet.ALL);
+        long treeNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            tree.rebuild(store);
+            treeNanos = Math.min(treeNanos, System.nanoTime() - start);
+        }
+        System.out.printf(Locale.ROOT, "%-20s entities=%-8d rebuild %8.2f ms  %d nodes%n",
+                "MicrobeQuadtree", count, treeNanos / 1e6, tree.getNodeCount());
+
+        for (MicrobeIndex index : new MicrobeIndex[]{grid, tree}) {
+            String name = index == grid ? "ring" : "quadtree";
+            for (int k : new int[]{1, 8}) {
+                for (double radius : new double[]{CELL, SimulationEngine.getSenseRadius(), 3 * CELL}) {
+                    nanos = Long.MAX_VALUE;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        long start = System.nanoTime();
+                        visits = 0;
+                        checksum = 0;
+                        for (int slot = 0; slot < count; slot++) {
+                            // One more than k, since the entity itself is found as well
+                            index.findKNearest(store, store.getX(slot), store.getY(slot), radius, k + 1, out);
+                            visits += out.visited();
+                            checksum += out.get(out.size() - 1);
+                        }
+                        nanos = Math.min(nanos, System.nanoTime() - start);
+                    }
+                    reportQueries(name + " k=" + k + " r=" + (int) radius, count, nanos, visits, checksum);
+                }
+            }
+        }
+    }
+
+    private static void reportQueries(String name, int count, long nanos, long visits, long checksum) {
+        System.out.printf(Locale.ROOT, "%-20s entities=%-8d queries %7.2f M/s  %8.1f visits/query  (checksum %d)%n",
+                name, count, count / (nanos / 1e9) / 1e6, (double) visits / count, checksum);
+    }
+
+    private static void rebuild(MicrobeGrid grid, MicrobeStore store, boolean compact) {
+        if (compact) {
+            grid.rebuildCompact(store);
+        } else {
+            grid.rebuild(store);
+        }
+    }
+
+    private static void benchmarkSpatialGrid(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        FoodStore food = new FoodStore(count);
+        for (int i = 0; i < count; i++) {
+            food.add(random.nextDouble() * WORLD, random.nextDouble() * WORLD);
+        }
+
+        long before = usedHeap();
+        SpatialGrid grid = new SpatialGrid(WORLD, WORLD, CELL);
+        grid.rebuild(food);
+        long retained = usedHeap() - before;
+
+        long rebuildNanos = Long.MAX_VALUE;
+        long queryNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            grid.rebuild(food);
+            rebuildNanos = Math.min(rebuildNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int slot = 0; slot < count; slot++) {
+                checksum += grid.nearestFood(food.getX(slot), food.getY(slot), CELL) == slot ? 1 : 0;
+            }
+            queryNanos = Math.min(queryNanos, System.nanoTime() - start);
+        }
+        report("SpatialGrid compact", count, retained, rebuildNanos, queryNanos, checksum);
+        Reference.reachabilityFence(grid);
+    }
+
+    private static void report(String name, int count, long retainedBytes, long rebuildNanos, long queryNanos,
+                               long checksum) {
+        System.out.printf(Locale.ROOT,
+                "%-20s entities=%-8d heap %7.1f MB  rebuild %8.2f ms  queries %7.2f M/s  (checksum %d)%n",
+                name, count, retainedBytes / 1e6, rebuildNanos / 1e6, count / (queryNanos / 1e9) / 1e6, checksum);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,131 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the IntentResolver class: intents are applied in slot order,
+ * independent of which worker and thread recorded them.
+ */
+class IntentResolverTest {
+
+    private static final double DAMAGE = 9.0;
+
+    /** Slots 0-1: carnivores; slots 2-3: herbivores. */
+    private static Microbe[] newPopulation() {
+        return new Microbe[]{
+                new Microbe(10, 10, 1.0), new Microbe(12, 10, 1.0),
+                new Microbe(14, 10, 0.0), new Microbe(16, 10, 0.0)};
+    }
+
+    private static MicrobeStore newStore(Microbe[] population) {
+        MicrobeStore store = new MicrobeStore();
+        for (Microbe m : population) {
+            store.add(m);
+        }
+        return store;
+    }
+
+    private static MicrobeStore newStore() {
+        return newStore(newPopulation());
+    }
+
+    private static void runOn(Runnable action) throws InterruptedException {
+        Thread t = new Thread(action);
+        t.start();
+        t.join();
+    }
+
+    @Test
+    void resultShouldNotDependOnRecordingThreadOrOrder() throws InterruptedException {
+        Microbe[] population = newPopulation();
+        MicrobeStore a = newStore(population);
+        MicrobeStore b = newStore(population);
+        // Lethal damage: only the first attacker in slot order gets the victim's energy
+        double lethal = Microbe.getMaxHealth() * 2;
+
+        IntentResolver single = new IntentResolver();
+        single.buffer(0).attack(0, 2, 1, 0);
+        single.buffer(0).attack(1, 2, 1, 0);
+        single.resolve(a, new DietGrids(100, 100, 30), new FoodStore(16), lethal, 1);
+
+        IntentResolver split = new IntentResolver();
+        runOn(() -> split.buffer(0).attack(1, 2, 1, 0));
+        runOn(() -> split.buffer(1).attack(0, 2, 1, 0));
+        split.resolve(b, new DietGrids(100, 100, 30), new FoodStore(16), lethal, 1);
+
+        for (int slot = 0; slot < 4; slot++) {
+            assertEquals(a.getHealth(slot), b.getHealth(slot), 1e-9);
+            assertEquals(a.getEnergy(slot), b.getEnergy(slot), 1e-9);
+            assertEquals(a.getVelocityX(slot), b.getVelocityX(slot), 1e-9);
+        }
+        assertTrue(b.isDead(2));
+    }
+
+    @Test
+    void lowestSlotShouldWinContestedPellet() throws InterruptedException {
+        MicrobeStore store = newStore();
+        FoodStore food = new FoodStore(16);
+        int pellet = food.add(15, 10);
+        double before2 = store.getEnergy(2);
+        double before3 = store.getEnergy(3);
+
+        IntentResolver resolver = new IntentResolver();
+        runOn(() -> resolver.buffer(0).claimFood(3, pellet));
+        runOn(() -> resolver.buffer(1).claimFood(2, pellet));
+        resolver.resolve(store, new DietGrids(100, 100, 30), food, DAMAGE, 1);
+
+        assertTrue(food.isConsumed(pellet));
+        assertTrue(store.getEnergy(2) >= before2);
+        assertEquals(before3, store.getEnergy(3), 1e-9);
+    }
+
+    @Test
+    void buffersShouldBeKeptPerWorkerIndex() throws InterruptedException {
+        IntentResolver resolver = new IntentResolver();
+        resolver.prepare(2);
+        IntentResolver.Buffer first = resolver.buffer(1);
+        IntentResolver.Buffer[] fromOtherThread = new IntentResolver.Buffer[2];
+        runOn(() -> {
+            fromOtherThread[0] = resolver.buffer(1);
+            fromOtherThread[1] = resolver.buffer(5);
+        });
+
+        assertSame(first, fromOtherThread[0]);
+        assertSame(fromOtherThread[1], resolver.buffer(5));
+        assertNotSame(first, resolver.buffer(0));
+    }
+
+    @Test
+    void discardedIntentsShouldNotBeApplied() {
+        MicrobeStore store = newStore();
+        FoodStore food = new FoodStore(16);
+        int pellet = food.add(15, 10);
+        double health = store.getHealth(2);
+
+        IntentResolver resolver = new IntentResolver();
+        resolver.buffer(0).attack(0, 2, 0, 0);
+        resolver.buffer(1).claimFood(3, pellet);
+        resolver.discard();
+        resolver.resolve(store, new DietGrids(100, 100, 30), food, DAMAGE, 1);
+
+        assertEquals(health, store.getHealth(2), 1e-9);
+        assertFalse(food.isConsumed(pellet));
+    }
+
+    @Test
+    void resolveShouldClearBuffers() {
+        MicrobeStore store = newStore();
+        double health = store.getHealth(2);
+
+        IntentResolver resolver = new IntentResolver();
+        resolver.buffer(0).attack(0, 2, 0, 0);
+        resolver.resolve(store, new DietGrids(100, 100, 30), new FoodStore(16), DAMAGE, 1);
+        double afterFirst = store.getHealth(2);
+        resolver.resolve(store, new DietGrids(100, 100, 30), new FoodStore(16), DAMAGE, 1);
+
+        assertEquals(health - DAMAGE, afterFirst, 1e-9);
+        assertEquals(afterFirst, store.getHealth(2), 1e-9);
+    }
+}
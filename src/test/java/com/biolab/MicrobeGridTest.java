@@ -0,0 +1,344 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MicrobeGrid class: grid order, neighbour lookup and incremental
+ * maintenance matching a full rebuild.
+ */
+class MicrobeGridTest {
+
+    private static final int WORLD = 300;
+    private static final int CELL = 30;
+
+    private static MicrobeStore newStore(int count, SplittableRandom random) {
+        MicrobeStore store = new MicrobeStore(count, 1L);
+        for (int i = 0; i < count; i++) {
+            store.add(new Microbe(random.nextDouble() * WORLD, random.nextDouble() * WORLD, random));
+        }
+        return store;
+    }
+
+    private static int[] gridOrder(MicrobeGrid grid) {
+        int[] order = new int[grid.getIndexedCount()];
+        int[] pos = {0};
+        grid.forEachSlotInRange(0, order.length, slot -> order[pos[0]++] = slot);
+        return order;
+    }
+
+    @Test
+    void constructorShouldRejectZeroCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new MicrobeGrid(100, 100, 0));
+    }
+
+    @Test
+    void rebuildShouldIndexEveryLivingSlotOnce() {
+        MicrobeStore store = newStore(200, new SplittableRandom(3));
+        store.takeDamageAndTransferEnergy(7, Microbe.getMaxHealth() * 2, 0);
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        grid.rebuild(store);
+
+        assertEquals(199, grid.getIndexedCount());
+        assertEquals(199, Arrays.stream(gridOrder(grid)).distinct().count());
+        assertFalse(grid.contains(7));
+    }
+
+    @Test
+    void rangesShouldPartitionTheGridOrder() {
+        MicrobeStore store = newStore(200, new SplittableRandom(4));
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        grid.rebuild(store);
+        int[] order = gridOrder(grid);
+
+        int[] pos = {0};
+        for (int from = 0; from < order.length; from += 17) {
+            grid.forEachSlotInRange(from, Math.min(order.length, from + 17),
+                    slot -> assertEquals(order[pos[0]++], slot));
+        }
+        assertEquals(order.length, pos[0]);
+    }
+
+    @Test
+    void insertingAnIndexedSlotShouldBeRejected() {
+        MicrobeStore store = newStore(5, new SplittableRandom(5));
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        grid.rebuild(store);
+        assertThrows(IllegalArgumentException.class, () -> grid.insert(2, 10, 10));
+    }
+
+    @Test
+    void incrementalUpdatesShouldMatchRebuild() {
+        SplittableRandom random = new SplittableRandom(6);
+        MicrobeStore store = newStore(300, random);
+        MicrobeGrid incremental = new MicrobeGrid(WORLD, WORLD, CELL);
+        incremental.rebuild(store);
+
+        for (int tick = 1; tick <= 30; tick++) {
+            // Movement: relocate the slots that crossed a cell boundary
+            for (int slot = 0; slot < store.size(); slot++) {
+                store.move(slot, WORLD, WORLD, tick);
+            }
+            store.swapFrames();
+            for (int slot = 0; slot < store.size(); slot++) {
+                incremental.relocate(slot, store.getX(slot), store.getY(slot));
+            }
+            // Deaths: removed and renumbered while the store compacts
+            for (int k = 0; k < 5; k++) {
+                store.takeDamageAndTransferEnergy(random.nextInt(store.size()), Microbe.getMaxHealth() * 2, tick);
+            }
+            store.removeDead(incremental);
+            // Births
+            for (int k = 0; k < 4; k++) {
+                int slot = store.add(new Microbe(random.nextDouble() * WORLD, random.nextDouble() * WORLD, random));
+                incremental.insert(slot, store.getX(slot), store.getY(slot));
+            }
+
+            MicrobeGrid rebuilt = new MicrobeGrid(WORLD, WORLD, CELL);
+            rebuilt.rebuild(store);
+            assertArrayEquals(gridOrder(rebuilt), gridOrder(incremental), "Grids diverged at tick " + tick);
+            double x = random.nextDouble() * WORLD;
+            double y = random.nextDouble() * WORLD;
+            assertArrayEquals(rebuilt.getNearbySlots(x, y), incremental.getNearbySlots(x, y));
+        }
+    }
+
+    @Test
+    void parallelRenumberingShouldMatchRebuild() throws Exception {
+        SplittableRandom random = new SplittableRandom(11);
+        MicrobeStore store = newStore(400, random);
+        MicrobeGrid incremental = new MicrobeGrid(WORLD, WORLD, CELL);
+        incremental.rebuild(store);
+        TickExecutor executor = new TickExecutor(3, "GridTestWorker");
+        try {
+            for (int tick = 1; tick <= 10; tick++) {
+                for (int k = 0; k < 20; k++) {
+                    store.takeDamageAndTransferEnergy(random.nextInt(store.size()), Microbe.getMaxHealth() * 2, tick);
+                }
+                store.compact(executor, List.of(), Integer.MAX_VALUE, incremental);
+
+                MicrobeGrid rebuilt = new MicrobeGrid(WORLD, WORLD, CELL);
+                rebuilt.rebuild(store);
+                assertEquals(rebuilt.getIndexedCount(), incremental.getIndexedCount());
+                assertArrayEquals(gridOrder(rebuilt), gridOrder(incremental), "Grids diverged at tick " + tick);
+                double x = random.nextDouble() * WORLD;
+                double y = random.nextDouble() * WORLD;
+                assertArrayEquals(rebuilt.getNearbySlots(x, y), incremental.getNearbySlots(x, y));
+            }
+        } finally {
+            executor.shutdown(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void compactLayoutShouldMatchBucketLayout() {
+        SplittableRandom random = new SplittableRandom(7);
+        MicrobeStore store = newStore(500, random);
+        store.takeDamageAndTransferEnergy(11, Microbe.getMaxHealth() * 2, 0);
+        MicrobeGrid buckets = new MicrobeGrid(WORLD, WORLD, CELL);
+        buckets.rebuild(store);
+        MicrobeGrid compact = new MicrobeGrid(WORLD, WORLD, CELL);
+        compact.rebuildCompact(store);
+
+        assertTrue(compact.isCompact());
+        assertEquals(buckets.getIndexedCount(), compact.getIndexedCount());
+        assertArrayEquals(gridOrder(buckets), gridOrder(compact));
+        for (int k = 0; k < 50; k++) {
+            double x = random.nextDouble() * WORLD;
+            double y = random.nextDouble() * WORLD;
+            assertArrayEquals(buckets.getNearbySlots(x, y), compact.getNearbySlots(x, y));
+        }
+        assertArrayEquals(buckets.getNearbySlots(0, WORLD), compact.getNearbySlots(0, WORLD));
+    }
+
+    @Test
+    void findNearbyShouldMatchGetNearbySlotsInBothLayouts() {
+        SplittableRandom random = new SplittableRandom(9);
+        MicrobeStore store = newStore(2000, random);
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        MicrobeGrid.Neighbours neighbours = new MicrobeGrid.Neighbours();
+
+        for (boolean compact : new boolean[]{false, true}) {
+            if (compact) grid.rebuildCompact(store); else grid.rebuild(store);
+            for (int k = 0; k < 50; k++) {
+                double x = random.nextDouble() * WORLD;
+                double y = random.nextDouble() * WORLD;
+                grid.findNearby(x, y, neighbours);
+                int[] found = new int[neighbours.size()];
+                for (int j = 0; j < found.length; j++) {
+                    found[j] = neighbours.get(j);
+                }
+                assertArrayEquals(grid.getNearbySlots(x, y), found, "compact=" + compact);
+            }
+        }
+    }
+
+    @Test
+    void parallelCompactRebuildShouldMatchSerialRebuild() throws Exception {
+        SplittableRandom random = new SplittableRandom(10);
+        MicrobeStore store = newStore(700, random);
+        for (int k = 0; k < 40; k++) {
+            store.takeDamageAndTransferEnergy(random.nextInt(store.size()), Microbe.getMaxHealth() * 2, 0);
+        }
+        for (int k = 0; k < 100; k++) { // A dense cell
+            store.add(new Microbe(200 + random.nextDouble() * 5, 100 + random.nextDouble() * 5, random));
+        }
+        MicrobeGrid serial = new MicrobeGrid(WORLD, WORLD, CELL);
+        serial.rebuildCompact(store);
+        MicrobeGrid parallel = new MicrobeGrid(WORLD, WORLD, CELL);
+        boolean[] ranAlongside = {false};
+        TickExecutor executor = new TickExecutor(3, "GridTestWorker");
+        try {
+            for (int round = 0; round < 2; round++) {
+                parallel.rebuildCompact(store, executor, () -> ranAlongside[0] = true);
+            }
+        } finally {
+            executor.shutdown(1, TimeUnit.SECONDS);
+        }
+
+        assertTrue(ranAlongside[0]);
+        assertEquals(serial.getIndexedCount(), parallel.getIndexedCount());
+        assertArrayEquals(gridOrder(serial), gridOrder(parallel));
+        for (int k = 0; k < 50; k++) {
+            double x = random.nextDouble() * WORLD;
+            double y = random.nextDouble() * WORLD;
+            assertArrayEquals(serial.getNearbySlots(x, y), parallel.getNearbySlots(x, y));
+        }
+        assertArrayEquals(serial.getNearbySlots(202, 102), parallel.getNearbySlots(202, 102));
+    }
+
+    @Test
+    void dietGridShouldListTheSlotsOfItsDietInUndividedOrder() {
+        SplittableRandom random = new SplittableRandom(12);
+        MicrobeStore store = newStore(600, random);
+        store.takeDamageAndTransferEnergy(13, Microbe.getMaxHealth() * 2, 0);
+        MicrobeGrid all = new MicrobeGrid(WORLD, WORLD, CELL);
+        MicrobeGrid carnivores = new MicrobeGrid(WORLD, WORLD, CELL, MicrobeGrid.Diet.CARNIVORES);
+        MicrobeGrid herbivores = new MicrobeGrid(WORLD, WORLD, CELL, MicrobeGrid.Diet.HERBIVORES);
+
+        for (boolean compact : new boolean[]{false, true}) {
+            for (MicrobeGrid grid : List.of(all, carnivores, herbivores)) {
+                if (compact) grid.rebuildCompact(store); else grid.rebuild(store);
+            }
+            assertEquals(all.getIndexedCount(), carnivores.getIndexedCount() + herbivores.getIndexedCount());
+            assertArrayEquals(Arrays.stream(gridOrder(all)).filter(store::isCarnivore).toArray(),
+                    gridOrder(carnivores), "compact=" + compact);
+            for (int k = 0; k < 50; k++) {
+                double x = random.nextDouble() * WORLD;
+                double y = random.nextDouble() * WORLD;
+                assertArrayEquals(Arrays.stream(all.getNearbySlots(x, y)).filter(s -> !store.isCarnivore(s)).toArray(),
+                        herbivores.getNearbySlots(x, y), "compact=" + compact);
+            }
+        }
+    }
+
+    /** Brute-force k nearest living slots within radius: by distance, then slot. */
+    private static int[] bruteForceNearest(MicrobeStore store, double x, double y, double radius, int k) {
+        return java.util.stream.IntStream.range(0, store.size())
+                .filter(slot -> !store.isDead(slot))
+                .boxed()
+                .filter(slot -> distanceSq(store, slot, x, y) <= radius * radius)
+                .sorted(java.util.Comparator.<Integer>comparingDouble(slot -> distanceSq(store, slot, x, y))
+                        .thenComparingInt(slot -> slot))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static double distanceSq(MicrobeStore store, int slot, double x, double y) {
+        double dx = store.getX(slot) - x;
+        double dy = store.getY(slot) - y;
+        return dx * dx + dy * dy;
+    }
+
+    @Test
+    void kNearestShouldMatchBruteForceInBothLayouts() {
+        SplittableRandom random = new SplittableRandom(13);
+        MicrobeStore store = newStore(400, random);
+        for (int k = 0; k < 10; k++) {
+            store.takeDamageAndTransferEnergy(random.nextInt(store.size()), Microbe.getMaxHealth() * 2, 0);
+        }
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        MicrobeGrid.Neighbours out = new MicrobeGrid.Neighbours();
+
+        for (boolean compact : new boolean[]{false, true}) {
+            if (compact) grid.rebuildCompact(store); else grid.rebuild(store);
+            for (int query = 0; query < 200; query++) {
+                double x = random.nextDouble() * WORLD;
+                double y = random.nextDouble() * WORLD;
+                double radius = random.nextDouble() * 3 * CELL;
+                int k = 1 + random.nextInt(6);
+                grid.findKNearest(store, x, y, radius, k, out);
+                int[] found = new int[out.size()];
+                for (int j = 0; j < found.length; j++) {
+                    found[j] = out.get(j);
+                    assertEquals(distanceSq(store, found[j], x, y), out.distanceSq(j));
+                }
+                assertArrayEquals(bruteForceNearest(store, x, y, radius, k), found,
+                        "compact=" + compact + " radius=" + radius + " k=" + k);
+            }
+        }
+        // A radius spanning the world reaches every slot
+        assertEquals(bruteForceNearest(store, 0, 0, 2 * WORLD, 1)[0], grid.findNearest(store, 0, 0, 2 * WORLD, out));
+        assertEquals(bruteForceNearest(store, WORLD, WORLD, Double.MAX_VALUE, 1)[0],
+                grid.findNearest(store, WORLD, WORLD, Double.MAX_VALUE, out));
+    }
+
+    @Test
+    void nearestShouldStopBeforeScanningTheWholeNeighbourhoodOfAHotspot() {
+        SplittableRandom random = new SplittableRandom(14);
+        MicrobeStore store = new MicrobeStore();
+        for (int i = 0; i < 300; i++) { // 100 microbes in each of three adjacent cells
+            store.add(new Microbe(95 + (i % 3) * CELL + random.nextDouble() * 20, 95 + random.nextDouble() * 20, random));
+        }
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        grid.rebuild(store);
+        MicrobeGrid.Neighbours out = new MicrobeGrid.Neighbours();
+
+        int nearest = grid.findNearest(store, 135, 105, CELL, out);
+        assertEquals(bruteForceNearest(store, 135, 105, CELL, 1)[0], nearest);
+        assertEquals(100, out.visited());
+        assertEquals(-1, grid.findNearest(store, 10, 280, CELL, out));
+    }
+
+    @Test
+    void nearestQueriesShouldRejectInvalidArguments() {
+        MicrobeStore store = newStore(5, new SplittableRandom(15));
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        grid.rebuild(store);
+        MicrobeGrid.Neighbours out = new MicrobeGrid.Neighbours();
+        assertThrows(IllegalArgumentException.class, () -> grid.findNearest(store, 10, 10, -1, out));
+        assertThrows(IllegalArgumentException.class, () -> grid.findKNearest(store, 10, 10, CELL, 0, out));
+    }
+
+    @Test
+    void compactLayoutShouldRejectIncrementalUpdates() {
+        MicrobeStore store = newStore(20, new SplittableRandom(8));
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        grid.rebuildCompact(store);
+        assertThrows(IllegalStateException.class, () -> grid.relocate(0, 1, 1));
+        assertThrows(IllegalStateException.class, () -> grid.remove(0));
+
+        grid.rebuild(store);
+        assertFalse(grid.isCompact());
+        grid.remove(0);
+        assertEquals(19, grid.getIndexedCount());
+    }
+
+    @Test
+    void crossingShouldOnlyBeReportedForAnotherCell() {
+        MicrobeStore store = new MicrobeStore();
+        store.add(new Microbe(45, 45));
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL);
+        grid.rebuild(store);
+
+        assertFalse(grid.crossesCell(0, 59, 31));
+        assertTrue(grid.crossesCell(0, 61, 45));
+    }
+}
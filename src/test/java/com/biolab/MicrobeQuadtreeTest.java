@@ -0,0 +1,140 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MicrobeQuadtree class: index order, adaptive subdivision and
+ * nearest-slot queries matching the uniform grid.
+ */
+class MicrobeQuadtreeTest {
+
+    private static final int WORLD = 300;
+    private static final int CELL = 30;
+
+    /** A store with microbes spread over the world and a dense hotspot. */
+    private static MicrobeStore newStore(SplittableRandom random) {
+        MicrobeStore store = new MicrobeStore();
+        for (int i = 0; i < 300; i++) {
+            store.add(new Microbe(random.nextDouble() * WORLD, random.nextDouble() * WORLD, random));
+        }
+        for (int i = 0; i < 400; i++) {
+            store.add(new Microbe(200 + random.nextDouble() * 10, 80 + random.nextDouble() * 10, random));
+        }
+        for (int i = 0; i < 20; i++) {
+            store.takeDamageAndTransferEnergy(random.nextInt(store.size()), Microbe.getMaxHealth() * 2, 0);
+        }
+        return store;
+    }
+
+    private static int[] indexOrder(MicrobeIndex index) {
+        int[] order = new int[index.getIndexedCount()];
+        int[] pos = {0};
+        index.forEachSlotInRange(0, order.length, slot -> order[pos[0]++] = slot);
+        return order;
+    }
+
+    private static int[] found(MicrobeGrid.Neighbours out) {
+        int[] slots = new int[out.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = out.get(i);
+        }
+        return slots;
+    }
+
+    @Test
+    void rebuildShouldIndexEveryLivingSlotOfItsDietOnce() {
+        MicrobeStore store = newStore(new SplittableRandom(1));
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL, MicrobeGrid.Diet.HERBIVORES);
+        grid.rebuild(store);
+        MicrobeQuadtree tree = new MicrobeQuadtree(WORLD, WORLD, MicrobeGrid.Diet.HERBIVORES);
+        tree.rebuild(store);
+
+        int[] expected = indexOrder(grid);
+        int[] actual = indexOrder(tree);
+        Arrays.sort(expected);
+        Arrays.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void denseRegionsShouldBeSubdivided() {
+        MicrobeStore store = newStore(new SplittableRandom(2));
+        MicrobeQuadtree tree = new MicrobeQuadtree(WORLD, WORLD, MicrobeGrid.Diet.ALL);
+        tree.rebuild(store);
+        MicrobeGrid.Neighbours out = new MicrobeGrid.Neighbours();
+
+        // The hotspot holds 400 microbes within one grid cell; a query inside it visits few leaves
+        tree.findNearest(store, 205, 85, CELL, out);
+        assertTrue(out.visited() <= 4 * MicrobeQuadtree.LEAF_CAPACITY, "visited " + out.visited());
+        assertTrue(tree.getNodeCount() > 1);
+    }
+
+    @Test
+    void nearestQueriesShouldMatchTheGrid() {
+        SplittableRandom random = new SplittableRandom(3);
+        MicrobeStore store = newStore(random);
+        MicrobeGrid grid = new MicrobeGrid(WORLD, WORLD, CELL, MicrobeGrid.Diet.CARNIVORES);
+        grid.rebuild(store);
+        MicrobeQuadtree tree = new MicrobeQuadtree(WORLD, WORLD, MicrobeGrid.Diet.CARNIVORES);
+        tree.rebuild(store);
+        MicrobeGrid.Neighbours expected = new MicrobeGrid.Neighbours();
+        MicrobeGrid.Neighbours actual = new MicrobeGrid.Neighbours();
+
+        for (int query = 0; query < 300; query++) {
+            double x = query % 3 == 0 ? 200 + random.nextDouble() * 10 : random.nextDouble() * WORLD;
+            double y = query % 3 == 0 ? 80 + random.nextDouble() * 10 : random.nextDouble() * WORLD;
+            double radius = random.nextDouble() * 3 * CELL;
+            int k = 1 + random.nextInt(8);
+            grid.findKNearest(store, x, y, radius, k, expected);
+            tree.findKNearest(store, x, y, radius, k, actual);
+            assertArrayEquals(found(expected), found(actual), "radius=" + radius + " k=" + k);
+            assertEquals(grid.findNearest(store, x, y, radius, expected), tree.findNearest(store, x, y, radius, actual));
+        }
+        assertEquals(grid.findNearest(store, 0, WORLD, 2 * WORLD, expected),
+                tree.findNearest(store, 0, WORLD, 2 * WORLD, actual));
+    }
+
+    @Test
+    void emptyTreeShouldFindNothing() {
+        MicrobeQuadtree tree = new MicrobeQuadtree(WORLD, WORLD, MicrobeGrid.Diet.ALL);
+        tree.rebuild(new MicrobeStore());
+        assertEquals(0, tree.getIndexedCount());
+        assertEquals(-1, tree.findNearest(new MicrobeStore(), 10, 10, WORLD, new MicrobeGrid.Neighbours()));
+    }
+
+    @Test
+    void rebuildCompactShouldMatchRebuildAndRunAlongside() throws Exception {
+        MicrobeStore store = newStore(new SplittableRandom(4));
+        MicrobeQuadtree serial = new MicrobeQuadtree(WORLD, WORLD, MicrobeGrid.Diet.ALL);
+        serial.rebuild(store);
+        MicrobeQuadtree parallel = new MicrobeQuadtree(WORLD, WORLD, MicrobeGrid.Diet.ALL);
+        boolean[] ranAlongside = {false};
+        TickExecutor executor = new TickExecutor(3, "QuadtreeTestWorker");
+        try {
+            parallel.rebuildCompact(store, executor, () -> ranAlongside[0] = true);
+        } finally {
+            executor.shutdown(1, TimeUnit.SECONDS);
+        }
+
+        assertTrue(ranAlongside[0]);
+        assertArrayEquals(indexOrder(serial), indexOrder(parallel));
+        assertEquals(serial.getNodeCount(), parallel.getNodeCount());
+    }
+
+    @Test
+    void incrementalUpdatesShouldBeRejected() {
+        MicrobeQuadtree tree = new MicrobeQuadtree(WORLD, WORLD, MicrobeGrid.Diet.ALL);
+        assertFalse(tree.supportsIncrementalUpdates());
+        assertThrows(IllegalStateException.class, () -> tree.insert(0, 1, 1));
+        assertThrows(IllegalStateException.class, () -> tree.relocate(0, 1, 1));
+        assertThrows(IllegalStateException.class, () -> tree.remove(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> tree.findNearest(new MicrobeStore(), 1, 1, -1, new MicrobeGrid.Neighbours()));
+    }
+}
@@ -0,0 +1,189 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MicrobeStore class: slot seeding, per-slot simulation logic,
+ * compaction of dead slots and view synchronisation.
+ */
+class MicrobeStoreTest {
+
+    // ===== Adding =====
+
+    @Test
+    void addShouldSeedSlotFromMicrobeState() {
+        MicrobeStore store = new MicrobeStore(1);
+        Microbe m = new Microbe(12, 34);
+        int slot = store.add(m);
+
+        assertEquals(0, slot);
+        assertEquals(1, store.size());
+        assertSame(m, store.getView(slot));
+        assertEquals(12, store.getX(slot), 1e-9);
+        assertEquals(34, store.getY(slot), 1e-9);
+        assertEquals(m.getHealth(), store.getHealth(slot), 1e-9);
+        assertEquals(m.getEnergy(), store.getEnergy(slot), 1e-9);
+        assertEquals(m.isCarnivore(), store.isCarnivore(slot));
+    }
+
+    @Test
+    void storeShouldGrowBeyondInitialCapacity() {
+        MicrobeStore store = new MicrobeStore(2);
+        for (int i = 0; i < 100; i++) {
+            store.add(new Microbe(i, i));
+        }
+        assertEquals(100, store.size());
+        assertEquals(99, store.getX(99), 1e-9);
+    }
+
+    // ===== Simulation logic =====
+
+    @Test
+    void moveShouldConsumeEnergyAndStayInBounds() {
+        MicrobeStore store = new MicrobeStore();
+        int slot = store.add(new Microbe(0, 0));
+        double before = store.getEnergy(slot);
+        for (int i = 0; i < 500; i++) {
+            store.move(slot, 100, 100, 0);
+            store.swapFrames();
+        }
+        assertTrue(store.getEnergy(slot) < before, "Movement should cost energy");
+        assertTrue(store.getX(slot) >= 0 && store.getX(slot) <= 100);
+        assertTrue(store.getY(slot) >= 0 && store.getY(slot) <= 100);
+    }
+
+    @Test
+    void moveShouldOnlyBecomeVisibleAfterSwap() {
+        MicrobeStore store = new MicrobeStore();
+        int slot = store.add(new Microbe(50, 50));
+        store.move(slot, 100, 100, 0);
+
+        assertEquals(50, store.getX(slot), 1e-9, "Current frame must not change during the phase");
+        assertEquals(50, store.getY(slot), 1e-9);
+        double nextX = store.getNextX(slot);
+        double nextY = store.getNextY(slot);
+
+        store.swapFrames();
+        assertEquals(nextX, store.getX(slot), 1e-9);
+        assertEquals(nextY, store.getY(slot), 1e-9);
+    }
+
+    @Test
+    void lethalDamageShouldTransferAllRemainingEnergy() {
+        MicrobeStore store = new MicrobeStore();
+        int slot = store.add(new Microbe(10, 10));
+        double energy = store.getEnergy(slot);
+
+        double gained = store.takeDamageAndTransferEnergy(slot, Microbe.getMaxHealth() * 2, 0);
+
+        assertEquals(energy, gained, 1e-9);
+        assertTrue(store.isDead(slot));
+    }
+
+    // ===== Compaction =====
+
+    @Test
+    void removeDeadShouldPreserveSurvivorOrder() {
+        MicrobeStore store = new MicrobeStore();
+        Microbe a = new Microbe(1, 1);
+        Microbe b = new Microbe(2, 2);
+        Microbe c = new Microbe(3, 3);
+        store.add(a);
+        int slotB = store.add(b);
+        store.add(c);
+
+        store.takeDamageAndTransferEnergy(slotB, Microbe.getMaxHealth() * 2, 0);
+        int removed = store.removeDead();
+
+        assertEquals(1, removed);
+        assertEquals(List.of(a, c), store.copyViews());
+        assertEquals(3, store.getX(1), 1e-9);
+    }
+
+    @Test
+    void parallelCompactShouldMatchRemoveDeadAndAdd() throws Exception {
+        MicrobeStore serial = new MicrobeStore(4, 9L);
+        MicrobeStore parallel = new MicrobeStore(4, 9L);
+        for (int i = 0; i < 50; i++) {
+            serial.add(new Microbe(i, i));
+            parallel.add(new Microbe(i, i));
+        }
+        for (int slot = 0; slot < 50; slot += 3) {
+            serial.takeDamageAndTransferEnergy(slot, Microbe.getMaxHealth() * 2, 0);
+            parallel.takeDamageAndTransferEnergy(slot, Microbe.getMaxHealth() * 2, 0);
+        }
+        List<List<Microbe>> newborns = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (int i = 0; i < 12; i++) {
+            newborns.get(i % 3).add(new Microbe(100 + i, 100 + i));
+        }
+        Microbe dying = parallel.getView(0);
+
+        serial.removeDead();
+        for (List<Microbe> list : newborns) {
+            for (int i = 0; i < list.size() && serial.size() < 40; i++) {
+                serial.add(list.get(i));
+            }
+        }
+        TickExecutor executor = new TickExecutor(3, "StoreTestWorker");
+        int appended;
+        try {
+            appended = parallel.compact(executor, newborns, 40, null);
+        } finally {
+            executor.shutdown(1, TimeUnit.SECONDS);
+        }
+
+        assertTrue(dying.isDead(), "Views should be refreshed before removal");
+        assertEquals(40 - 33, appended);
+        assertEquals(serial.size(), parallel.size());
+        assertEquals(serial.copyViews().subList(33, 40), parallel.copyViews().subList(33, 40));
+        for (int slot = 0; slot < serial.size(); slot++) {
+            assertEquals(serial.getX(slot), parallel.getX(slot), 1e-9);
+            assertEquals(serial.getEnergy(slot), parallel.getEnergy(slot), 1e-9);
+            assertEquals(serial.getRandom(slot).nextLong(), parallel.getRandom(slot).nextLong());
+        }
+    }
+
+    @Test
+    void permuteShouldMoveEverySlotToItsNewPosition() throws Exception {
+        MicrobeStore store = new MicrobeStore(4, 3L);
+        Microbe[] microbes = new Microbe[10];
+        for (int i = 0; i < microbes.length; i++) {
+            microbes[i] = new Microbe(i, 2 * i);
+            store.add(microbes[i]);
+        }
+        int[] order = {9, 3, 0, 8, 1, 7, 2, 6, 4, 5};
+
+        TickExecutor executor = new TickExecutor(3, "StoreTestWorker");
+        try {
+            store.permute(order, executor);
+        } finally {
+            executor.shutdown(1, TimeUnit.SECONDS);
+        }
+
+        assertEquals(10, store.size());
+        for (int slot = 0; slot < order.length; slot++) {
+            assertSame(microbes[order[slot]], store.getView(slot));
+            assertEquals(order[slot], store.getX(slot), 1e-9);
+            assertEquals(2 * order[slot], store.getY(slot), 1e-9);
+        }
+    }
+
+    @Test
+    void syncViewsShouldExposeDeathToViewHolders() {
+        MicrobeStore store = new MicrobeStore();
+        Microbe m = new Microbe(5, 5);
+        int slot = store.add(m);
+
+        store.takeDamageAndTransferEnergy(slot, Microbe.getMaxHealth() * 2, 0);
+        assertFalse(m.isDead(), "View should not change before synchronisation");
+
+        store.syncViews();
+        assertTrue(m.isDead(), "View should observe death after synchronisation");
+    }
+}
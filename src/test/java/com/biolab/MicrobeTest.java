@@ -4,6 +4,9 @@ import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 
 import java.awt.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,7 +61,7 @@ class MicrobeTest {
         Microbe m = new Microbe(0, 0);
         int worldSize = 1000;
         for (int i = 0; i < 1000; i++) {
-            m.move(worldSize, worldSize);
+            m.move(worldSize, worldSize, 0);
         }
         assertTrue(m.getX() >= 0 && m.getX() <= worldSize,
                 "X out of bounds: " + m.getX());
@@ -72,7 +75,7 @@ class MicrobeTest {
     void moveShouldConsumeEnergy() {
         Microbe m = new Microbe(500, 500);
         double initialEnergy = m.getEnergy();
-        m.move(1000, 1000);
+        m.move(1000, 1000, 0);
         assertTrue(m.getEnergy() < initialEnergy, "Energy should decrease after moving");
     }
 
@@ -105,7 +108,7 @@ class MicrobeTest {
         Microbe m = new Microbe(100, 100);
         // Drain energy via movement
         for (int i = 0; i < 100000; i++) {
-            m.move(10000, 10000);
+            m.move(10000, 10000, 0);
             if (m.isDead()) break;
         }
         assertTrue(m.isDead(), "Microbe should eventually die from energy depletion");
@@ -145,6 +148,32 @@ class MicrobeTest {
         assertEquals(0, child.getAncestry().get(0).generation(), "First ancestor should be generation 0 (parent)");
     }
 
+    @Test
+    void idBlocksShouldHandOutDistinctIncreasingIds() {
+        Microbe.IdBlock first = new Microbe.IdBlock();
+        Microbe.IdBlock second = new Microbe.IdBlock();
+        Set<Long> ids = new HashSet<>();
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < Microbe.IdBlock.SIZE + 10; i++) {
+            long id = first.nextId();
+            assertTrue(id > previous, "IDs of one block should increase");
+            previous = id;
+            assertTrue(ids.add(id));
+            assertTrue(ids.add(second.nextId()));
+            assertTrue(ids.add(new Microbe(0, 0).getId()));
+        }
+    }
+
+    @Test
+    void childShouldTakeItsIdFromTheBlock() {
+        Microbe parent = new Microbe(100, 100);
+        Microbe.IdBlock ids = new Microbe.IdBlock();
+        long expected = ids.nextId() + 1;
+        Microbe child = new Microbe(parent, 100, 100, new SplittableRandom(1), ids);
+        assertEquals(expected, child.getId());
+        assertEquals(parent.getId(), child.getParentId());
+    }
+
     @Test
     void ancestryDepthShouldBeLimited() {
         // Create a chain of generations
@@ -219,7 +248,7 @@ class MicrobeTest {
     void eatShouldIncreaseEnergy() {
         Microbe m = new Microbe(100, 100);
         // First drain some energy
-        m.move(1000, 1000);
+        m.move(1000, 1000, 0);
         double before = m.getEnergy();
         m.eat(10.0);
         assertTrue(m.getEnergy() > before, "Energy should increase after eating");
@@ -0,0 +1,54 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MortonOrder class: key interleaving and the radix sort.
+ */
+class MortonOrderTest {
+
+    private static final int CELL = 10;
+
+    @Test
+    void keysShouldInterleaveColumnAndRowBits() {
+        assertEquals(0, MortonOrder.key(0, 0));
+        assertEquals(1, MortonOrder.key(1, 0));
+        assertEquals(2, MortonOrder.key(0, 1));
+        assertEquals(3, MortonOrder.key(1, 1));
+        assertEquals(4, MortonOrder.key(2, 0));
+        assertEquals(0xFFFFFFFF, MortonOrder.key(0xFFFF, 0xFFFF));
+    }
+
+    @Test
+    void sortShouldOrderSlotsByCellKeyAndKeepTiesInSlotOrder() {
+        MicrobeStore store = new MicrobeStore(8, 1L);
+        store.add(new Microbe(15, 15)); // cell (1,1): key 3
+        store.add(new Microbe(5, 5));   // cell (0,0): key 0
+        store.add(new Microbe(25, 5));  // cell (2,0): key 4
+        store.add(new Microbe(5, 15));  // cell (0,1): key 2
+        store.add(new Microbe(6, 6));   // cell (0,0): key 0
+        store.add(new Microbe(15, 5));  // cell (1,0): key 1
+
+        int[] order = new MortonOrder().sort(store, CELL);
+
+        assertArrayEquals(new int[]{1, 4, 5, 3, 0, 2}, Arrays.copyOf(order, store.size()));
+    }
+
+    @Test
+    void sortShouldHandleKeysNeedingSeveralPasses() {
+        MicrobeStore store = new MicrobeStore(4, 1L);
+        store.add(new Microbe(60_000, 60_000));
+        store.add(new Microbe(0, 0));
+        store.add(new Microbe(3_000, 0));
+
+        MortonOrder mortonOrder = new MortonOrder();
+        int[] order = mortonOrder.sort(store, CELL);
+        assertArrayEquals(new int[]{1, 2, 0}, Arrays.copyOf(order, store.size()));
+        // Buffers are reused: a second sort of the same store gives the same order
+        assertArrayEquals(new int[]{1, 2, 0}, Arrays.copyOf(mortonOrder.sort(store, CELL), store.size()));
+    }
+}
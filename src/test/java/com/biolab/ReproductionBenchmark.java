@@ -0,0 +1,199 @@
+package com.biolab;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-alone contention benchmark for handing out the population budget to
+ * reproducing microbes.
+ *
+ * <p>Not a JUnit test (the name does not end in {@code Test}, so Surefire skips it).
+ * Run after {@code mvn test-compile} with:</p>
+ * <pre>
+ * java -cp target/classes:target/test-classes com.biolab.ReproductionBenchmark \
+ *      [parents] [budget] [workers] [eligible fraction]
+ * </pre>
+ *
+ * <p>Every round is one reproduction phase on a {@link TickExecutor} over
+ * {@code parents} slots, of which the given fraction is ready to reproduce (default
+ * 0.5, a baby boom), while only {@code budget} births are allowed (default: a quarter
+ * of the parents, so the cap binds). Three schemes are compared:</p>
+ * <ul>
+ *   <li>{@code cas}: the engine's original scheme, one CAS retry loop with
+ *       {@link Thread#yield()} back-off on a shared counter per birth;</li>
+ *   <li>{@code blocks}: every worker claims {@value #BLOCK} births at a time from the
+ *       shared counter and returns the unused rest at the end of its partition (births
+ *       a worker holds back this way may be denied to other workers in the same round);</li>
+ *   <li>{@code quotas}: the engine's current scheme, a counting phase, a serial split
+ *       of the budget into per-worker quotas, and a spawning phase that touches no
+ *       shared state.</li>
+ * </ul>
+ * <p>Spawning a child is reduced to a per-worker counter so that the figures show the
+ * cost of the reservation itself. The number of births is checked against the budget
+ * after every round; only {@code quotas} also grants the births to the same parents
+ * regardless of the worker count.</p>
+ */
+public final class ReproductionBenchmark {
+
+    private static final int BLOCK = 64;
+    private static final int ROUNDS = 200;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MAX_ATTEMPTS = 100;
+    private static final int MIN_RETRIES_BEFORE_BACKOFF = 3;
+    /** Births per worker, padded to a cache line each so that counting does not contend. */
+    private static final int PAD = 16;
+
+    private final boolean[] eligible;
+    private final int budget;
+    private final TickExecutor executor;
+    private final AtomicInteger available = new AtomicInteger();
+    private final long[] births;
+    private final int[] counted;
+    private final int[] quota;
+
+    private ReproductionBenchmark(boolean[] eligible, int budget, TickExecutor executor) {
+        this.eligible = eligible;
+        this.budget = budget;
+        this.executor = executor;
+        int workers = executor.getWorkerCount();
+        this.births = new long[workers * PAD];
+        this.counted = new int[workers];
+        this.quota = new int[workers];
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int parents = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int budget = args.length > 1 ? Integer.parseInt(args[1]) : parents / 4;
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        double fraction = args.length > 3 ? Double.parseDouble(args[3]) : 0.5;
+
+        SplittableRandom random = new SplittableRandom(42);
+        boolean[] eligible = new boolean[parents];
+        for (int i = 0; i < parents; i++) {
+            eligible[i] = random.nextDouble() < fraction;
+        }
+
+        TickExecutor executor = new TickExecutor(workers, "ReproBench");
+        try {
+            ReproductionBenchmark benchmark = new ReproductionBenchmark(eligible, budget, executor);
+            System.out.printf(Locale.ROOT, "parents=%d budget=%d workers=%d eligible=%.2f%n",
+                    parents, budget, workers, fraction);
+            benchmark.measure("cas", benchmark::casPhase);
+            benchmark.measure("blocks", benchmark::blockPhase);
+            benchmark.measure("quotas", benchmark::quotaPhases);
+        } finally {
+            executor.shutdown(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private void measure(String name, Runnable round) {
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            runRound(round);
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        long granted = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            granted = runRound(round);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        System.out.printf(Locale.ROOT, "%-7s best %8.1f us  mean %8.1f us  births %d%n",
+                name, best / 1e3, total / 1e3 / ROUNDS, granted);
+    }
+
+    private long runRound(Runnable round) {
+        available.set(budget);
+        Arrays.fill(births, 0);
+        round.run();
+        long granted = 0;
+        for (int w = 0; w < executor.getWorkerCount(); w++) {
+            granted += births[w * PAD];
+        }
+        if (granted > budget) {
+            throw new IllegalStateException(granted + " births exceed the budget of " + budget);
+        }
+        return granted;
+    }
+
+    private void casPhase() {
+        executor.runPhase((worker, workers) -> {
+            long born = 0;
+            for (int i = start(worker, workers), end = start(worker + 1, workers); i < end; i++) {
+                if (!eligible[i]) continue;
+                for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                    int slots = available.get();
+                    if (slots <= 0) break;
+                    if (available.compareAndSet(slots, slots - 1)) {
+                        born++;
+                        break;
+                    }
+                    if (attempt >= MIN_RETRIES_BEFORE_BACKOFF) Thread.yield();
+                }
+            }
+            births[worker * PAD] = born;
+        });
+    }
+
+    private void blockPhase() {
+        executor.runPhase((worker, workers) -> {
+            long born = 0;
+            int reserved = 0;
+            for (int i = start(worker, workers), end = start(worker + 1, workers); i < end; i++) {
+                if (!eligible[i]) continue;
+                if (reserved == 0) {
+                    reserved = claimBlock();
+                    if (reserved == 0) break;
+                }
+                reserved--;
+                born++;
+            }
+            if (reserved > 0) available.addAndGet(reserved);
+            births[worker * PAD] = born;
+        });
+    }
+
+    /** Claims up to {@value #BLOCK} births; returns how many were granted. */
+    private int claimBlock() {
+        while (true) {
+            int slots = available.get();
+            if (slots <= 0) return 0;
+            int claim = Math.min(BLOCK, slots);
+            if (available.compareAndSet(slots, slots - claim)) return claim;
+        }
+    }
+
+    private void quotaPhases() {
+        executor.runPhase((worker, workers) -> {
+            int count = 0;
+            for (int i = start(worker, workers), end = start(worker + 1, workers); i < end; i++) {
+                if (eligible[i]) count++;
+            }
+            counted[worker] = count;
+        });
+        int remaining = budget;
+        for (int w = 0; w < quota.length; w++) {
+            quota[w] = Math.min(counted[w], remaining);
+            remaining -= quota[w];
+        }
+        executor.runPhase((worker, workers) -> {
+            long born = 0;
+            int left = quota[worker];
+            for (int i = start(worker, workers), end = start(worker + 1, workers); i < end && left > 0; i++) {
+                if (!eligible[i]) continue;
+                left--;
+                born++;
+            }
+            births[worker * PAD] = born;
+        });
+    }
+
+    private int start(int worker, int workers) {
+        return (int) ((long) eligible.length * worker / workers);
+    }
+}
@@ -0,0 +1,89 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Scenario record and the headless runner that executes it.
+ */
+class ScenarioTest {
+
+    private static Properties props(String... keyValues) {
+        Properties props = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            props.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return props;
+    }
+
+    @Test
+    void missingKeysShouldTakeDefaults() {
+        Scenario scenario = Scenario.fromProperties(props("seed", "7"));
+        assertEquals(10_000, scenario.worldWidth());
+        assertEquals(20_000, scenario.initialPopulation());
+        assertEquals(0.3, scenario.temperature(), 1e-9);
+        assertEquals(1000, scenario.ticks());
+        assertEquals(7, scenario.seed());
+        assertEquals(SimulationEngine.Scheduling.WORK_STEALING, scenario.scheduling());
+    }
+
+    @Test
+    void valuesShouldBeParsed() {
+        Scenario scenario = Scenario.fromProperties(props(
+                "world.width", "500", "world.height", "400", "environment.toxicity", "0.8",
+                "scheduling", "static_partitions", "stats.interval", "0"));
+        assertEquals(500, scenario.worldWidth());
+        assertEquals(400, scenario.worldHeight());
+        assertEquals(0.8, scenario.toxicity(), 1e-9);
+        assertEquals(SimulationEngine.Scheduling.STATIC_PARTITIONS, scenario.scheduling());
+        assertEquals(0, scenario.statsInterval());
+    }
+
+    @Test
+    void outOfRangeValuesShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Scenario.fromProperties(props("environment.temperature", "1.5")));
+        assertThrows(IllegalArgumentException.class,
+                () -> Scenario.fromProperties(props("world.width", "0")));
+        assertThrows(IllegalArgumentException.class,
+                () -> Scenario.fromProperties(props("ticks", "many")));
+    }
+
+    @Test
+    void createdEngineShouldApplyScenario() {
+        Scenario scenario = Scenario.fromProperties(props(
+                "population.initial", "10", "environment.temperature", "0.9", "food.spawnRate", "0.6", "seed", "3"));
+        SimulationEngine engine = scenario.createEngine();
+        try {
+            assertEquals(10, engine.getPopulationCount());
+            assertEquals(0.9, engine.getEnvironment().getTemperature(), 1e-9);
+            assertEquals(0.6, engine.getFoodSpawnRate(), 1e-9);
+            assertEquals(3, engine.getSeed());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void headlessRunShouldWriteStatsEveryInterval(@TempDir Path dir) throws Exception {
+        Path output = dir.resolve("stats.csv");
+        Scenario scenario = Scenario.fromProperties(props(
+                "world.width", "500", "world.height", "500", "population.initial", "20",
+                "ticks", "10", "stats.interval", "5", "stats.output", output.toString(), "seed", "1"));
+
+        HeadlessRunner.RunSummary summary = HeadlessRunner.run(scenario);
+
+        assertEquals(10, summary.ticks());
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(4, lines.size(), "Header plus rows for ticks 0, 5 and 10");
+        assertTrue(lines.get(0).startsWith("Tick,Population"));
+        assertTrue(lines.get(3).startsWith("10,"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SimulationClock class.
+ */
+class SimulationClockTest {
+
+    @Test
+    void durationsShouldConvertAtNominalRate() {
+        assertEquals(SimulationClock.TICKS_PER_SECOND, SimulationClock.ticksFor(1000));
+        assertEquals(9, SimulationClock.ticksFor(300));
+        assertEquals(0, SimulationClock.ticksFor(0));
+        assertEquals(1, SimulationClock.ticksFor(1), "Positive durations last at least one tick");
+    }
+
+    @Test
+    void negativeDurationShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SimulationClock.ticksFor(-1));
+    }
+
+    @Test
+    void neverShouldBeOlderThanAnyDuration() {
+        SimulationClock clock = new SimulationClock();
+        assertTrue(clock.now() - SimulationClock.NEVER >= Microbe.ADRENALINE_DURATION_TICKS);
+        assertEquals(1, clock.advance());
+        assertEquals(1, clock.now());
+    }
+
+    @Test
+    void adrenalineShouldLastAFixedNumberOfTicks() {
+        Microbe m = new Microbe(100, 100);
+        assertFalse(m.isAdrenalineActive(0), "Fresh microbes have never been hit");
+        m.takeDamageAndTransferEnergy(1.0, 10);
+        assertTrue(m.isAdrenalineActive(10 + Microbe.ADRENALINE_DURATION_TICKS - 1));
+        assertFalse(m.isAdrenalineActive(10 + Microbe.ADRENALINE_DURATION_TICKS));
+    }
+}
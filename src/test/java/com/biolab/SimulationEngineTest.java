@@ -0,0 +1,238 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SimulationEngine class: seeded runs are reproducible
+ * independently of the scheduler distributing the work.
+ */
+class SimulationEngineTest {
+
+    // Dense world, so that attack cooldowns and adrenaline are part of the comparison
+    private static final int WORLD = 400;
+    private static final int POPULATION = 200;
+    private static final int TICKS = 120;
+
+    private static List<Microbe> run(long seed, SimulationEngine.Scheduling scheduling) {
+        return run(seed, scheduling, true);
+    }
+
+    private static List<Microbe> run(long seed, SimulationEngine.Scheduling scheduling, boolean incrementalGrid) {
+        return run(seed, scheduling, incrementalGrid, true);
+    }
+
+    private static List<Microbe> run(long seed, SimulationEngine.Scheduling scheduling, boolean incrementalGrid,
+                                     boolean parallelCompaction) {
+        return run(seed, scheduling, incrementalGrid, parallelCompaction, 0);
+    }
+
+    private static List<Microbe> run(long seed, SimulationEngine.Scheduling scheduling, boolean incrementalGrid,
+                                     boolean parallelCompaction, int reorderInterval) {
+        return run(seed, scheduling, incrementalGrid, parallelCompaction, reorderInterval,
+                SimulationEngine.SpatialIndex.GRID);
+    }
+
+    private static List<Microbe> run(long seed, SimulationEngine.Scheduling scheduling, boolean incrementalGrid,
+                                     boolean parallelCompaction, int reorderInterval,
+                                     SimulationEngine.SpatialIndex spatialIndex) {
+        SimulationEngine engine = new SimulationEngine(WORLD, WORLD, POPULATION, POPULATION * 2, seed);
+        try {
+            engine.setScheduling(scheduling);
+            engine.setSpatialIndex(spatialIndex);
+            engine.setIncrementalGrid(incrementalGrid);
+            engine.setParallelCompaction(parallelCompaction);
+            engine.setReorderInterval(reorderInterval);
+            for (int i = 0; i < TICKS; i++) {
+                engine.update();
+            }
+            return engine.getMicrobes();
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private static boolean sameState(List<Microbe> a, List<Microbe> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            Microbe m = a.get(i);
+            Microbe n = b.get(i);
+            if (m.getX() != n.getX() || m.getY() != n.getY()
+                    || m.getEnergy() != n.getEnergy() || m.getHealth() != n.getHealth()
+                    || m.getDiet() != n.getDiet()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void seedShouldBeReported() {
+        SimulationEngine engine = new SimulationEngine(100, 100, 0, 10, 1234L);
+        try {
+            assertEquals(1234L, engine.getSeed());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void clockShouldAdvanceOncePerUpdate() {
+        SimulationEngine engine = new SimulationEngine(200, 200, 5, 10, 1L);
+        try {
+            assertEquals(0, engine.getClock().now());
+            engine.update();
+            engine.update();
+            assertEquals(2, engine.getClock().now());
+            assertEquals(2, engine.getRenderSnapshot().tick());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void snapshotsShouldOnlyBePublishedOnRequest() {
+        SimulationEngine engine = new SimulationEngine(200, 200, 5, 10, 1L);
+        try {
+            engine.update();
+            SimulationEngine.RenderSnapshot first = engine.getRenderSnapshot();
+            assertEquals(1, first.tick());
+
+            engine.update(); // Publishes for the request above
+            engine.update();
+            engine.update();
+            SimulationEngine.RenderSnapshot second = engine.getRenderSnapshot();
+            assertEquals(2, second.tick());
+            assertEquals(engine.getPopulationCount(), second.microbes().size());
+            assertThrows(UnsupportedOperationException.class, () -> second.microbes().remove(0));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void renderBufferShouldMatchTheSnapshotViews() {
+        SimulationEngine engine = new SimulationEngine(WORLD, WORLD, POPULATION, POPULATION * 2, 3L);
+        try {
+            for (int i = 0; i < 10; i++) {
+                engine.update();
+            }
+            Microbe selected = engine.getMicrobes().get(POPULATION / 2);
+            selected.setSelected(true);
+            engine.getRenderSnapshot();
+            engine.update(); // Publishes; the views are live and only match until the next tick
+            SimulationEngine.RenderSnapshot snapshot = engine.getRenderSnapshot();
+            assertEquals(engine.getClock().now(), snapshot.tick());
+            RenderBuffer render = snapshot.render();
+            assertEquals(snapshot.microbes().size(), render.size());
+            for (int i = 0; i < render.size(); i++) {
+                Microbe m = snapshot.microbes().get(i);
+                assertEquals(m.getId(), render.getId(i));
+                assertEquals(i, render.indexOf(m.getId()));
+                assertEquals((float) m.getX(), render.getX(i));
+                assertEquals((float) m.getY(), render.getY(i));
+                assertEquals(m.getColor().getRGB() & 0xFFFFFF, render.getRgb(i));
+                assertEquals(m.isCarnivore(), render.isCarnivore(i));
+                assertEquals(Math.min(10, (int) (m.getHealthRatio() * 10)), render.getHealthBucket(i));
+            }
+            assertEquals(-1, render.indexOf(-1));
+            assertEquals(render.indexOf(selected.getId()), render.getSelectedIndex());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void populationShouldBeReportedWithoutSnapshots() {
+        SimulationEngine engine = new SimulationEngine(200, 200, 5, 10, 1L);
+        try {
+            engine.spawnMicrobe(new Microbe(50, 50));
+            assertEquals(6, engine.getPopulationCount());
+            assertEquals(6, engine.getMicrobes().size());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void sameSeedShouldGiveIdenticalRunsForEveryScheduling() {
+        List<Microbe> reference = run(42L, SimulationEngine.Scheduling.STATIC_PARTITIONS);
+        assertFalse(reference.isEmpty());
+        for (SimulationEngine.Scheduling scheduling : SimulationEngine.Scheduling.values()) {
+            assertTrue(sameState(reference, run(42L, scheduling)), "Run diverged with " + scheduling);
+        }
+    }
+
+    @Test
+    void incrementalGridShouldGiveTheSameRunAsRebuilding() {
+        for (SimulationEngine.Scheduling scheduling : SimulationEngine.Scheduling.values()) {
+            assertTrue(sameState(run(42L, scheduling, false), run(42L, scheduling, true)),
+                    "Incremental grid diverged with " + scheduling);
+        }
+    }
+
+    @Test
+    void parallelCompactionShouldGiveTheSameRunAsSerialCompaction() {
+        for (boolean incrementalGrid : new boolean[]{false, true}) {
+            assertTrue(sameState(run(42L, SimulationEngine.Scheduling.STATIC_PARTITIONS, incrementalGrid, false),
+                            run(42L, SimulationEngine.Scheduling.STATIC_PARTITIONS, incrementalGrid, true)),
+                    "Run diverged with incrementalGrid=" + incrementalGrid);
+        }
+    }
+
+    @Test
+    void reorderedRunsShouldBeReproducibleForEverySchedulingAndGrid() {
+        List<Microbe> reference = run(42L, SimulationEngine.Scheduling.STATIC_PARTITIONS, false, true, 10);
+        for (SimulationEngine.Scheduling scheduling : SimulationEngine.Scheduling.values()) {
+            assertTrue(sameState(reference, run(42L, scheduling, true, true, 10)), "Run diverged with " + scheduling);
+        }
+    }
+
+    @Test
+    void quadtreeShouldGiveTheSameRunAsTheGrid() {
+        List<Microbe> reference = run(42L, SimulationEngine.Scheduling.STATIC_PARTITIONS);
+        for (SimulationEngine.Scheduling scheduling : SimulationEngine.Scheduling.values()) {
+            assertTrue(sameState(reference, run(42L, scheduling, true, true, 0, SimulationEngine.SpatialIndex.QUADTREE)),
+                    "Run diverged with " + scheduling);
+        }
+    }
+
+    @Test
+    void microbesShouldSenseEachOtherBeyondOneCell() {
+        SimulationEngine engine = new SimulationEngine(WORLD, WORLD, 0, 10, 42L);
+        try {
+            // 42 units apart: beyond one cell, inside the reach of the former 3x3-cell scan
+            // even after both have moved for a tick
+            Microbe carnivore = new Microbe(100, 100, 1.0);
+            Microbe herbivore = new Microbe(142, 100, 0.0);
+            engine.spawnMicrobes(List.of(carnivore, herbivore));
+            engine.update();
+
+            assertEquals("HUNT", carnivore.getAiState());
+            assertEquals("FLEE", herbivore.getAiState());
+            assertTrue(SimulationEngine.getSenseRadius() > SimulationEngine.getSpatialCellSize());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void negativeReorderIntervalShouldBeRejected() {
+        SimulationEngine engine = new SimulationEngine(100, 100, 0, 10, 1L);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> engine.setReorderInterval(-1));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void differentSeedsShouldGiveDifferentRuns() {
+        assertFalse(sameState(
+                run(1L, SimulationEngine.Scheduling.STATIC_PARTITIONS),
+                run(2L, SimulationEngine.Scheduling.STATIC_PARTITIONS)));
+    }
+}
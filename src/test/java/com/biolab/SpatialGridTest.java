@@ -2,8 +2,8 @@ package com.biolab;
 
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,6 +13,19 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class SpatialGridTest {
 
+    /** Returns a store holding one pellet per (x, y) pair, in slots 0, 1, 2, ... */
+    private static FoodStore foodAt(double... coordinates) {
+        FoodStore food = new FoodStore(1000);
+        for (int i = 0; i < coordinates.length; i += 2) {
+            food.add(coordinates[i], coordinates[i + 1]);
+        }
+        return food;
+    }
+
+    private static boolean contains(int[] slots, int slot) {
+        return Arrays.stream(slots).anyMatch(s -> s == slot);
+    }
+
     // ===== Construction =====
 
     @Test
@@ -45,10 +58,10 @@ class SpatialGridTest {
     @Test
     void emptyGridShouldReturnNoFood() {
         SpatialGrid grid = new SpatialGrid(1000, 1000, 50);
-        grid.rebuild(List.of());
+        grid.rebuild(foodAt());
 
-        List<FoodPellet> nearby = grid.getNearbyFood(500, 500);
-        assertTrue(nearby.isEmpty(), "Empty grid should return no food");
+        int[] nearby = grid.getNearbyFood(500, 500);
+        assertEquals(0, nearby.length, "Empty grid should return no food");
     }
 
     // ===== Rebuild and Lookup =====
@@ -57,11 +70,10 @@ class SpatialGridTest {
     void rebuildShouldPlaceFoodInCorrectCell() {
         SpatialGrid grid = new SpatialGrid(100, 100, 50);
 
-        FoodPellet food = new FoodPellet(25, 25); // Cell (0,0)
-        grid.rebuild(List.of(food));
+        grid.rebuild(foodAt(25, 25)); // Cell (0,0)
 
-        List<FoodPellet> nearby = grid.getNearbyFood(25, 25);
-        assertTrue(nearby.contains(food), "Food should be found in its own cell");
+        int[] nearby = grid.getNearbyFood(25, 25);
+        assertTrue(contains(nearby, 0), "Food should be found in its own cell");
     }
 
     @Test
@@ -69,24 +81,22 @@ class SpatialGridTest {
         SpatialGrid grid = new SpatialGrid(200, 200, 50);
 
         // Place food in cell (0,0) - position (10, 10)
-        FoodPellet food = new FoodPellet(10, 10);
-        grid.rebuild(List.of(food));
+        grid.rebuild(foodAt(10, 10));
 
         // Query from cell (1,1) - position (60, 60) – which is adjacent to cell (0,0)
-        List<FoodPellet> nearby = grid.getNearbyFood(60, 60);
-        assertTrue(nearby.contains(food), "Food in adjacent cell should be found");
+        int[] nearby = grid.getNearbyFood(60, 60);
+        assertTrue(contains(nearby, 0), "Food in adjacent cell should be found");
     }
 
     @Test
     void distantFoodShouldNotBeReturned() {
         SpatialGrid grid = new SpatialGrid(1000, 1000, 50);
 
-        FoodPellet food = new FoodPellet(10, 10);   // Cell (0,0)
-        grid.rebuild(List.of(food));
+        grid.rebuild(foodAt(10, 10));   // Cell (0,0)
 
         // Query from far away - cell (10,10)
-        List<FoodPellet> nearby = grid.getNearbyFood(500, 500);
-        assertFalse(nearby.contains(food), "Food in distant cell should not be found");
+        int[] nearby = grid.getNearbyFood(500, 500);
+        assertFalse(contains(nearby, 0), "Food in distant cell should not be found");
     }
 
     // ===== Consumed Food =====
@@ -95,13 +105,13 @@ class SpatialGridTest {
     void rebuildShouldSkipConsumedFood() {
         SpatialGrid grid = new SpatialGrid(100, 100, 50);
 
-        FoodPellet food = new FoodPellet(25, 25);
-        food.consume(); // Mark as consumed
+        FoodStore food = foodAt(25, 25);
+        food.consume(0); // Mark as consumed
 
-        grid.rebuild(List.of(food));
+        grid.rebuild(food);
 
-        List<FoodPellet> nearby = grid.getNearbyFood(25, 25);
-        assertFalse(nearby.contains(food), "Consumed food should not be in the grid");
+        int[] nearby = grid.getNearbyFood(25, 25);
+        assertFalse(contains(nearby, 0), "Consumed food should not be in the grid");
     }
 
     // ===== Edge Positions =====
@@ -110,34 +120,31 @@ class SpatialGridTest {
     void foodAtWorldOriginShouldBeFoundCorrectly() {
         SpatialGrid grid = new SpatialGrid(100, 100, 50);
 
-        FoodPellet food = new FoodPellet(0, 0);
-        grid.rebuild(List.of(food));
+        grid.rebuild(foodAt(0, 0));
 
-        List<FoodPellet> nearby = grid.getNearbyFood(0, 0);
-        assertTrue(nearby.contains(food));
+        int[] nearby = grid.getNearbyFood(0, 0);
+        assertTrue(contains(nearby, 0));
     }
 
     @Test
     void foodAtWorldBorderShouldBeFoundCorrectly() {
         SpatialGrid grid = new SpatialGrid(100, 100, 50);
 
-        FoodPellet food = new FoodPellet(99, 99);
-        grid.rebuild(List.of(food));
+        grid.rebuild(foodAt(99, 99));
 
-        List<FoodPellet> nearby = grid.getNearbyFood(99, 99);
-        assertTrue(nearby.contains(food));
+        int[] nearby = grid.getNearbyFood(99, 99);
+        assertTrue(contains(nearby, 0));
     }
 
     @Test
     void negativeCoordinatesShouldBeClampedToZero() {
         SpatialGrid grid = new SpatialGrid(100, 100, 50);
 
-        FoodPellet food = new FoodPellet(5, 5);
-        grid.rebuild(List.of(food));
+        grid.rebuild(foodAt(5, 5));
 
         // Query with negative coords should still find food in cell (0,0)
-        List<FoodPellet> nearby = grid.getNearbyFood(-10, -10);
-        assertTrue(nearby.contains(food), "Negative coords should clamp to cell (0,0)");
+        int[] nearby = grid.getNearbyFood(-10, -10);
+        assertTrue(contains(nearby, 0), "Negative coords should clamp to cell (0,0)");
     }
 
     // ===== Multiple Foods in Same Cell =====
@@ -146,31 +153,58 @@ class SpatialGridTest {
     void multipleFoodInSameCellShouldAllBeReturned() {
         SpatialGrid grid = new SpatialGrid(100, 100, 50);
 
-        FoodPellet food1 = new FoodPellet(10, 10);
-        FoodPellet food2 = new FoodPellet(20, 20);
-        FoodPellet food3 = new FoodPellet(30, 30);
-        grid.rebuild(List.of(food1, food2, food3));
+        grid.rebuild(foodAt(10, 10, 20, 20, 30, 30));
 
-        List<FoodPellet> nearby = grid.getNearbyFood(15, 15);
-        assertTrue(nearby.containsAll(List.of(food1, food2, food3)),
-                "All food in same cell should be returned");
+        int[] nearby = grid.getNearbyFood(15, 15);
+        assertArrayEquals(new int[]{0, 1, 2}, nearby, "All food in same cell should be returned");
     }
 
     // ===== Rebuild Clears Old Data =====
 
     @Test
     void rebuildShouldClearPreviousData() {
-        SpatialGrid grid = new SpatialGrid(100, 100, 50);
+        SpatialGrid grid = new SpatialGrid(200, 200, 50);
 
-        FoodPellet food1 = new FoodPellet(25, 25);
-        grid.rebuild(List.of(food1));
+        FoodStore food = foodAt(25, 25);
+        grid.rebuild(food);
 
-        // Rebuild with different food
-        FoodPellet food2 = new FoodPellet(75, 75);
-        grid.rebuild(List.of(food2));
+        // Rebuild after the pellet was eaten and its slot reused far away
+        food.consume(0);
+        food.recycleConsumed();
+        assertEquals(0, food.add(175, 175));
+        grid.rebuild(food);
 
-        List<FoodPellet> nearOld = grid.getNearbyFood(25, 25);
-        assertFalse(nearOld.contains(food1), "Old food should be gone after rebuild");
+        int[] nearOld = grid.getNearbyFood(25, 25);
+        assertFalse(contains(nearOld, 0), "Old food should be gone after rebuild");
+    }
+
+    // ===== Nearest Food =====
+
+    @Test
+    void nearestFoodShouldPickTheClosestPelletAcrossCells() {
+        SpatialGrid grid = new SpatialGrid(100, 100, 30);
+        grid.rebuild(foodAt(40, 40, 28, 33)); // far, near
+
+        assertEquals(1, grid.nearestFood(31, 31, 30));
+    }
+
+    @Test
+    void nearestFoodShouldRespectRadiusAndSkipConsumedPellets() {
+        SpatialGrid grid = new SpatialGrid(100, 100, 30);
+        FoodStore food = foodAt(50, 50, 50, 60);
+        grid.rebuild(food);
+        food.consume(0);
+
+        assertEquals(1, grid.nearestFood(50, 50, 30));
+        assertEquals(-1, grid.nearestFood(50, 50, 5));
+    }
+
+    @Test
+    void nearestFoodShouldRejectRadiusBeyondTheNeighbourhood() {
+        SpatialGrid grid = new SpatialGrid(100, 100, 30);
+        grid.rebuild(foodAt());
+        assertThrows(IllegalArgumentException.class, () -> grid.nearestFood(50, 50, 31));
+        assertThrows(IllegalArgumentException.class, () -> grid.nearestFood(50, 50, -1));
     }
 
     // ===== Large Grid =====
@@ -179,16 +213,16 @@ class SpatialGridTest {
     void largeWorldShouldWorkCorrectly() {
         SpatialGrid grid = new SpatialGrid(10_000, 10_000, 30);
 
-        List<FoodPellet> foods = new ArrayList<>();
+        FoodStore food = new FoodStore(1000);
+        SplittableRandom random = new SplittableRandom(1);
         for (int i = 0; i < 1000; i++) {
-            foods.add(FoodPellet.createRandom(10_000, 10_000));
+            food.add(random.nextDouble() * 10_000, random.nextDouble() * 10_000);
         }
-        grid.rebuild(foods);
+        grid.rebuild(food);
 
         // Query should return some subset (not all 1000)
-        List<FoodPellet> nearby = grid.getNearbyFood(5000, 5000);
-        assertTrue(nearby.size() < foods.size(),
-                "Spatial grid should filter – got " + nearby.size() + " of " + foods.size());
+        int[] nearby = grid.getNearbyFood(5000, 5000);
+        assertTrue(nearby.length < food.size(),
+                "Spatial grid should filter – got " + nearby.length + " of " + food.size());
     }
 }
-
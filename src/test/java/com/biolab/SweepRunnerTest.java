@@ -0,0 +1,111 @@
+package com.biolab;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SweepRunner class: parameter grid expansion and the combined output
+ * of worlds sharing one pool.
+ */
+class SweepRunnerTest {
+
+    private static Properties sweepProps() {
+        Properties props = new Properties();
+        props.setProperty("world.width", "400");
+        props.setProperty("world.height", "400");
+        props.setProperty("population.initial", "30");
+        props.setProperty("ticks", "6");
+        props.setProperty("stats.interval", "3");
+        props.setProperty("seed", "5");
+        props.setProperty("sweep.temperature", "0.1, 0.9");
+        props.setProperty("sweep.toxicity", "0.2,0.4,0.6");
+        return props;
+    }
+
+    @Test
+    void gridShouldBeCartesianProductWithBaseFallback() {
+        Properties props = sweepProps();
+        List<SweepRunner.ParameterSet> grid = SweepRunner.parameterGrid(props, Scenario.fromProperties(props));
+
+        assertEquals(6, grid.size());
+        assertEquals(new SweepRunner.ParameterSet(0.1, 0.2, 0.3), grid.get(0));
+        assertEquals(new SweepRunner.ParameterSet(0.9, 0.6, 0.3), grid.get(5));
+    }
+
+    @Test
+    void malformedListShouldBeRejected() {
+        Properties props = sweepProps();
+        props.setProperty("sweep.toxicity", "0.2,lots");
+        Scenario base = Scenario.fromProperties(props);
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parameterGrid(props, base));
+    }
+
+    @Test
+    void parallelismShouldDefaultToTheProcessorsAndRejectBadValues() {
+        Properties props = sweepProps();
+        assertEquals(Runtime.getRuntime().availableProcessors(), SweepRunner.parallelism(props));
+        props.setProperty("sweep.parallelism", " 3 ");
+        assertEquals(3, SweepRunner.parallelism(props));
+        props.setProperty("sweep.parallelism", "four");
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parallelism(props));
+        props.setProperty("sweep.parallelism", "0");
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parallelism(props));
+    }
+
+    @Test
+    void statsShouldUseDotDecimalsInAnyLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        String row;
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            row = DataExporter.formatStats(List.of(new Microbe(10, 10, 0.3)), new Environment());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+        assertEquals(DataExporter.STATS_COLUMNS.split(",").length, row.strip().split(",").length);
+        assertTrue(row.contains("0.3000"), row);
+    }
+
+    @Test
+    void sweepShouldWriteRowsForEveryWorld(@TempDir Path dir) throws Exception {
+        Properties props = sweepProps();
+        Scenario base = Scenario.fromProperties(props);
+        List<SweepRunner.ParameterSet> grid = SweepRunner.parameterGrid(props, base);
+        Path output = dir.resolve("sweep.csv");
+
+        HeadlessRunner.RunSummary total = SweepRunner.run(base, grid, output, 2);
+
+        assertEquals(6 * 6, total.ticks());
+        List<String> lines = Files.readAllLines(output);
+        assertTrue(lines.get(0).startsWith("ParameterSet,Tick,Population"));
+        assertEquals(1 + 6 * 2, lines.size(), "Header plus rows for ticks 3 and 6 of every world");
+        for (SweepRunner.ParameterSet set : grid) {
+            assertEquals(2, lines.stream().filter(l -> l.startsWith(set.key() + ",")).count());
+        }
+    }
+
+    @Test
+    void sharedSchedulerShouldNotStartEngineThreads(@TempDir Path dir) throws Exception {
+        Properties props = sweepProps();
+        Scenario base = Scenario.fromProperties(props);
+        long before = simWorkerThreads();
+
+        SweepRunner.run(base, SweepRunner.parameterGrid(props, base), dir.resolve("sweep.csv"), 2);
+
+        assertEquals(before, simWorkerThreads());
+    }
+
+    private static long simWorkerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("SimWorker"))
+                .count();
+    }
+}
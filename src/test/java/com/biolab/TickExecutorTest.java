@@ -0,0 +1,149 @@
+package com.biolab;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TickExecutor class: every worker runs each phase exactly once,
+ * phases are separated by a barrier, failures propagate and shutdown is honoured.
+ */
+class TickExecutorTest {
+
+    private TickExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (executor != null) executor.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void constructorShouldRejectZeroWorkers() {
+        assertThrows(IllegalArgumentException.class, () -> new TickExecutor(0, "test"));
+    }
+
+    @Test
+    void everyWorkerShouldRunEachPhaseOnce() {
+        executor = new TickExecutor(4, "test");
+        AtomicIntegerArray runs = new AtomicIntegerArray(4);
+
+        for (int phase = 0; phase < 100; phase++) {
+            executor.runPhase((worker, workers) -> {
+                assertEquals(4, workers);
+                runs.incrementAndGet(worker);
+            });
+        }
+
+        for (int w = 0; w < 4; w++) {
+            assertEquals(100, runs.get(w), "Worker " + w + " should run every phase");
+        }
+    }
+
+    @Test
+    void nextPhaseShouldSeeAllWritesOfPreviousPhase() {
+        executor = new TickExecutor(3, "test");
+        int[] data = new int[3000];
+
+        executor.runPhase((worker, workers) -> {
+            for (int i = worker; i < data.length; i += workers) data[i] = i;
+        });
+        int[] sums = new int[3];
+        executor.runPhase((worker, workers) -> {
+            // Read a partition written by a different worker
+            int other = (worker + 1) % workers;
+            for (int i = other; i < data.length; i += workers) sums[worker] += data[i] == i ? 1 : 0;
+        });
+
+        assertEquals(data.length, sums[0] + sums[1] + sums[2]);
+    }
+
+    @Test
+    void workerFailureShouldPropagateToCaller() {
+        executor = new TickExecutor(2, "test");
+        CompletionException e = assertThrows(CompletionException.class, () ->
+                executor.runPhase((worker, workers) -> {
+                    if (worker == 1) throw new IllegalStateException("boom");
+                }));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+
+        // The executor must stay usable after a failed phase
+        executor.runPhase((worker, workers) -> { });
+    }
+
+    @Test
+    void runPhaseAfterShutdownShouldFail() throws InterruptedException {
+        executor = new TickExecutor(2, "test");
+        assertTrue(executor.shutdown(1, TimeUnit.SECONDS));
+        assertTrue(executor.isShutdown());
+        assertThrows(IllegalStateException.class, () -> executor.runPhase((worker, workers) -> { }));
+    }
+
+    @Test
+    void statsShouldAccumulateBusyTime() {
+        executor = new TickExecutor(2, "test");
+        executor.runPhase((worker, workers) -> {
+            long end = System.nanoTime() + 2_000_000;
+            while (System.nanoTime() < end) Thread.onSpinWait();
+        });
+
+        for (TickExecutor.WorkerStats stats : executor.getWorkerStats()) {
+            assertTrue(stats.busyNanos() > 0, "Worker " + stats.worker() + " should record busy time");
+        }
+        executor.resetStats();
+        assertEquals(0, executor.getWorkerStats().get(0).busyNanos());
+    }
+
+    @Test
+    void phaseTimeShouldCoverEveryPhaseAndSurviveReset() {
+        executor = new TickExecutor(2, "test");
+        assertEquals(0, executor.getPhaseNanos());
+
+        long before = System.nanoTime();
+        executor.runPhase((worker, workers) -> {
+            long end = System.nanoTime() + 5_000_000;
+            while (worker == 1 && System.nanoTime() < end) Thread.onSpinWait();
+        });
+        long elapsed = System.nanoTime() - before;
+        long phaseNanos = executor.getPhaseNanos();
+
+        assertTrue(phaseNanos >= 5_000_000 && phaseNanos <= elapsed, "phase time " + phaseNanos);
+        executor.resetStats();
+        assertEquals(phaseNanos, executor.getPhaseNanos());
+    }
+
+    @Test
+    void shutdownDuringPhaseShouldWaitForRunningHelpers() {
+        executor = new TickExecutor(2, "test");
+        AtomicBoolean helperDone = new AtomicBoolean();
+
+        assertThrows(CompletionException.class, () -> executor.runPhase((worker, workers) -> {
+            if (worker == 1) {
+                long end = System.nanoTime() + 200_000_000;
+                while (System.nanoTime() < end) Thread.onSpinWait();
+                helperDone.set(true);
+            } else {
+                Thread stopper = new Thread(() -> {
+                    try {
+                        executor.shutdown(0, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                stopper.start();
+                try {
+                    stopper.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }));
+
+        assertTrue(helperDone.get(), "runPhase returned while a helper was still running the phase");
+    }
+}